@@ -0,0 +1,97 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.typeconversion.ByteArrayBase64Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.neo4j.conversion.MetaDataDrivenConversionService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of a property value between its entity and graph representations by an OGM converter, as
+ * performed for every converted property that's loaded or saved.  The <code>generic</code> benchmarks register the same
+ * converter with a plain {@link GenericConversionService}, which resolves it from the type descriptors on each call, as
+ * a baseline for the direct lookup done by {@link MetaDataDrivenConversionService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private byte[] entityValue;
+    private String graphValue;
+    private MetaDataDrivenConversionService metaDataDrivenConversionService;
+    private GenericConversionService genericConversionService;
+
+    @Setup
+    public void setUp() {
+        final ByteArrayBase64Converter converter = new ByteArrayBase64Converter();
+        entityValue = new byte[] { 98, 99, 100, 101, 102 };
+        graphValue = converter.toGraphProperty(entityValue);
+
+        metaDataDrivenConversionService = new MetaDataDrivenConversionService(
+                new MetaData("org.springframework.data.neo4j.benchmarks.domain"));
+
+        genericConversionService = new GenericConversionService();
+        genericConversionService.addConverter(byte[].class, String.class, new Converter<byte[], String>() {
+            @Override
+            public String convert(byte[] source) {
+                return converter.toGraphProperty(source);
+            }
+        });
+        genericConversionService.addConverter(String.class, byte[].class, new Converter<String, byte[]>() {
+            @Override
+            public byte[] convert(String source) {
+                return converter.toEntityAttribute(source);
+            }
+        });
+    }
+
+    @Benchmark
+    public String toGraphProperty() {
+        return metaDataDrivenConversionService.convert(entityValue, String.class);
+    }
+
+    @Benchmark
+    public byte[] toEntityAttribute() {
+        return metaDataDrivenConversionService.convert(byte[].class, graphValue);
+    }
+
+    @Benchmark
+    public String genericToGraphProperty() {
+        return genericConversionService.convert(entityValue, String.class);
+    }
+
+    @Benchmark
+    public byte[] genericToEntityAttribute() {
+        return genericConversionService.convert(graphValue, byte[].class);
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.neo4j.benchmarks.domain.Person;
+import org.springframework.data.neo4j.benchmarks.repo.PersonRepository;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH state shared by the benchmarks that need a database, which is started in the same way as by the tests'
+ * <code>MultiDriverTestClass</code>, using the driver configured in <code>ogm.properties</code>, and shut down again
+ * once the trial is over.  The database is populated with {@link #PEOPLE} people, each of whom knows the next one.
+ */
+@State(Scope.Benchmark)
+public class EmbeddedDatabaseState {
+
+    static final int PEOPLE = 100;
+
+    private AnnotationConfigApplicationContext context;
+    private final List<Long> personIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void startDatabase() {
+        MultiDriverTestClass.setupMultiDriverTestEnvironment();
+        context = new AnnotationConfigApplicationContext(BenchmarkConfiguration.class);
+        getBean(Session.class).purgeDatabase();
+
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < PEOPLE; i++) {
+            Person person = new Person(nameOf(i), 20 + i % 50);
+            if (i > 0) {
+                people.get(i - 1).knows(person);
+            }
+            people.add(person);
+        }
+        for (Person person : getBean(PersonRepository.class).save(people, 1)) {
+            personIds.add(person.getId());
+        }
+        getBean(Neo4jOperations.class).clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() {
+        try {
+            getBean(Session.class).purgeDatabase();
+            context.close();
+        } finally {
+            MultiDriverTestClass.tearDownMultiDriverTestEnvironment();
+        }
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    Long personId(int index) {
+        return personIds.get(index % personIds.size());
+    }
+
+    static String nameOf(int index) {
+        return "Person " + index % PEOPLE;
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.neo4j.ogm.exception.InvalidDepthException;
+import org.neo4j.ogm.exception.NotFoundException;
+import org.neo4j.ogm.exception.ResultProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.neo4j.template.Neo4jOgmExceptionTranslator;
+import org.springframework.data.neo4j.template.Neo4jPersistenceExceptionTranslator;
+
+import java.net.SocketException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the error path taken by every repository or template call that fails, i.e. translating the OGM exception
+ * into a Spring {@link DataAccessException}.  The <code>rethrowDispatch</code> benchmark reproduces the former
+ * implementation, which rethrew the exception in order to dispatch on its type through catch blocks, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExceptionTranslationBenchmark {
+
+    private RuntimeException notFound;
+    private RuntimeException untranslatable;
+    private RuntimeException connectionReset;
+    private PersistenceExceptionTranslator persistenceExceptionTranslator;
+
+    @Setup
+    public void setUp() {
+        notFound = new NotFoundException("Not found");
+        untranslatable = new IllegalStateException("Unexpected");
+        connectionReset = new ResultProcessingException("Request failed", new SocketException("Connection reset"));
+        persistenceExceptionTranslator = new Neo4jPersistenceExceptionTranslator();
+    }
+
+    @Benchmark
+    public DataAccessException translateMappedException() {
+        return Neo4jOgmExceptionTranslator.translateExceptionIfPossible(notFound);
+    }
+
+    @Benchmark
+    public DataAccessException translateUnmappedException() {
+        return Neo4jOgmExceptionTranslator.translateExceptionIfPossible(untranslatable);
+    }
+
+    @Benchmark
+    public DataAccessException translateTransientException() {
+        return Neo4jOgmExceptionTranslator.translateExceptionIfPossible(connectionReset);
+    }
+
+    @Benchmark
+    public DataAccessException persistenceExceptionTranslator() {
+        return persistenceExceptionTranslator.translateExceptionIfPossible(notFound);
+    }
+
+    @Benchmark
+    public RuntimeException rethrowDispatch() {
+        try {
+            return rethrowAndTranslate(notFound);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException rethrowAndTranslate(Exception ex) {
+        try {
+            throw (RuntimeException) ex;
+        } catch (NotFoundException nfe) {
+            throw new DataRetrievalFailureException(nfe.getMessage(), nfe);
+        } catch (InvalidDepthException ide) {
+            throw new InvalidDataAccessApiUsageException(ide.getMessage(), ide);
+        } catch (ResultProcessingException rpe) {
+            throw new DataRetrievalFailureException(rpe.getMessage(), rpe);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.neo4j.ogm.MetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the start-up cost of a {@link Neo4jMappingContext} for the benchmark domain, both including the OGM's
+ * class-path scan and on already scanned {@link MetaData}, with entities registered eagerly on one or all processors
+ * and lazily.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MappingContextBenchmark {
+
+    private static final String DOMAIN_PACKAGE = "org.springframework.data.neo4j.benchmarks.domain";
+
+    private MetaData metaData;
+
+    @Setup
+    public void setUp() {
+        metaData = new MetaData(DOMAIN_PACKAGE);
+    }
+
+    @Benchmark
+    public Neo4jMappingContext scanAndStart() {
+        return new Neo4jMappingContext(new MetaData(DOMAIN_PACKAGE));
+    }
+
+    @Benchmark
+    public Neo4jMappingContext startSequentially() {
+        return new Neo4jMappingContext(metaData, 1, false);
+    }
+
+    @Benchmark
+    public Neo4jMappingContext startInParallel() {
+        return new Neo4jMappingContext(metaData, Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    @Benchmark
+    public Neo4jMappingContext startLazily() {
+        return new Neo4jMappingContext(metaData, 1, true);
+    }
+
+}
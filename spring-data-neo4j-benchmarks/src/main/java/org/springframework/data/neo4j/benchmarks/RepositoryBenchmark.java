@@ -0,0 +1,77 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.neo4j.benchmarks.domain.Person;
+import org.springframework.data.neo4j.benchmarks.repo.PersonRepository;
+import org.springframework.data.neo4j.benchmarks.repo.PersonSummary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of repository query methods against the embedded database: an <code>&#064;Query</code>
+ * method executed by <code>GraphRepositoryQuery</code>, a derived finder executed by <code>DerivedGraphRepositoryQuery</code>,
+ * and a method returning a <code>&#064;QueryResult</code> interface, whose getters are answered by a
+ * <code>QueryResultProxy</code>.  Each query matches one of the people populated by {@link EmbeddedDatabaseState}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private PersonRepository personRepository;
+    private PersonSummary summary;
+    private int index;
+
+    @Setup
+    public void setUp(EmbeddedDatabaseState database) {
+        personRepository = database.getBean(PersonRepository.class);
+        summary = personRepository.findSummaryByName(EmbeddedDatabaseState.nameOf(0));
+    }
+
+    @Benchmark
+    public Person annotatedQuery() {
+        return personRepository.findByNameWithQuery(EmbeddedDatabaseState.nameOf(index++));
+    }
+
+    @Benchmark
+    public Person derivedQuery() {
+        return personRepository.findByName(EmbeddedDatabaseState.nameOf(index++));
+    }
+
+    @Benchmark
+    public PersonSummary queryResultQuery() {
+        return personRepository.findSummaryByName(EmbeddedDatabaseState.nameOf(index++));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int queryResultProxyInvocation() {
+        return summary.getName().length() + summary.getAge();
+    }
+
+}
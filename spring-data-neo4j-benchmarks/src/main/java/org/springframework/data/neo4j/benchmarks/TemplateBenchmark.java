@@ -0,0 +1,71 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.neo4j.benchmarks.domain.Person;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving single entities through the {@link Neo4jOperations} template against the embedded database.
+ * The saved person's age changes on every call so that each save writes to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    private EmbeddedDatabaseState database;
+    private Neo4jOperations template;
+    private Person person;
+    private int index;
+
+    @Setup
+    public void setUp(EmbeddedDatabaseState database) {
+        this.database = database;
+        this.template = database.getBean(Neo4jOperations.class);
+        this.person = template.load(Person.class, database.personId(0), 0);
+    }
+
+    @Benchmark
+    public Person load() {
+        return template.load(Person.class, database.personId(index++));
+    }
+
+    @Benchmark
+    public Person loadWithoutRelationships() {
+        return template.load(Person.class, database.personId(index++), 0);
+    }
+
+    @Benchmark
+    public Person save() {
+        person.setAge(person.getAge() + 1);
+        return template.save(person);
+    }
+
+}
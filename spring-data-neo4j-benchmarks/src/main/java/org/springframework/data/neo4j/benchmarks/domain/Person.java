@@ -0,0 +1,72 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks.domain;
+
+import org.neo4j.ogm.annotation.GraphId;
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.annotation.Relationship;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity on which the repository and template benchmarks operate.
+ */
+@NodeEntity
+public class Person {
+
+    @GraphId
+    private Long id;
+
+    private String name;
+
+    private int age;
+
+    @Relationship(type = "KNOWS")
+    private Set<Person> acquaintances = new HashSet<>();
+
+    Person() {
+        // default constructor for OGM
+    }
+
+    public Person(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public Set<Person> getAcquaintances() {
+        return acquaintances;
+    }
+
+    public void knows(Person person) {
+        acquaintances.add(person);
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks.repo;
+
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.benchmarks.domain.Person;
+import org.springframework.data.neo4j.repository.GraphRepository;
+
+/**
+ * Repository covering each kind of query method measured by the repository benchmarks.
+ */
+public interface PersonRepository extends GraphRepository<Person> {
+
+    @Query("MATCH (person:Person) WHERE person.name = {0} RETURN person")
+    Person findByNameWithQuery(String name);
+
+    Person findByName(String name);
+
+    @Query("MATCH (person:Person) WHERE person.name = {0} RETURN person.name AS name, person.age AS age")
+    PersonSummary findSummaryByName(String name);
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor that writes an index of the classes annotated with <code>&#064;NodeEntity</code> or
+ * <code>&#064;RelationshipEntity</code>, and of their labels, to {@value #INDEX_LOCATION} at build time.  Spring Data
+ * Neo4j can be configured to register only the indexed entities at startup, rather than every class known to the
+ * mapping metadata.
+ * <p>
+ * Each line of the index is a tab-separated record whose first two columns are the kind of record and the binary name
+ * of the entity class:
+ * </p>
+ * <pre>
+ * entity       &lt;class&gt;  NODE|RELATIONSHIP  &lt;label or relationship type&gt;
+ * </pre>
+ * <p>
+ * Only annotated classes are indexed, so unannotated classes that the OGM would otherwise map are left out.  Entries
+ * from a previous, incremental compilation are kept for as long as their classes are still annotated entities.
+ * </p>
+ */
+@SupportedAnnotationTypes({ MappingIndexProcessor.NODE_ENTITY, MappingIndexProcessor.RELATIONSHIP_ENTITY })
+public class MappingIndexProcessor extends AbstractProcessor {
+
+    /**
+     * The location of the index in the class output, and thus on the classpath.
+     */
+    public static final String INDEX_LOCATION = "META-INF/spring-data-neo4j/mapping.index";
+
+    static final String NODE_ENTITY = "org.neo4j.ogm.annotation.NodeEntity";
+    static final String RELATIONSHIP_ENTITY = "org.neo4j.ogm.annotation.RelationshipEntity";
+
+    private final Map<String, List<String>> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    TypeElement type = (TypeElement) element;
+                    entries.put(binaryName(type), describe(type));
+                }
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private List<String> describe(TypeElement type) {
+        String className = binaryName(type);
+        String simpleName = type.getSimpleName().toString();
+
+        AnnotationMirror nodeEntity = annotation(type, NODE_ENTITY);
+        if (nodeEntity != null) {
+            return Collections.singletonList(line("entity", className, "NODE", stringValue(nodeEntity, "label", simpleName)));
+        }
+        return Collections.singletonList(line("entity", className, "RELATIONSHIP",
+                stringValue(annotation(type, RELATIONSHIP_ENTITY), "type", upperSnakeCase(simpleName))));
+    }
+
+    private void writeIndex() {
+        Map<String, List<String>> index = readPreviousIndex();
+        index.putAll(entries);
+        if (index.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            Writer writer = resource.openWriter();
+            try {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (List<String> lines : index.values()) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX_LOCATION + ": " + e);
+        }
+    }
+
+    private Map<String, List<String>> readPreviousIndex() {
+        Map<String, List<String>> index = new TreeMap<>();
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            Reader reader = resource.openReader(true);
+            try {
+                BufferedReader lines = new BufferedReader(reader);
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    String[] columns = line.split("\t");
+                    if (!columns[0].equals("entity") || columns.length < 2 || !isStillAnEntity(columns[1])) {
+                        continue;
+                    }
+                    List<String> classLines = index.get(columns[1]);
+                    if (classLines == null) {
+                        classLines = new ArrayList<>();
+                        index.put(columns[1], classLines);
+                    }
+                    classLines.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | IllegalArgumentException noPreviousIndex) {
+            // this is a full build, or the index has yet to be written
+        }
+        return index;
+    }
+
+    private boolean isStillAnEntity(String className) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return type != null && (annotation(type, NODE_ENTITY) != null || annotation(type, RELATIONSHIP_ENTITY) != null);
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror mirror, String attribute, String defaultValue) {
+        AnnotationValue value = attributeValue(mirror, attribute);
+        String string = value != null ? String.valueOf(value.getValue()) : "";
+        return string.isEmpty() ? defaultValue : string;
+    }
+
+    private static AnnotationValue attributeValue(AnnotationMirror mirror, String attribute) {
+        if (mirror == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String upperSnakeCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                builder.append('_');
+            }
+            builder.append(Character.toUpperCase(c));
+        }
+        return builder.toString();
+    }
+
+    private static String line(String... columns) {
+        StringBuilder builder = new StringBuilder();
+        for (String column : columns) {
+            if (builder.length() > 0) {
+                builder.append('\t');
+            }
+            builder.append(column);
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.index;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.springframework.data.neo4j.index.domain.Employee;
+import org.springframework.data.neo4j.index.domain.Ownership;
+import org.springframework.data.neo4j.index.domain.Person;
+import org.springframework.data.neo4j.index.domain.Pet;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link MappingIndexProcessor} over the sources of the test domain and checks that what it indexes agrees
+ * with the mapping metadata that the OGM builds for the same classes.
+ */
+public class MappingIndexProcessorTest {
+
+    private static final String DOMAIN_PACKAGE = "org.springframework.data.neo4j.index.domain";
+
+    @ClassRule
+    public static TemporaryFolder classOutput = new TemporaryFolder();
+
+    private static Map<String, Map<String, List<String[]>>> index;
+    private static MetaData metaData;
+
+    @BeforeClass
+    public static void indexDomain() throws Exception {
+        File[] sources = new File("src/test/java/" + DOMAIN_PACKAGE.replace('.', '/')).listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".java");
+            }
+        });
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(classOutput.getRoot()));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")), null,
+                    fileManager.getJavaFileObjects(sources));
+            task.setProcessors(Collections.singletonList(new MappingIndexProcessor()));
+            assertTrue("The test domain should compile", task.call());
+        } finally {
+            fileManager.close();
+        }
+
+        index = readIndex(new File(classOutput.getRoot(), MappingIndexProcessor.INDEX_LOCATION));
+        metaData = new MetaData(DOMAIN_PACKAGE);
+    }
+
+    @Test
+    public void shouldIndexEveryEntityKnownToTheMetaData() {
+        Set<String> classNames = new HashSet<>();
+        for (ClassInfo classInfo : metaData.persistentEntities()) {
+            classNames.add(classInfo.name());
+        }
+
+        assertEquals(classNames, index.keySet());
+        assertEquals(new HashSet<>(Arrays.asList(Person.class.getName(), Employee.class.getName(), Pet.class.getName(),
+                Ownership.class.getName())), index.keySet());
+    }
+
+    @Test
+    public void shouldIndexTheSameLabelsAsTheMetaData() {
+        for (String className : index.keySet()) {
+            ClassInfo classInfo = metaData.classInfo(className);
+
+            String[] entity = only(className, "entity");
+            assertEquals(className, classInfo.name().equals(Ownership.class.getName()) ? "RELATIONSHIP" : "NODE", entity[2]);
+            assertEquals(className, classInfo.neo4jName(), entity[3]);
+        }
+        assertEquals("Human", only(Person.class.getName(), "entity")[3]);
+    }
+
+    @Test
+    public void shouldOnlyIndexTheEntitiesThemselves() {
+        for (String className : index.keySet()) {
+            assertEquals(className, Collections.singleton("entity"), index.get(className).keySet());
+        }
+    }
+
+    private static Map<String, Map<String, List<String[]>>> readIndex(File file) throws Exception {
+        Map<String, Map<String, List<String[]>>> index = new HashMap<>();
+        for (String line : Files.readAllLines(file.toPath(), Charset.forName("UTF-8"))) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            Map<String, List<String[]>> records = index.get(columns[1]);
+            if (records == null) {
+                records = new HashMap<>();
+                index.put(columns[1], records);
+            }
+            List<String[]> lines = records.get(columns[0]);
+            if (lines == null) {
+                lines = new ArrayList<>();
+                records.put(columns[0], lines);
+            }
+            lines.add(columns);
+        }
+        return index;
+    }
+
+    private static List<String[]> lines(String className, String kind) {
+        List<String[]> lines = index.get(className).get(kind);
+        return lines != null ? lines : Collections.<String[]>emptyList();
+    }
+
+    private static String[] only(String className, String kind) {
+        List<String[]> lines = lines(className, kind);
+        assertEquals(className + " " + kind, 1, lines.size());
+        return lines.get(0);
+    }
+
+}
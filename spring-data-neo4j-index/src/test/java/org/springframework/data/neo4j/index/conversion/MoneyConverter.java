@@ -0,0 +1,29 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.index.conversion;
+
+import org.neo4j.ogm.typeconversion.AttributeConverter;
+
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long toGraphProperty(Money value) {
+        return value != null ? value.getCents() : null;
+    }
+
+    @Override
+    public Money toEntityAttribute(Long value) {
+        return value != null ? new Money(value) : null;
+    }
+}
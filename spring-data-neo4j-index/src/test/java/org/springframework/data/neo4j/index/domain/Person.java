@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.index.domain;
+
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.annotation.Property;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.Transient;
+import org.neo4j.ogm.annotation.typeconversion.Convert;
+import org.springframework.data.neo4j.index.conversion.Money;
+import org.springframework.data.neo4j.index.conversion.MoneyConverter;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@NodeEntity(label = "Human")
+public class Person {
+
+    private Long id;
+
+    @Property(name = "fullName")
+    private String name;
+
+    private Date birthday;
+
+    @Convert(MoneyConverter.class)
+    private Money salary;
+
+    private List<Pet> pets;
+
+    @Relationship(type = "FRIEND_OF", direction = Relationship.UNDIRECTED)
+    private Set<Person> friends = new HashSet<>();
+
+    @Transient
+    private String displayName;
+
+    private transient int visits;
+}
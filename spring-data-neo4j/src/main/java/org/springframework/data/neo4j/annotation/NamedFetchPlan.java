@@ -0,0 +1,38 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation to declare a named {@link org.springframework.data.neo4j.mapping.FetchPlan} on an entity class, listing
+ * the relationship paths to load along with the entity.  Declare several on one class with {@link NamedFetchPlans}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface NamedFetchPlan {
+
+    /**
+     * Defines the name by which the fetch plan is requested.
+     */
+    String name();
+
+    /**
+     * Defines the relationship paths to load, each a sequence of relationship types separated by dots, such as
+     * <code>WORKS_AT.LOCATED_IN</code>.  A type is followed outgoing unless prefixed with <code>&lt;</code> for incoming
+     * or <code>-</code> for either direction.
+     */
+    String[] paths();
+}
@@ -35,4 +35,24 @@ public @interface Query {
      * Defines the Cypher query to be executed when the annotated method is called.
      */
     String value() default "";
+
+    /**
+     * Defines the name of the cache in which the results of the annotated method are stored, keyed by the method and its
+     * bound parameters.  Caching requires a {@link org.springframework.data.neo4j.repository.query.QueryResultCache} bean
+     * and is disabled by default.  Only use this on read-only queries.
+     */
+    String cacheName() default "";
+
+    /**
+     * Defines the number of seconds for which a cached result is served.  The default of 0 keeps a result until it's
+     * invalidated by a change to one of its labels or evicted by the cache itself.  Negative values are rejected.
+     */
+    long cacheTimeToLive() default 0;
+
+    /**
+     * Defines the labels of the nodes on which the query result depends, so that saving or deleting an entity with any
+     * of these labels evicts the cached result.  Defaults to the labels of the repository's domain type and of the
+     * method's return type.
+     */
+    String[] cacheLabels() default {};
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.neo4j.event.AfterDeleteEvent;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BatchDeleteEvent;
+import org.springframework.data.neo4j.event.Neo4jBatchDataManipulationEvent;
+import org.springframework.data.neo4j.event.Neo4jDataManipulationEvent;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Captures the entities saved and deleted through templates and repositories and appends them to a {@link ChangeLog}
+ * once the transaction that changed them has committed, so that consumers such as search indexers or cache warmers can
+ * process changes incrementally.
+ * <p>
+ * The changes made within a transaction are appended in the order they were made, as a single unit, when it commits,
+ * and are discarded if it rolls back.  Changes made outside a transaction, and {@link Neo4jBatchDataManipulationEvent}s,
+ * are appended immediately.
+ * </p>
+ * <p>
+ * Graph IDs are taken from the events, which capture them on the thread that made the change, so this listener never
+ * uses the OGM session and may run on an event executor.  A saved entity records just the properties that its saves
+ * within the transaction changed, as worked out by an
+ * {@link org.springframework.data.neo4j.mapping.EntityStateTracker} against the state in which the entity was loaded.
+ * An entity without such a snapshot, for instance because it's new or dirty tracking isn't enabled, records all its
+ * properties, read when the change is appended.
+ * </p>
+ */
+public class ChangeCapture implements SmartApplicationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeCapture.class);
+
+    private final MetaData metaData;
+    private final ChangeLog changeLog;
+
+    /**
+     * Constructs a new {@link ChangeCapture}.
+     *
+     * @param metaData The OGM {@link MetaData} used to resolve the labels and properties of changed entities
+     * @param changeLog The {@link ChangeLog} to which changes are appended
+     */
+    public ChangeCapture(MetaData metaData, ChangeLog changeLog) {
+        Assert.notNull(metaData, "Cannot create a ChangeCapture without MetaData!");
+        Assert.notNull(changeLog, "Cannot create a ChangeCapture without a ChangeLog!");
+        this.metaData = metaData;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return AfterSaveEvent.class.isAssignableFrom(eventType)
+                || AfterDeleteEvent.class.isAssignableFrom(eventType)
+                || Neo4jBatchDataManipulationEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public boolean supportsSourceType(Class<?> sourceType) {
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof Neo4jBatchDataManipulationEvent) {
+            EntityChange.Type type = event instanceof BatchDeleteEvent ? EntityChange.Type.DELETE : EntityChange.Type.SAVE;
+            List<PendingChange> pending = new ArrayList<>();
+            for (Neo4jDataManipulationEvent manipulation : ((Neo4jBatchDataManipulationEvent) event).getEvents()) {
+                pending.add(new PendingChange(type, manipulation));
+            }
+            append(pending);
+            return;
+        }
+
+        Neo4jDataManipulationEvent manipulation = (Neo4jDataManipulationEvent) event;
+        if (manipulation.getEntity() == null) {
+            return;
+        }
+        EntityChange.Type type = event instanceof AfterDeleteEvent ? EntityChange.Type.DELETE : EntityChange.Type.SAVE;
+        PendingChange change = new PendingChange(type, manipulation);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(Collections.singletonList(change));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(change);
+    }
+
+    private void append(List<PendingChange> pending) {
+        long timestamp = System.currentTimeMillis();
+        List<EntityChange> changes = new ArrayList<>(pending.size());
+        for (PendingChange change : pending) {
+            changes.add(toEntityChange(change, timestamp));
+        }
+        changeLog.append(changes);
+        logger.debug("Appended {} changes to the change log", changes.size());
+    }
+
+    private EntityChange toEntityChange(PendingChange change, long timestamp) {
+        Class<?> entityType = change.entity.getClass();
+        ClassInfo classInfo = metaData.classInfo(entityType.getName());
+        Set<String> labels = classInfo != null ? new LinkedHashSet<>(classInfo.labels()) : Collections.<String>emptySet();
+
+        if (change.type == EntityChange.Type.DELETE) {
+            return new EntityChange(change.type, entityType.getName(), change.id, labels,
+                    Collections.<String, Object>emptyMap(), timestamp);
+        }
+        Map<String, Object> properties = change.changedProperties != null
+                ? serializable(change.changedProperties) : readProperties(classInfo, change.entity);
+        return new EntityChange(change.type, entityType.getName(), change.id, labels, properties, timestamp);
+    }
+
+    private Map<String, Object> readProperties(ClassInfo classInfo, Object entity) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (classInfo == null) {
+            return properties;
+        }
+        for (FieldInfo fieldInfo : classInfo.propertyFields()) {
+            Field field = classInfo.getField(fieldInfo);
+            try {
+                field.setAccessible(true);
+                properties.put(fieldInfo.property(), serializable(toGraphValue(fieldInfo, field.get(entity))));
+            } catch (IllegalAccessException e) {
+                logger.warn("Unable to read property {} of {}", fieldInfo.property(), classInfo.name());
+            }
+        }
+        return properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toGraphValue(FieldInfo fieldInfo, Object value) {
+        if (value != null && fieldInfo.hasConverter()) {
+            return fieldInfo.converter().toGraphProperty(value);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> serializable(Map<String, Object> properties) {
+        Map<String, Object> serializable = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            serializable.put(property.getKey(), serializable(property.getValue()));
+        }
+        return serializable;
+    }
+
+    private static Object serializable(Object value) {
+        return value == null || value instanceof Serializable ? value : value.toString();
+    }
+
+    private static class PendingChange {
+
+        private final EntityChange.Type type;
+        private final Object entity;
+        private Long id;
+        private Map<String, Object> changedProperties;
+
+        PendingChange(EntityChange.Type type, Neo4jDataManipulationEvent event) {
+            this.type = type;
+            this.entity = event.getEntity();
+            this.id = event.getGraphId();
+            if (event instanceof AfterSaveEvent && ((AfterSaveEvent) event).getChangedProperties() != null) {
+                this.changedProperties = new LinkedHashMap<>(((AfterSaveEvent) event).getChangedProperties());
+            }
+        }
+
+        /*
+         * Folds a later save of the same entity into this one, which then records the changes made by both.
+         */
+        void merge(PendingChange later) {
+            if (later.id != null) {
+                id = later.id;
+            }
+            if (changedProperties != null && later.changedProperties != null) {
+                changedProperties.putAll(later.changedProperties);
+            } else {
+                changedProperties = null;
+            }
+        }
+    }
+
+    private class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final List<PendingChange> changes = new ArrayList<>();
+        private final Map<Object, PendingChange> saves = new IdentityHashMap<>();
+
+        void add(PendingChange change) {
+            // an entity saved several times is captured once, at its first position
+            if (change.type == EntityChange.Type.SAVE) {
+                PendingChange earlier = saves.get(change.entity);
+                if (earlier != null) {
+                    earlier.merge(change);
+                    return;
+                }
+                saves.put(change.entity, change);
+            }
+            changes.add(change);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!changes.isEmpty()) {
+                append(changes);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCapture.this);
+        }
+    }
+}
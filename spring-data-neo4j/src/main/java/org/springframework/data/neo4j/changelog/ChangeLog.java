@@ -0,0 +1,49 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import java.util.List;
+
+/**
+ * Ordered, replayable log of the {@link EntityChange}s made by committed transactions.
+ * <p>
+ * Each appended change is assigned the next sequence number, starting at 1, and consumers track the sequence number up
+ * to which they've processed the log, so that they can resume from where they left off rather than rescanning the
+ * graph.
+ * </p>
+ */
+public interface ChangeLog {
+
+    /**
+     * Appends the given changes, in order, as a single unit.
+     *
+     * @param changes The changes made by a committed transaction
+     */
+    void append(List<EntityChange> changes);
+
+    /**
+     * Reads changes in sequence order.
+     *
+     * @param fromSequence The sequence number of the first change to read
+     * @param maxChanges The maximum number of changes to read
+     * @return The changes with a sequence number greater than or equal to the given one that are still retained, which
+     *         is empty if there are none
+     */
+    List<EntityChange> read(long fromSequence, int maxChanges);
+
+    /**
+     * @return The sequence number of the most recently appended change, or 0 if the log is empty
+     */
+    long getLastSequence();
+
+}
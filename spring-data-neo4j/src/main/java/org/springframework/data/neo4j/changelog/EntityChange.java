@@ -0,0 +1,115 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An entry in a {@link ChangeLog}, describing an entity that was saved or deleted by a committed transaction.
+ * <p>
+ * For a save, the properties are the values of the entity's persistent properties when the transaction committed.
+ * For a delete, they're empty.
+ * </p>
+ */
+public class EntityChange implements Serializable {
+
+    private static final long serialVersionUID = -6034786115829734501L;
+
+    /**
+     * The kind of change made to an entity.
+     */
+    public enum Type {
+        SAVE, DELETE
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final String entityType;
+    private final Long id;
+    private final Set<String> labels;
+    private final Map<String, Object> properties;
+
+    public EntityChange(Type type, String entityType, Long id, Set<String> labels, Map<String, Object> properties, long timestamp) {
+        this(0, timestamp, type, entityType, id, labels, properties);
+    }
+
+    private EntityChange(long sequence, long timestamp, Type type, String entityType, Long id, Set<String> labels,
+            Map<String, Object> properties) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.entityType = entityType;
+        this.id = id;
+        this.labels = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+    }
+
+    /**
+     * @param sequence The position of this change in a {@link ChangeLog}
+     * @return A copy of this change at the given position
+     */
+    public EntityChange withSequence(long sequence) {
+        return new EntityChange(sequence, timestamp, type, entityType, id, labels, properties);
+    }
+
+    /**
+     * @return The position of this change in its {@link ChangeLog}, starting at 1, or 0 if it hasn't been appended
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The time at which the transaction that made this change committed, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The fully-qualified name of the entity class
+     */
+    public String getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * @return The graph ID of the entity, which may be <code>null</code> for a deleted entity that was never persisted
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public Set<String> getLabels() {
+        return labels;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityChange{sequence=" + sequence + ", type=" + type + ", entityType=" + entityType + ", id=" + id + "}";
+    }
+}
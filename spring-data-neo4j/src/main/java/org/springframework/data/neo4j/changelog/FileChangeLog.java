@@ -0,0 +1,184 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link ChangeLog} appended to a file, which retains every change across restarts.
+ * <p>
+ * Each change is stored as a length-prefixed, serialised record, and the offset of every record is indexed in memory
+ * when the file is opened, so reading from any sequence number costs a single seek.  A partially written record at the
+ * end of the file, left by a crash during an append, is discarded when the file is opened.  Property values must
+ * therefore be {@link java.io.Serializable}, which holds for all the types Neo4j can store.
+ * </p>
+ */
+public class FileChangeLog implements ChangeLog, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileChangeLog.class);
+
+    private final RandomAccessFile file;
+    private final boolean sync;
+    private long[] offsets = new long[1024];
+    private int size = 0;
+
+    /**
+     * Opens a {@link FileChangeLog} on the given file, creating it if it doesn't exist.
+     *
+     * @param file The file holding the log
+     * @throws IOException if the file can't be opened or read
+     */
+    public FileChangeLog(File file) throws IOException {
+        this(file, false);
+    }
+
+    /**
+     * Opens a {@link FileChangeLog} on the given file, creating it if it doesn't exist.
+     *
+     * @param file The file holding the log
+     * @param sync <code>true</code> to force every append to the storage device before returning, <code>false</code>
+     *        to leave that to the operating system
+     * @throws IOException if the file can't be opened or read
+     */
+    public FileChangeLog(File file, boolean sync) throws IOException {
+        this.file = new RandomAccessFile(file, "rw");
+        this.sync = sync;
+        indexRecords();
+    }
+
+    private void indexRecords() throws IOException {
+        long length = file.length();
+        long position = 0;
+        while (position + 4 <= length) {
+            file.seek(position);
+            int recordLength = file.readInt();
+            if (recordLength < 0 || position + 4 + recordLength > length) {
+                break;
+            }
+            addOffset(position);
+            position += 4 + recordLength;
+        }
+        if (position < length) {
+            logger.warn("Discarding {} bytes of incomplete change log record", length - position);
+            file.setLength(position);
+        }
+    }
+
+    @Override
+    public synchronized void append(List<EntityChange> changes) {
+        int initialSize = size;
+        long initialLength = -1;
+        try {
+            initialLength = file.length();
+            long position = initialLength;
+            file.seek(position);
+            for (EntityChange change : changes) {
+                byte[] record = serialise(change.withSequence(size + 1));
+                file.writeInt(record.length);
+                file.write(record);
+                addOffset(position);
+                position += 4 + record.length;
+            }
+            if (sync) {
+                file.getFD().sync();
+            }
+        } catch (IOException e) {
+            truncate(initialSize, initialLength);
+            throw new DataAccessResourceFailureException("Failed to append to change log", e);
+        }
+    }
+
+    @Override
+    public synchronized List<EntityChange> read(long fromSequence, int maxChanges) {
+        long first = Math.max(fromSequence, 1);
+        if (first > size) {
+            return Collections.emptyList();
+        }
+        int count = (int) Math.min(maxChanges, size - first + 1);
+        List<EntityChange> changes = new ArrayList<>(count);
+        try {
+            file.seek(offsets[(int) first - 1]);
+            for (int i = 0; i < count; i++) {
+                byte[] record = new byte[file.readInt()];
+                file.readFully(record);
+                changes.add(deserialise(record));
+            }
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to read from change log", e);
+        }
+        return changes;
+    }
+
+    @Override
+    public synchronized long getLastSequence() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    /*
+     * Appends are all or nothing, so that a failure doesn't leave a partial record for the next append to follow.
+     */
+    private void truncate(int initialSize, long initialLength) {
+        size = initialSize;
+        if (initialLength >= 0) {
+            try {
+                file.setLength(initialLength);
+            } catch (IOException e) {
+                logger.error("Failed to discard partially appended change log records", e);
+            }
+        }
+    }
+
+    private void addOffset(long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = offset;
+    }
+
+    private static byte[] serialise(EntityChange change) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(change);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static EntityChange deserialise(byte[] record) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+            return (EntityChange) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable change log record", e);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * {@link ChangeLog} held in memory, which retains a fixed number of the most recent changes and discards older ones.
+ */
+public class InMemoryChangeLog implements ChangeLog {
+
+    private final int capacity;
+    private final Deque<EntityChange> changes = new ArrayDeque<>();
+    private long lastSequence = 0;
+
+    /**
+     * Constructs a new {@link InMemoryChangeLog}.
+     *
+     * @param capacity The maximum number of changes to retain
+     */
+    public InMemoryChangeLog(int capacity) {
+        Assert.isTrue(capacity > 0, "capacity must be greater than 0");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void append(List<EntityChange> newChanges) {
+        for (EntityChange change : newChanges) {
+            changes.addLast(change.withSequence(++lastSequence));
+            if (changes.size() > capacity) {
+                changes.removeFirst();
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<EntityChange> read(long fromSequence, int maxChanges) {
+        if (changes.isEmpty() || fromSequence > lastSequence) {
+            return Collections.emptyList();
+        }
+        long firstRetained = changes.getFirst().getSequence();
+        List<EntityChange> result = new ArrayList<>(Math.min(maxChanges, changes.size()));
+        long skip = Math.max(0, fromSequence - firstRetained);
+        for (EntityChange change : changes) {
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            if (result.size() == maxChanges) {
+                break;
+            }
+            result.add(change);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+}
@@ -21,14 +21,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
-import org.springframework.dao.DataAccessException;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.neo4j.event.CacheInvalidationBus;
+import org.springframework.data.neo4j.mapping.MappingMetadataIndex;
 import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
-import org.springframework.data.neo4j.template.Neo4jOgmExceptionTranslator;
 import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.data.neo4j.template.Neo4jOperationsPostProcessor;
+import org.springframework.data.neo4j.template.Neo4jPersistenceExceptionTranslator;
 import org.springframework.data.neo4j.template.Neo4jTemplate;
+import org.springframework.data.neo4j.tracing.NoopTracer;
+import org.springframework.data.neo4j.tracing.Tracer;
 import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
@@ -63,19 +67,30 @@ public abstract class Neo4jConfiguration {
 
     @Bean
     public Neo4jMappingContext neo4jMappingContext() throws Exception {
-        return new Neo4jMappingContext(getSessionFactory().metaData());
+        return new Neo4jMappingContext(getSessionFactory().metaData(), getMappingMetadataIndex(), 1, false);
+    }
+
+    /**
+     * Override this method to register the persistent entities from the build-time index written by the
+     * <code>spring-data-neo4j-index</code> annotation processor, typically by returning
+     * <code>MappingMetadataIndex.load(getClass().getClassLoader())</code>.
+     *
+     * @return The {@link MappingMetadataIndex} of the persistent entities, or <code>null</code> by default to register
+     *         every entity known to the mapping metadata
+     */
+    protected MappingMetadataIndex getMappingMetadataIndex() {
+        return null;
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus() throws Exception {
+        return new CacheInvalidationBus(getSessionFactory().metaData());
     }
 
     @Bean
     public PersistenceExceptionTranslator persistenceExceptionTranslator() {
         logger.info("Initialising PersistenceExceptionTranslator");
-        return new PersistenceExceptionTranslator() {
-            @Override
-            public DataAccessException translateExceptionIfPossible(RuntimeException e) {
-                logger.info("Intercepted exception");
-                throw Neo4jOgmExceptionTranslator.translateExceptionIfPossible(e);
-            }
-        };
+        return new Neo4jPersistenceExceptionTranslator();
     }
 
     @Bean
@@ -89,7 +104,30 @@ public abstract class Neo4jConfiguration {
         logger.info("Initialising Neo4jTransactionManager");
         Session session = getSession();
         Assert.notNull(session, "You must provide a Session instance in your Spring configuration classes");
-        return new Neo4jTransactionManager(session);
+        Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(session);
+        transactionManager.setTracer(neo4jTracer());
+        return transactionManager;
+    }
+
+    /**
+     * Override this method to trace Spring Data Neo4j operations through a distributed tracing system.
+     *
+     * @return The {@link Tracer} used by the transaction manager, repositories and template, a {@link NoopTracer} by default
+     */
+    @Bean
+    public Tracer neo4jTracer() {
+        return NoopTracer.INSTANCE;
+    }
+
+    /**
+     * Decorates the template with interceptors for the {@link org.springframework.data.neo4j.metrics.MetricsRegistry} and
+     * {@link Tracer} defined in the context, once it has received its collaborators.
+     *
+     * @return The {@link Neo4jOperationsPostProcessor}
+     */
+    @Bean
+    public static Neo4jOperationsPostProcessor neo4jOperationsPostProcessor() {
+        return new Neo4jOperationsPostProcessor();
     }
 
     @Bean
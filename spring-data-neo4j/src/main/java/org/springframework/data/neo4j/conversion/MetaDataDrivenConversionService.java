@@ -22,14 +22,28 @@ import org.neo4j.ogm.typeconversion.ConversionCallback;
 import org.neo4j.ogm.typeconversion.ProxyAttributeConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.GenericConverter;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Specialisation of {@link GenericConversionService} that creates Spring-compatible converters from those known by the mapping
  * {@link MetaData}, allowing the OGM type converters to be reused throughout a Spring application.
+ * <p>
+ * Conversions between exactly the source and target types of an OGM converter are looked up directly in a table keyed
+ * by those classes, bypassing the generic converter resolution and the {@link org.springframework.core.convert.TypeDescriptor}s
+ * it allocates.  A converter added later for the same pair of types, or the removal of that pair, removes it from the
+ * table, so that the outcome is the same as it would be through the generic resolution.  Likewise, a direct conversion
+ * that fails does so with a {@link ConversionFailedException}.
+ * </p>
  *
  * @author Adam George
  */
@@ -37,6 +51,9 @@ public class MetaDataDrivenConversionService extends GenericConversionService im
 
     private static final Logger logger = LoggerFactory.getLogger(MetaDataDrivenConversionService.class);
 
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter<Object, Object>>> directConverters =
+            new ConcurrentHashMap<>();
+
     /**
      * Constructs a new {@link MetaDataDrivenConversionService} based on the given {@link MetaData}.
      *
@@ -46,17 +63,22 @@ public class MetaDataDrivenConversionService extends GenericConversionService im
     public MetaDataDrivenConversionService(MetaData metaData) {
         metaData.registerConversionCallback(this);
 
+        // every entity is inspected, because the OGM also assigns its own converters to fields that aren't annotated
         for (ClassInfo classInfo : metaData.persistentEntities()) {
-            for (FieldInfo fieldInfo : classInfo.propertyFields()) {
-                if (fieldInfo.hasConverter()) {
-                    addWrappedConverter(fieldInfo.converter());
-                }
+            addWrappedConverters(classInfo);
+        }
+    }
+
+    private void addWrappedConverters(ClassInfo classInfo) {
+        for (FieldInfo fieldInfo : classInfo.propertyFields()) {
+            if (fieldInfo.hasConverter()) {
+                addWrappedConverter(fieldInfo.converter());
             }
-            // TODO: do we need to check the setters too or are programmers obliged to annotate both?
-            for (MethodInfo methodInfo : classInfo.propertyGetters()) {
-                if (methodInfo.hasConverter()) {
-                    addWrappedConverter(methodInfo.converter());
-                }
+        }
+        // TODO: do we need to check the setters too or are programmers obliged to annotate both?
+        for (MethodInfo methodInfo : classInfo.propertyGetters()) {
+            if (methodInfo.hasConverter()) {
+                addWrappedConverter(methodInfo.converter());
             }
         }
     }
@@ -92,7 +114,65 @@ public class MetaDataDrivenConversionService extends GenericConversionService im
             // both directions, but I've decided that it's better to ensure the same converter is used for load and save.
             addConverter(sourceType, targetType, toGraphConverter);
             addConverter(targetType, sourceType, toEntityConverter);
+            addDirectConverter(sourceType, targetType, toGraphConverter);
+            addDirectConverter(targetType, sourceType, toEntityConverter);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addDirectConverter(Class<?> sourceType, Class<?> targetType, Converter<?, ?> converter) {
+        ConcurrentMap<Class<?>, Converter<Object, Object>> convertersBySource = directConverters.get(sourceType);
+        if (convertersBySource == null) {
+            ConcurrentMap<Class<?>, Converter<Object, Object>> newConverters = new ConcurrentHashMap<>();
+            convertersBySource = directConverters.putIfAbsent(sourceType, newConverters);
+            if (convertersBySource == null) {
+                convertersBySource = newConverters;
+            }
+        }
+        convertersBySource.put(targetType, (Converter<Object, Object>) converter);
+    }
+
+    @Override
+    public void addConverter(GenericConverter converter) {
+        super.addConverter(converter);
+        Set<GenericConverter.ConvertiblePair> convertibleTypes = converter.getConvertibleTypes();
+        if (convertibleTypes == null) {
+            directConverters.clear();
+            return;
+        }
+        for (GenericConverter.ConvertiblePair convertibleType : convertibleTypes) {
+            Map<Class<?>, Converter<Object, Object>> convertersBySource = directConverters.get(convertibleType.getSourceType());
+            if (convertersBySource != null) {
+                convertersBySource.remove(convertibleType.getTargetType());
+            }
+        }
+    }
+
+    @Override
+    public void removeConvertible(Class<?> sourceType, Class<?> targetType) {
+        super.removeConvertible(sourceType, targetType);
+        Map<Class<?>, Converter<Object, Object>> convertersBySource = directConverters.get(sourceType);
+        if (convertersBySource != null) {
+            convertersBySource.remove(targetType);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object source, Class<T> targetType) {
+        if (source != null && targetType != null) {
+            Map<Class<?>, Converter<Object, Object>> convertersBySource = directConverters.get(source.getClass());
+            Converter<Object, Object> converter = convertersBySource != null ? convertersBySource.get(targetType) : null;
+            if (converter != null) {
+                try {
+                    return (T) converter.convert(source);
+                } catch (Exception e) {
+                    throw new ConversionFailedException(TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType),
+                            source, e);
+                }
+            }
         }
+        return super.convert(source, targetType);
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+
+package org.springframework.data.neo4j.diagnostics;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.springframework.data.neo4j.template.Neo4jOperationsInterceptor;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Neo4jOperationsInterceptor} that counts the template operations that read with a {@link RepeatedQueryDetector}:
+ * loads by ID under the shape <code>Neo4jOperations.load(Type)</code>, loads by property under
+ * <code>Neo4jOperations.loadAllByProperty(Type.property)</code> or
+ * <code>Neo4jOperations.loadAllByProperties(Type.property,...)</code>, and queries under their Cypher statement.
+ * <p>
+ * The {@link org.springframework.data.neo4j.template.Neo4jOperationsPostProcessor} applies it to the templates of an
+ * application context that defines a {@link RepeatedQueryDetector}.
+ * </p>
+ */
+public class Neo4jOperationsRepeatedQueryInterceptor extends Neo4jOperationsInterceptor {
+
+    private final RepeatedQueryDetector detector;
+
+    /**
+     * Constructs a new {@link Neo4jOperationsRepeatedQueryInterceptor}.
+     *
+     * @param detector The {@link RepeatedQueryDetector} with which to count the operations
+     */
+    public Neo4jOperationsRepeatedQueryInterceptor(RepeatedQueryDetector detector) {
+        Assert.notNull(detector, "Cannot create a Neo4jOperationsRepeatedQueryInterceptor without a RepeatedQueryDetector!");
+        this.detector = detector;
+    }
+
+    @Override
+    protected Object invoke(MethodInvocation invocation, String operation, Class<?> entityType, String statement)
+            throws Throwable {
+        String name = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+        if (name.equals("load") && entityType != null) {
+            detector.record("Neo4jOperations.load(" + entityType.getSimpleName() + ")",
+                    "load the entities together with loadAll(type, ids), or load their owner at a greater depth");
+        } else if (name.endsWith("ByProperty") && entityType != null) {
+            detector.record("Neo4jOperations.loadAllByProperty(" + entityType.getSimpleName() + "." + arguments[1] + ")",
+                    "load the entities for all the property values at once with a single query, e.g. using IN");
+        } else if (name.endsWith("ByProperties") && entityType != null) {
+            StringBuilder properties = new StringBuilder();
+            for (Filter filter : (Filters) arguments[1]) {
+                properties.append(properties.length() > 0 ? "," : "").append(filter.getPropertyName());
+            }
+            detector.record("Neo4jOperations.loadAllByProperties(" + entityType.getSimpleName() + "." + properties + ")",
+                    "load the entities for all the property values at once with a single query, e.g. using IN");
+        } else if (name.startsWith("query") && statement != null) {
+            detector.record(statement, "pass all the parameter values to a single query, e.g. using IN or UNWIND");
+        }
+        return invocation.proceed();
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diagnostic aid that counts the queries issued through repositories and the template within a unit of work and
+ * reports those executed repeatedly with the same shape, i.e. the same repository method, template operation or Cypher
+ * statement with different parameter values.  This is the signature of an N+1 access pattern, such as calling
+ * <code>findOne</code> in a loop, which is better served by one batched query.
+ * <p>
+ * A unit of work is a scope opened explicitly on the current thread with {@link #openScope()}, e.g. around a web
+ * request, or otherwise the current Spring-managed transaction; queries outside both aren't counted.  Once a shape
+ * reaches the threshold it's either logged at WARN level, once per unit of work, or a {@link RepeatedQueryException} is
+ * thrown, which is intended for tests.  Define a bean of this type in order to enable detection on the repositories and
+ * the template.  It adds some overhead to every query, so it's meant for development and testing rather than production.
+ * </p>
+ */
+public class RepeatedQueryDetector {
+
+    /**
+     * What to do when a repeated query is detected.
+     */
+    public enum Action {
+        /** Log a warning with a suggestion to batch the query. */
+        LOG,
+        /** Throw a {@link RepeatedQueryException}. */
+        THROW
+    }
+
+    /**
+     * The number of executions of the same shape of query in one unit of work deemed repeated by default.
+     */
+    public static final int DEFAULT_THRESHOLD = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(RepeatedQueryDetector.class);
+
+    private final int threshold;
+    private final Action action;
+    private final ThreadLocal<UnitOfWork> scopes = new ThreadLocal<>();
+
+    /**
+     * Constructs a new {@link RepeatedQueryDetector} that logs queries executed {@value #DEFAULT_THRESHOLD} times.
+     */
+    public RepeatedQueryDetector() {
+        this(DEFAULT_THRESHOLD, Action.LOG);
+    }
+
+    /**
+     * Constructs a new {@link RepeatedQueryDetector}.
+     *
+     * @param threshold The number of executions of the same shape of query in one unit of work deemed repeated
+     * @param action The {@link Action} to take when a repeated query is detected
+     */
+    public RepeatedQueryDetector(int threshold, Action action) {
+        Assert.isTrue(threshold > 1, "The repeated query threshold must be at least 2");
+        Assert.notNull(action, "An action to take on repeated queries is required");
+        this.threshold = threshold;
+        this.action = action;
+    }
+
+    /**
+     * Opens a unit of work on the current thread, such as a web request, which takes precedence over transactions.
+     * Scopes may be nested, in which case the outermost one counts all the queries.
+     */
+    public void openScope() {
+        UnitOfWork unitOfWork = scopes.get();
+        if (unitOfWork == null) {
+            scopes.set(new UnitOfWork());
+        } else {
+            unitOfWork.nesting++;
+        }
+    }
+
+    /**
+     * Closes the unit of work opened on the current thread by {@link #openScope()}.
+     *
+     * @return The shapes of the queries found to be repeated in the unit of work if it was the outermost scope, or an
+     *         empty collection otherwise
+     */
+    public Collection<String> closeScope() {
+        UnitOfWork unitOfWork = scopes.get();
+        Assert.state(unitOfWork != null, "No repeated query detection scope is open on this thread");
+        if (unitOfWork.nesting > 0) {
+            unitOfWork.nesting--;
+            return new ArrayList<>();
+        }
+        scopes.remove();
+        return unitOfWork.repeated;
+    }
+
+    /**
+     * Counts an execution of a query in the current unit of work, if there is one.
+     *
+     * @param shape The shape of the query, which identifies it regardless of its parameter values
+     * @param suggestion How to batch the query, for inclusion in the report
+     * @throws RepeatedQueryException if the query has reached the threshold and this detector is configured to throw
+     */
+    public void record(String shape, String suggestion) {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork == null) {
+            return;
+        }
+        Integer previous = unitOfWork.counts.get(shape);
+        int count = previous == null ? 1 : previous + 1;
+        unitOfWork.counts.put(shape, count);
+        if (count < threshold) {
+            return;
+        }
+        if (action == Action.THROW) {
+            throw new RepeatedQueryException(shape, count, suggestion);
+        }
+        if (count == threshold) {
+            unitOfWork.repeated.add(shape);
+            logger.warn("Query {} executed {} times in one unit of work; {}", shape, count, suggestion);
+        }
+    }
+
+    private UnitOfWork currentUnitOfWork() {
+        UnitOfWork unitOfWork = scopes.get();
+        if (unitOfWork != null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return unitOfWork;
+        }
+        unitOfWork = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork();
+            TransactionSynchronizationManager.bindResource(this, unitOfWork);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RepeatedQueryDetector.this);
+                }
+            });
+        }
+        return unitOfWork;
+    }
+
+    private static class UnitOfWork {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final List<String> repeated = new ArrayList<>();
+        private int nesting;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.diagnostics;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+/**
+ * Thrown by a {@link RepeatedQueryDetector} configured to fail when the same shape of query is executed too many times
+ * within one unit of work, which typically indicates an N+1 access pattern.
+ */
+public class RepeatedQueryException extends InvalidDataAccessApiUsageException {
+
+    private final String shape;
+    private final int count;
+
+    public RepeatedQueryException(String shape, int count, String suggestion) {
+        super("Query " + shape + " executed " + count + " times in one unit of work; " + suggestion);
+        this.shape = shape;
+        this.count = count;
+    }
+
+    /**
+     * @return The shape of the repeated query, i.e. the operation or statement without its parameter values
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * @return The number of times the query had been executed when the exception was thrown
+     */
+    public int getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.diagnostics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link MethodInterceptor} applied to repository proxies, which counts every query method invocation with a
+ * {@link RepeatedQueryDetector} under the shape <code>RepositoryInterface.method</code>.  Methods that write, i.e.
+ * <code>save</code> and <code>delete</code>, aren't counted.
+ */
+public class RepeatedQueryInterceptor implements MethodInterceptor {
+
+    private final RepeatedQueryDetector detector;
+    private final String repositoryName;
+
+    /**
+     * Constructs a new {@link RepeatedQueryInterceptor}.
+     *
+     * @param detector The {@link RepeatedQueryDetector} with which to count the invocations
+     * @param repositoryInterface The repository interface whose methods are intercepted
+     */
+    public RepeatedQueryInterceptor(RepeatedQueryDetector detector, Class<?> repositoryInterface) {
+        Assert.notNull(detector, "Cannot create a RepeatedQueryInterceptor without a RepeatedQueryDetector!");
+        this.detector = detector;
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String name = method.getName();
+        if (method.getDeclaringClass() != Object.class && !name.startsWith("save") && !name.startsWith("delete")) {
+            detector.record(repositoryName + "." + name, suggestionFor(name));
+        }
+        return invocation.proceed();
+    }
+
+    private static String suggestionFor(String methodName) {
+        if (methodName.equals("findOne")) {
+            return "load the entities together with findAll(Iterable<Long> ids), or load their owner at a greater depth";
+        }
+        return "query for all the parameter values at once, e.g. with IN or UNWIND, or load related entities at a greater depth";
+    }
+
+}
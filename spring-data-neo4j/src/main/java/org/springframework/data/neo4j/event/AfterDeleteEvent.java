@@ -26,4 +26,8 @@ public class AfterDeleteEvent extends Neo4jDataManipulationEvent {
         super(source, entity);
     }
 
+    public AfterDeleteEvent(Object source, Object entity, Long graphId) {
+        super(source, entity, graphId);
+    }
+
 }
@@ -13,6 +13,9 @@
 
 package org.springframework.data.neo4j.event;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * {@link Neo4jDataManipulationEvent} published after a particular entity is saved.
  *
@@ -22,8 +25,35 @@ public class AfterSaveEvent extends Neo4jDataManipulationEvent {
 
     private static final long serialVersionUID = 894064891865991948L;
 
+    private Map<String, Object> changedProperties;
+
     public AfterSaveEvent(Object source, Object entity) {
         super(source, entity);
     }
 
+    public AfterSaveEvent(Object source, Object entity, Long graphId) {
+        this(source, entity, graphId, null);
+    }
+
+    /**
+     * @param source The object on which the event initially occurred
+     * @param entity The saved entity
+     * @param graphId The graph ID of the entity, or <code>null</code> if it isn't known
+     * @param changedProperties The graph values of the properties that the save changed keyed by property name, or
+     *        <code>null</code> if they aren't known
+     */
+    public AfterSaveEvent(Object source, Object entity, Long graphId, Map<String, Object> changedProperties) {
+        super(source, entity, graphId);
+        this.changedProperties = changedProperties != null ? Collections.unmodifiableMap(changedProperties) : null;
+    }
+
+    /**
+     * @return The graph values of the properties that the save changed, captured when the entity was saved, or
+     *         <code>null</code> if they aren't known, for instance because the entity is new or isn't tracked by an
+     *         {@link org.springframework.data.neo4j.mapping.EntityStateTracker}
+     */
+    public Map<String, Object> getChangedProperties() {
+        return changedProperties;
+    }
+
 }
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.event;
+
+import java.util.List;
+
+/**
+ * {@link Neo4jBatchDataManipulationEvent} published after a transaction in which entities were saved has committed.
+ */
+public class BatchSaveEvent extends Neo4jBatchDataManipulationEvent {
+
+    private static final long serialVersionUID = -3311245794516372089L;
+
+    public BatchSaveEvent(Object source, List<? extends Neo4jDataManipulationEvent> events) {
+        super(source, events);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.event;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Describes a set of entity changes that a {@link CacheInvalidationListener} should evict from its cache, by entity
+ * type, node label and graph ID.  The changes made within a transaction are coalesced into a single instance.
+ */
+public class CacheInvalidation {
+
+    private final Set<Class<?>> types = new LinkedHashSet<>();
+    private final Set<String> labels = new LinkedHashSet<>();
+    private final Set<Long> ids = new LinkedHashSet<>();
+    private final Set<Class<?>> typesWithoutIds = new LinkedHashSet<>();
+
+    void add(Class<?> type, Iterable<String> entityLabels, Long id) {
+        types.add(type);
+        for (String label : entityLabels) {
+            labels.add(label);
+        }
+        if (id != null) {
+            ids.add(id);
+        } else {
+            typesWithoutIds.add(type);
+        }
+    }
+
+    boolean isEmpty() {
+        return types.isEmpty();
+    }
+
+    /**
+     * @return The classes of the changed entities
+     */
+    public Set<Class<?>> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * @return The labels of the changed nodes
+     */
+    public Set<String> getLabels() {
+        return Collections.unmodifiableSet(labels);
+    }
+
+    /**
+     * @return The graph IDs of the changed entities, excluding any that weren't yet persisted when they changed
+     */
+    public Set<Long> getIds() {
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * @return The classes of changed entities whose graph IDs weren't known, any entity of which may have changed
+     */
+    public Set<Class<?>> getTypesWithoutIds() {
+        return Collections.unmodifiableSet(typesWithoutIds);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{labels=" + labels + ", ids=" + ids.size() + "}";
+    }
+}
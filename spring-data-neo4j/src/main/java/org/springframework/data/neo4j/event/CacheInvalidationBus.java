@@ -0,0 +1,186 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.event;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Translates the {@link AfterSaveEvent}s and {@link AfterDeleteEvent}s published by templates and repositories into
+ * {@link CacheInvalidation}s, which it passes to every subscribed {@link CacheInvalidationListener}.
+ * <p>
+ * Changes made within a transaction are coalesced and passed on in a single {@link CacheInvalidation} once the
+ * transaction has completed, so saving thousands of entities in one transaction costs one sweep of each cache rather
+ * than one sweep per entity.  Nothing is passed on for a transaction that rolls back.  Changes made outside a
+ * transaction are passed on immediately.
+ * </p>
+ * <p>
+ * All {@link CacheInvalidationListener} beans in the application context are subscribed automatically.
+ * </p>
+ */
+public class CacheInvalidationBus implements SmartApplicationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final MetaData metaData;
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new {@link CacheInvalidationBus}.
+     *
+     * @param metaData The OGM {@link MetaData} used to resolve the labels of changed entities
+     */
+    public CacheInvalidationBus(MetaData metaData) {
+        Assert.notNull(metaData, "Cannot create a CacheInvalidationBus without MetaData!");
+        this.metaData = metaData;
+    }
+
+    /**
+     * Subscribes the given listeners to this bus.
+     *
+     * @param listeners The {@link CacheInvalidationListener}s to subscribe
+     */
+    @Autowired(required = false)
+    public void setListeners(List<CacheInvalidationListener> listeners) {
+        this.listeners.addAll(listeners);
+    }
+
+    /**
+     * @param listener The {@link CacheInvalidationListener} to subscribe
+     */
+    public void addListener(CacheInvalidationListener listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return AfterSaveEvent.class.isAssignableFrom(eventType)
+                || AfterDeleteEvent.class.isAssignableFrom(eventType)
+                || Neo4jBatchDataManipulationEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public boolean supportsSourceType(Class<?> sourceType) {
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof Neo4jBatchDataManipulationEvent) {
+            entitiesChanged(((Neo4jBatchDataManipulationEvent) event).getEvents());
+        } else if (event instanceof Neo4jDataManipulationEvent && ((Neo4jDataManipulationEvent) event).getEntity() != null) {
+            Neo4jDataManipulationEvent manipulation = (Neo4jDataManipulationEvent) event;
+            entityChanged(manipulation.getEntity(), manipulation.getGraphId());
+        }
+    }
+
+    /**
+     * Records a change to the given entity, to be passed on to the listeners when the current transaction completes or
+     * immediately if there is no transaction.
+     *
+     * @param entity The saved or deleted entity
+     * @param id The graph ID of the entity, or <code>null</code> to invalidate every entity of its type
+     */
+    public void entityChanged(Object entity, Long id) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Class<?> type = entity.getClass();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            CacheInvalidation invalidation = new CacheInvalidation();
+            invalidation.add(type, labelsOf(type), id);
+            dispatch(invalidation);
+            return;
+        }
+
+        CacheInvalidation pending = (CacheInvalidation) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new CacheInvalidation();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new InvalidationSynchronization(pending));
+        }
+        pending.add(type, labelsOf(type), id);
+    }
+
+    /**
+     * Passes changes to the given entities on to the listeners immediately, as a single {@link CacheInvalidation}.
+     *
+     * @param events The events for the saved or deleted entities
+     */
+    public void entitiesChanged(Collection<? extends Neo4jDataManipulationEvent> events) {
+        if (listeners.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        CacheInvalidation invalidation = new CacheInvalidation();
+        for (Neo4jDataManipulationEvent event : events) {
+            Class<?> type = event.getEntity().getClass();
+            invalidation.add(type, labelsOf(type), event.getGraphId());
+        }
+        dispatch(invalidation);
+    }
+
+    private Collection<String> labelsOf(Class<?> type) {
+        ClassInfo classInfo = metaData.classInfo(type.getName());
+        return classInfo != null ? classInfo.labels() : Collections.<String>emptySet();
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        logger.debug("Dispatching {}", invalidation);
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(invalidation);
+            } catch (RuntimeException e) {
+                logger.error("Cache invalidation listener " + listener + " failed", e);
+            }
+        }
+    }
+
+    private class InvalidationSynchronization extends TransactionSynchronizationAdapter {
+
+        private final CacheInvalidation pending;
+
+        InvalidationSynchronization(CacheInvalidation pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+            if (status != TransactionSynchronization.STATUS_ROLLED_BACK && !pending.isEmpty()) {
+                dispatch(pending);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.event;
+
+/**
+ * Implemented by caches that subscribe to the {@link CacheInvalidationBus} in order to evict data affected by entity
+ * changes.
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * Evicts cached data affected by the given changes.
+     *
+     * @param invalidation The types, labels and IDs of the entities that were saved or deleted
+     */
+    void invalidate(CacheInvalidation invalidation);
+
+}
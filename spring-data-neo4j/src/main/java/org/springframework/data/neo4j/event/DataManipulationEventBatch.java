@@ -0,0 +1,210 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.event;
+
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Collects the {@link AfterSaveEvent}s and {@link AfterDeleteEvent}s of a transaction when the
+ * {@link org.springframework.data.neo4j.transaction.Neo4jTransactionManager} batches events, and publishes them as one
+ * {@link BatchSaveEvent} and one {@link BatchDeleteEvent} after the transaction has committed.  Nothing is published
+ * if the transaction rolls back.
+ * <p>
+ * This takes listeners off the write path: instead of being invoked twice per entity while the transaction is
+ * running, they're invoked once per transaction after it has committed, optionally on a separate {@link Executor}.
+ * {@link BeforeSaveEvent}s and {@link BeforeDeleteEvent}s are still published synchronously, because their listeners
+ * may modify an entity before it's written.
+ * </p>
+ */
+public class DataManipulationEventBatch extends TransactionSynchronizationAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataManipulationEventBatch.class);
+
+    private final Session session;
+    private final Executor executor;
+    private final Batch saved = new Batch();
+    private final Batch deleted = new Batch();
+
+    private ApplicationEventPublisher applicationEventPublisher;
+    private Object source;
+
+    /**
+     * Constructs a new {@link DataManipulationEventBatch}.
+     *
+     * @param session The OGM {@link Session} on which the transaction runs
+     * @param executor The {@link Executor} on which to publish the batched events, or <code>null</code> to publish them
+     *        on the committing thread
+     */
+    public DataManipulationEventBatch(Session session, Executor executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieves the {@link DataManipulationEventBatch} bound to the current transaction for the given {@link Session}.
+     *
+     * @param session The OGM {@link Session} to look up
+     * @return The batch bound to the current transaction or <code>null</code> if events aren't being batched
+     */
+    public static DataManipulationEventBatch forSession(Session session) {
+        return (DataManipulationEventBatch) TransactionSynchronizationManager.getResource(new ResourceKey(session));
+    }
+
+    /**
+     * Binds this batch to the current transaction and registers it to publish its events once the transaction has
+     * committed.  Requires active transaction synchronization.
+     */
+    public void bind() {
+        TransactionSynchronizationManager.bindResource(new ResourceKey(session), this);
+        TransactionSynchronizationManager.registerSynchronization(this);
+    }
+
+    /**
+     * Adds the given event to this batch if it's one that gets batched.
+     *
+     * @param applicationEventPublisher The {@link ApplicationEventPublisher} through which the event would have been
+     *        published
+     * @param event The event to add
+     * @return <code>true</code> if the event was added, <code>false</code> if it should be published immediately
+     */
+    public synchronized boolean add(ApplicationEventPublisher applicationEventPublisher, Neo4jDataManipulationEvent event) {
+        if (!(event instanceof AfterSaveEvent || event instanceof AfterDeleteEvent)) {
+            return false;
+        }
+        if (this.applicationEventPublisher == null) {
+            this.applicationEventPublisher = applicationEventPublisher;
+            this.source = event.getSource();
+        } else if (this.applicationEventPublisher != applicationEventPublisher) {
+            return false;
+        }
+        (event instanceof AfterSaveEvent ? saved : deleted).add(event);
+        return true;
+    }
+
+    @Override
+    public void afterCommit() {
+        List<ApplicationEvent> events = new ArrayList<>(2);
+        synchronized (this) {
+            if (!saved.isEmpty()) {
+                events.add(new BatchSaveEvent(source, saved.events));
+            }
+            if (!deleted.isEmpty()) {
+                events.add(new BatchDeleteEvent(source, deleted.events));
+            }
+        }
+        if (!events.isEmpty()) {
+            publish(events);
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(new ResourceKey(session));
+    }
+
+    private void publish(final List<ApplicationEvent> events) {
+        if (executor != null) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        publishNow(events);
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.warn("Event executor is saturated, publishing batched events on the committing thread");
+            }
+        }
+        publishNow(events);
+    }
+
+    private void publishNow(List<ApplicationEvent> events) {
+        for (ApplicationEvent event : events) {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+
+    private static class Batch {
+
+        private final List<Neo4jDataManipulationEvent> events = new ArrayList<>();
+        private final Map<Object, Integer> positions = new IdentityHashMap<>();
+
+        /*
+         * An entity saved more than once keeps the position of its first save, and an event that combines the changes
+         * made by all of them.
+         */
+        void add(Neo4jDataManipulationEvent event) {
+            Integer position = positions.get(event.getEntity());
+            if (position == null) {
+                positions.put(event.getEntity(), events.size());
+                events.add(event);
+            } else {
+                events.set(position, merge(events.get(position), event));
+            }
+        }
+
+        private static Neo4jDataManipulationEvent merge(Neo4jDataManipulationEvent earlier, Neo4jDataManipulationEvent later) {
+            Long graphId = later.getGraphId() != null ? later.getGraphId() : earlier.getGraphId();
+            if (!(later instanceof AfterSaveEvent)) {
+                return later.getGraphId() != null ? later : earlier;
+            }
+            Map<String, Object> earlierChanges = ((AfterSaveEvent) earlier).getChangedProperties();
+            Map<String, Object> laterChanges = ((AfterSaveEvent) later).getChangedProperties();
+            Map<String, Object> changedProperties = null;
+            if (earlierChanges != null && laterChanges != null) {
+                changedProperties = new LinkedHashMap<>(earlierChanges);
+                changedProperties.putAll(laterChanges);
+            }
+            return new AfterSaveEvent(later.getSource(), later.getEntity(), graphId, changedProperties);
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty();
+        }
+    }
+
+    private static final class ResourceKey {
+
+        private final Session session;
+
+        ResourceKey(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ResourceKey && ((ResourceKey) o).session == session;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(session);
+        }
+    }
+
+}
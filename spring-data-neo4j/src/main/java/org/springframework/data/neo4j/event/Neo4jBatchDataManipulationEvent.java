@@ -0,0 +1,56 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Spring {@link ApplicationEvent} published once a transaction has committed, in place of the individual
+ * {@link Neo4jDataManipulationEvent}s for each entity saved or deleted within it, when the
+ * {@link org.springframework.data.neo4j.transaction.Neo4jTransactionManager} batches events.
+ */
+public class Neo4jBatchDataManipulationEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 5216879012468710435L;
+
+    private final List<Neo4jDataManipulationEvent> events;
+
+    public Neo4jBatchDataManipulationEvent(Object source, List<? extends Neo4jDataManipulationEvent> events) {
+        super(source);
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * @return The individual events batched, one per entity, in the order in which the entities were first saved or
+     *         deleted
+     */
+    public List<Neo4jDataManipulationEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return The entities affected, in the order in which they were first saved or deleted
+     */
+    public List<Object> getEntities() {
+        List<Object> entities = new ArrayList<>(events.size());
+        for (Neo4jDataManipulationEvent event : events) {
+            entities.add(event.getEntity());
+        }
+        return entities;
+    }
+
+}
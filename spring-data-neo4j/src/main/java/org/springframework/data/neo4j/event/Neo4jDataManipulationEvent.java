@@ -28,14 +28,36 @@ public class Neo4jDataManipulationEvent extends ApplicationEvent {
     private static final long serialVersionUID = -9025087608146228149L;
 
     private Object entity;
+    private Long graphId;
 
     public Neo4jDataManipulationEvent(Object source, Object entity) {
+        this(source, entity, null);
+    }
+
+    /**
+     * @param source The object on which the event initially occurred
+     * @param entity The entity being manipulated
+     * @param graphId The graph ID of the entity, resolved on the thread that manipulated it, or <code>null</code> if
+     *        it isn't known
+     */
+    public Neo4jDataManipulationEvent(Object source, Object entity, Long graphId) {
         super(source);
         this.entity = entity;
+        this.graphId = graphId;
     }
 
     public Object getEntity() {
         return entity;
     }
 
+    /**
+     * Listeners may run on another thread than the one that manipulated the entity, where the OGM session can't be
+     * used to resolve its graph ID, so the ID is captured when the event is created.
+     *
+     * @return The graph ID of the entity, or <code>null</code> if it isn't known
+     */
+    public Long getGraphId() {
+        return graphId;
+    }
+
 }
@@ -0,0 +1,553 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.exception.MappingException;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.util.ExpiringLruCache;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the persistent state of the node entities loaded and saved through templates and repositories, so that saving
+ * them again only writes what has actually changed.
+ * <p>
+ * A snapshot of the graph properties and related entities of each node entity is taken when it's loaded or saved, using
+ * the OGM metadata held by the {@link Neo4jMappingContext}.  When an entity is saved, {@link #changesOf(Object, int)}
+ * compares the entities that the save would reach against their snapshots.  Saving an unmodified entity is then skipped
+ * altogether, and if only the simple properties of some nodes have changed, then just those nodes are saved by the OGM,
+ * to depth 0, so that it writes their changed properties and keeps its own record of their state up to date.  Anything
+ * else, such as a new entity, an added or removed relationship, a relationship entity or a property without a snapshot,
+ * needs a full save by the OGM.
+ * </p>
+ * <p>
+ * A snapshot only applies to the entity instance it was taken of, so an instance loaded by another session, which may
+ * hold other values, is saved in full rather than compared against it.  Snapshots taken within a transaction are only
+ * visible to that transaction until it commits, and are discarded if it doesn't, since they may then describe state
+ * that never reached the database; snapshots taken by other transactions are unaffected.  Committed snapshots are held
+ * in a bounded least-recently-used cache.  Entities whose properties are mapped through getters aren't tracked.
+ * Define a bean of this type in order to enable dirty tracking on templates and repositories.
+ * </p>
+ */
+public class EntityStateTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityStateTracker.class);
+
+    /**
+     * The maximum number of entity snapshots held by default.
+     */
+    public static final int DEFAULT_MAX_ENTITIES = 10000;
+
+    private final MetaData metaData;
+    private final ExpiringLruCache<EntityKey, EntityState> states;
+
+    /**
+     * Constructs a new {@link EntityStateTracker} that holds up to {@link #DEFAULT_MAX_ENTITIES} snapshots.
+     *
+     * @param mappingContext The {@link Neo4jMappingContext} that describes the persistent entities
+     */
+    public EntityStateTracker(Neo4jMappingContext mappingContext) {
+        this(mappingContext, DEFAULT_MAX_ENTITIES);
+    }
+
+    /**
+     * Constructs a new {@link EntityStateTracker}.
+     *
+     * @param mappingContext The {@link Neo4jMappingContext} that describes the persistent entities
+     * @param maxEntities The maximum number of entity snapshots to hold
+     */
+    public EntityStateTracker(Neo4jMappingContext mappingContext, int maxEntities) {
+        Assert.notNull(mappingContext, "Cannot create an EntityStateTracker without a Neo4jMappingContext!");
+        this.metaData = mappingContext.getMetaData();
+        this.states = new ExpiringLruCache<>(maxEntities, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Takes a snapshot of the given entities and of the entities related to them up to the given depth, replacing any
+     * previous snapshots.
+     *
+     * @param entities An entity or an {@link Iterable} of entities, as loaded or saved
+     * @param depth The depth to which the entities were loaded or saved, or -1 for their whole graph
+     */
+    public void snapshot(Object entities, int depth) {
+        if (entities == null) {
+            return;
+        }
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Reachable> pending = new ArrayDeque<>();
+        enqueue(pending, entities, depth);
+        while (!pending.isEmpty()) {
+            Reachable next = pending.poll();
+            if (visited.put(next.entity, Boolean.TRUE) != null) {
+                continue;
+            }
+            ClassInfo classInfo = metaData.classInfo(next.entity.getClass().getName());
+            if (classInfo == null || isRelationshipEntity(classInfo)) {
+                continue;
+            }
+            Long id = idOf(classInfo, next.entity);
+            if (id == null) {
+                continue;
+            }
+            EntityKey key = new EntityKey(next.entity.getClass(), id);
+            store(key, captureState(classInfo, next.entity));
+            if (next.depth != 0) {
+                enqueueRelated(pending, classInfo, next);
+            }
+        }
+    }
+
+    /**
+     * Discards the snapshot of the given entity, for instance because it's being deleted.
+     *
+     * @param entity The entity to forget
+     */
+    public void forget(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        ClassInfo classInfo = metaData.classInfo(entity.getClass().getName());
+        Long id = classInfo != null ? idOf(classInfo, entity) : null;
+        if (id != null) {
+            store(new EntityKey(entity.getClass(), id), null);
+        }
+    }
+
+    /**
+     * Discards all snapshots, including those taken by other transactions.
+     */
+    public void clear() {
+        TransactionSnapshots transactionSnapshots = (TransactionSnapshots) TransactionSynchronizationManager.getResource(this);
+        if (transactionSnapshots != null) {
+            transactionSnapshots.states.clear();
+        }
+        states.clear();
+    }
+
+    /**
+     * Works out what saving the given entities to the given depth would change.
+     *
+     * @param entities An entity or an {@link Iterable} of entities about to be saved
+     * @param depth The depth to which the entities are to be saved, or -1 for their whole graph
+     * @return The {@link Changes} that bring the database up to date, which are empty if nothing has changed, or
+     *         <code>null</code> if the entities need a full save by the OGM
+     */
+    public Changes changesOf(Object entities, int depth) {
+        if (entities == null) {
+            return null;
+        }
+        List<Object> changed = new ArrayList<>();
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Reachable> pending = new ArrayDeque<>();
+        enqueue(pending, entities, depth);
+        while (!pending.isEmpty()) {
+            Reachable next = pending.poll();
+            if (visited.put(next.entity, Boolean.TRUE) != null) {
+                continue;
+            }
+            ClassInfo classInfo = metaData.classInfo(next.entity.getClass().getName());
+            if (classInfo == null || isRelationshipEntity(classInfo)) {
+                return null;
+            }
+            Long id = idOf(classInfo, next.entity);
+            if (id == null) {
+                return null;
+            }
+            EntityState previous = lookup(new EntityKey(next.entity.getClass(), id), next.entity);
+            EntityState current = previous != null ? captureState(classInfo, next.entity) : null;
+            if (current == null) {
+                return null;
+            }
+            if (next.depth != 0 && !previous.relationships.equals(current.relationships)) {
+                return null;
+            }
+            if (!previous.changedProperties(current).isEmpty()) {
+                changed.add(next.entity);
+            }
+            if (next.depth != 0) {
+                enqueueRelated(pending, classInfo, next);
+            }
+        }
+        logger.debug("Found {} changed entities among {} reachable entities", changed.size(), visited.size());
+        return new Changes(changed);
+    }
+
+    /**
+     * Works out which graph properties of the given entity differ from its snapshot.
+     *
+     * @param entity The node entity about to be saved
+     * @return The graph values of the changed properties keyed by property name, which is empty if none has changed, or
+     *         <code>null</code> if there is no snapshot of the entity to compare against
+     */
+    public Map<String, Object> changedPropertiesOf(Object entity) {
+        ClassInfo classInfo = entity != null ? metaData.classInfo(entity.getClass().getName()) : null;
+        if (classInfo == null || isRelationshipEntity(classInfo)) {
+            return null;
+        }
+        Long id = idOf(classInfo, entity);
+        EntityState previous = id != null ? lookup(new EntityKey(entity.getClass(), id), entity) : null;
+        EntityState current = previous != null ? captureState(classInfo, entity) : null;
+        return current != null ? previous.changedProperties(current) : null;
+    }
+
+    private void enqueue(Deque<Reachable> pending, Object value, int depth) {
+        if (value == null || isUnloaded(value)) {
+            return;
+        }
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                enqueue(pending, element, depth);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                enqueue(pending, Array.get(value, i), depth);
+            }
+        } else {
+            pending.add(new Reachable(value, depth));
+        }
+    }
+
+    private void enqueueRelated(Deque<Reachable> pending, ClassInfo classInfo, Reachable reachable) {
+        int relatedDepth = reachable.depth < 0 ? reachable.depth : reachable.depth - 1;
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+            enqueue(pending, readField(classInfo, fieldInfo, reachable.entity), relatedDepth);
+        }
+    }
+
+    private EntityState captureState(ClassInfo classInfo, Object entity) {
+        if (!classInfo.propertyGetters().isEmpty()) {
+            logger.debug("Not tracking {} because some of its properties are mapped through getters", classInfo.name());
+            return null;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        for (FieldInfo fieldInfo : classInfo.propertyFields()) {
+            Object value = toGraphValue(fieldInfo, readField(classInfo, fieldInfo, entity));
+            if (!isImmutable(value)) {
+                logger.debug("Not tracking {} because property {} has no immutable graph value", classInfo.name(), fieldInfo.property());
+                return null;
+            }
+            properties.put(fieldInfo.property(), copy(value));
+        }
+
+        Map<String, Set<Long>> relationships = new HashMap<>();
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+            Object value = readField(classInfo, fieldInfo, entity);
+            if (isUnloaded(value)) {
+                // compared as absent until it's loaded, after which the relationships count as changed
+                continue;
+            }
+            List<Object> targets = new ArrayList<>();
+            collect(targets, value);
+            Set<Long> targetIds = new HashSet<>();
+            for (Object target : targets) {
+                ClassInfo targetClassInfo = metaData.classInfo(target.getClass().getName());
+                Long targetId = targetClassInfo != null ? idOf(targetClassInfo, target) : null;
+                if (targetId == null) {
+                    return null;
+                }
+                targetIds.add(targetId);
+            }
+            relationships.put(fieldInfo.getName(), targetIds);
+        }
+        return new EntityState(entity, properties, relationships);
+    }
+
+    /*
+     * The value the OGM writes for a property, which is converted by the converter that the OGM metadata holds for its
+     * field, whether declared or assigned by default to types such as dates, enums and big numbers.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object toGraphValue(FieldInfo fieldInfo, Object value) {
+        if (value != null && fieldInfo.hasConverter()) {
+            return fieldInfo.converter().toGraphProperty(value);
+        }
+        return value;
+    }
+
+    private static void collect(List<Object> targets, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                collect(targets, element);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                collect(targets, Array.get(value, i));
+            }
+        } else {
+            targets.add(value);
+        }
+    }
+
+    private static Object readField(ClassInfo classInfo, FieldInfo fieldInfo, Object entity) {
+        Field field = classInfo.getField(fieldInfo);
+        try {
+            field.setAccessible(true);
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to read field " + fieldInfo.getName() + " of " + classInfo.name(), e);
+        }
+    }
+
+    private static Long idOf(ClassInfo classInfo, Object entity) {
+        try {
+            Object id = readField(classInfo, classInfo.identityField(), entity);
+            return id instanceof Long ? (Long) id : null;
+        } catch (MappingException noIdentityField) {
+            return null;
+        }
+    }
+
+    private static boolean isUnloaded(Object value) {
+        return value instanceof LazyRelationshipCollection && !((LazyRelationshipCollection) value).isLoaded();
+    }
+
+    private static boolean isRelationshipEntity(ClassInfo classInfo) {
+        return classInfo.annotationsInfo().get(RelationshipEntity.class.getName()) != null;
+    }
+
+    /*
+     * Snapshots can only safely hold values that the entity can't mutate behind their back, or copies of them.
+     */
+    private static boolean isImmutable(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof BigInteger
+                || value instanceof BigDecimal || value instanceof Enum) {
+            return true;
+        }
+        if (value.getClass().isArray()) {
+            if (value.getClass().getComponentType().isPrimitive()) {
+                return true;
+            }
+            for (Object element : (Object[]) value) {
+                if (!isImmutable(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (!isImmutable(element) || element != null && element.getClass().isArray()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Object copy(Object value) {
+        if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        return value;
+    }
+
+    /*
+     * Looks up the snapshot of the given entity instance, preferring one taken by the current transaction.
+     */
+    private EntityState lookup(EntityKey key, Object entity) {
+        TransactionSnapshots transactionSnapshots = (TransactionSnapshots) TransactionSynchronizationManager.getResource(this);
+        EntityState state;
+        if (transactionSnapshots != null && transactionSnapshots.states.containsKey(key)) {
+            state = transactionSnapshots.states.get(key);
+        } else {
+            state = states.get(key);
+        }
+        return state != null && state.isOf(entity) ? state : null;
+    }
+
+    /*
+     * Stores a snapshot, or discards it if it's null, in the current transaction if there is one.
+     */
+    private void store(EntityKey key, EntityState state) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (state != null) {
+                states.put(key, state);
+            } else {
+                states.remove(key);
+            }
+            return;
+        }
+        TransactionSnapshots transactionSnapshots = (TransactionSnapshots) TransactionSynchronizationManager.getResource(this);
+        if (transactionSnapshots == null) {
+            transactionSnapshots = new TransactionSnapshots();
+            TransactionSynchronizationManager.bindResource(this, transactionSnapshots);
+            TransactionSynchronizationManager.registerSynchronization(transactionSnapshots);
+        }
+        transactionSnapshots.states.put(key, state);
+    }
+
+    /**
+     * The entities whose properties alone have changed, which need saving to bring the database up to date.
+     */
+    public static final class Changes {
+
+        private final List<Object> entities;
+
+        Changes(List<Object> entities) {
+            this.entities = entities;
+        }
+
+        /**
+         * @return <code>true</code> if none of the entities has changed, <code>false</code> otherwise
+         */
+        public boolean isEmpty() {
+            return entities.isEmpty();
+        }
+
+        /**
+         * Saves the changed entities to depth 0.  The OGM only writes the properties that differ from its own record of
+         * the nodes, converted as their fields require, and updates that record, so a later full save compares against
+         * what was actually written.
+         *
+         * @param session The OGM {@link Session} through which to save the changed entities
+         */
+        public void apply(Session session) {
+            if (entities.isEmpty()) {
+                return;
+            }
+            session.save(entities, 0);
+            logger.debug("Saved the changed properties of {} nodes", entities.size());
+        }
+    }
+
+    private static class EntityState {
+
+        private final WeakReference<Object> entity;
+        private final Map<String, Object> properties;
+        private final Map<String, Set<Long>> relationships;
+
+        EntityState(Object entity, Map<String, Object> properties, Map<String, Set<Long>> relationships) {
+            this.entity = new WeakReference<>(entity);
+            this.properties = properties;
+            this.relationships = relationships;
+        }
+
+        boolean isOf(Object entity) {
+            return this.entity.get() == entity;
+        }
+
+        Map<String, Object> changedProperties(EntityState current) {
+            Map<String, Object> changed = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> property : current.properties.entrySet()) {
+                if (!Objects.deepEquals(properties.get(property.getKey()), property.getValue())) {
+                    changed.put(property.getKey(), property.getValue());
+                }
+            }
+            return changed;
+        }
+    }
+
+    /*
+     * The snapshots taken and discarded within a transaction, which replace the committed ones if it commits.  A null
+     * state records a discarded snapshot.
+     */
+    private class TransactionSnapshots extends TransactionSynchronizationAdapter {
+
+        private final Map<EntityKey, EntityState> states = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EntityStateTracker.this);
+            if (status != STATUS_COMMITTED) {
+                logger.debug("Discarded {} entity snapshots because the transaction didn't commit", states.size());
+                return;
+            }
+            for (Map.Entry<EntityKey, EntityState> state : states.entrySet()) {
+                if (state.getValue() != null) {
+                    EntityStateTracker.this.states.put(state.getKey(), state.getValue());
+                } else {
+                    EntityStateTracker.this.states.remove(state.getKey());
+                }
+            }
+        }
+    }
+
+    private static class Reachable {
+
+        private final Object entity;
+        private final int depth;
+
+        Reachable(Object entity, int depth) {
+            this.entity = entity;
+            this.depth = depth;
+        }
+    }
+
+    private static final class EntityKey {
+
+        private final Class<?> type;
+        private final Long id;
+
+        EntityKey(Class<?> type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntityKey)) {
+                return false;
+            }
+            EntityKey other = (EntityKey) o;
+            return type.equals(other.type) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + id.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.NamedFetchPlan;
+import org.springframework.data.neo4j.annotation.NamedFetchPlans;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lists exactly which relationship paths to load along with an entity, as an alternative to a load depth that follows
+ * every relationship type.
+ * <p>
+ * Each path is a sequence of relationship types separated by dots, such as <code>WORKS_AT.LOCATED_IN</code>, which is
+ * followed from the entity's node.  A type is followed outgoing unless prefixed with <code>&lt;</code> for incoming or
+ * <code>-</code> for either direction.  The nodes and relationships along each path, including partial paths that end
+ * early, are loaded in a single statement and nothing else is.  Fetch plans are built with {@link #of(String...)} or
+ * declared on entity classes with {@link NamedFetchPlan} and looked up with {@link #named(Class, String)}.
+ * </p>
+ * <p>
+ * Given a {@link Neo4jMappingContext}, a plan is resolved against the OGM {@link MetaData} of the entity it loads: a hop
+ * may then name a relationship field, such as <code>employer.location</code>, which stands for that field's relationship
+ * type and, unless prefixed, its direction, and the entity's node is matched by its labels as well as its ID.  Hops that
+ * don't name a field of the entity reached so far are taken as relationship types, as they are without metadata.
+ * </p>
+ */
+public final class FetchPlan {
+
+    private static final Pattern HOP = Pattern.compile("([<-]?)([A-Za-z_][A-Za-z0-9_]*)");
+
+    private final List<String> paths;
+    private final List<List<String>> expandedPaths = new ArrayList<>();
+    private final int depth;
+
+    private FetchPlan(List<String> paths) {
+        this.paths = Collections.unmodifiableList(paths);
+
+        Set<String> prefixes = new LinkedHashSet<>();
+        int maxDepth = 0;
+        for (String path : paths) {
+            Assert.hasText(path, "A fetch plan path cannot be empty");
+            String[] hops = path.split("\\.");
+            for (int i = 0; i < hops.length; i++) {
+                Assert.isTrue(HOP.matcher(hops[i]).matches(), "Invalid relationship type '" + hops[i] + "' in fetch plan path " + path);
+                if (prefixes.add(join(hops, i + 1))) {
+                    expandedPaths.add(Arrays.asList(hops).subList(0, i + 1));
+                }
+            }
+            maxDepth = Math.max(maxDepth, hops.length);
+        }
+        this.depth = maxDepth;
+    }
+
+    /**
+     * Builds a fetch plan that loads the given relationship paths.
+     *
+     * @param paths The relationship paths, such as <code>WORKS_AT.LOCATED_IN</code>
+     * @return A new {@link FetchPlan}
+     */
+    public static FetchPlan of(String... paths) {
+        return new FetchPlan(new ArrayList<>(Arrays.asList(paths)));
+    }
+
+    /**
+     * Looks up a fetch plan declared with {@link NamedFetchPlan} on the given entity class or one of its superclasses.
+     *
+     * @param type The entity class
+     * @param name The name of the fetch plan
+     * @return The {@link FetchPlan} with the given name
+     * @throws IllegalArgumentException if no fetch plan with the given name is declared
+     */
+    public static FetchPlan named(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            List<NamedFetchPlan> declared = new ArrayList<>();
+            NamedFetchPlan single = AnnotationUtils.getAnnotation(current, NamedFetchPlan.class);
+            if (single != null) {
+                declared.add(single);
+            }
+            NamedFetchPlans several = AnnotationUtils.getAnnotation(current, NamedFetchPlans.class);
+            if (several != null) {
+                declared.addAll(Arrays.asList(several.value()));
+            }
+            for (NamedFetchPlan namedFetchPlan : declared) {
+                if (namedFetchPlan.name().equals(name)) {
+                    return of(namedFetchPlan.paths());
+                }
+            }
+        }
+        throw new IllegalArgumentException("No fetch plan named '" + name + "' is declared on " + type.getName());
+    }
+
+    /**
+     * @return The relationship paths that this fetch plan loads
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @return The number of relationships in the longest path of this fetch plan
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Loads an entity together with the relationship paths of this fetch plan.
+     *
+     * @param session The {@link Session} through which to load the entity
+     * @param type The type of the entity
+     * @param id The ID of the entity's node
+     * @return The entity, or <code>null</code> if there is none of the given type with the given ID
+     */
+    public <T> T load(Session session, Class<T> type, Long id) {
+        return load(session, null, type, id);
+    }
+
+    /**
+     * Loads an entity together with the relationship paths of this fetch plan, as resolved against the mapping metadata.
+     *
+     * @param session The {@link Session} through which to load the entity
+     * @param mappingContext The {@link Neo4jMappingContext} against which to resolve the plan, which may be
+     *        <code>null</code> to take every hop as a relationship type
+     * @param type The type of the entity
+     * @param id The ID of the entity's node
+     * @return The entity, or <code>null</code> if there is none of the given type with the given ID
+     */
+    public <T> T load(Session session, Neo4jMappingContext mappingContext, Class<T> type, Long id) {
+        Assert.notNull(id, "Cannot load an entity without an ID");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        String cypher = mappingContext != null ? toCypher(mappingContext, type) : toCypher();
+        for (T entity : session.query(type, cypher, parameters)) {
+            // the entities along the paths may be of the same type, so the one requested is picked out by its ID
+            if (id.equals(session.resolveGraphIdFor(entity))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    String toCypher() {
+        return toCypher("", expandedPaths);
+    }
+
+    String toCypher(Neo4jMappingContext mappingContext, Class<?> type) {
+        MetaData metaData = mappingContext.getMetaData();
+        List<List<String>> resolvedPaths = new ArrayList<>(expandedPaths.size());
+        for (List<String> path : expandedPaths) {
+            List<String> resolvedPath = new ArrayList<>(path.size());
+            Class<?> current = type;
+            for (String hop : path) {
+                Matcher matcher = HOP.matcher(hop);
+                matcher.matches();
+                String direction = matcher.group(1);
+                String name = matcher.group(2);
+                ClassInfo classInfo = current != null ? metaData.classInfo(current.getName()) : null;
+                FieldInfo field = classInfo != null ? relationshipFieldOf(classInfo, name) : null;
+                if (field != null && field.getName().equals(name)) {
+                    if (direction.isEmpty()) {
+                        direction = directionOf(field.relationshipDirection(Relationship.OUTGOING));
+                    }
+                    name = field.relationship();
+                }
+                resolvedPath.add(direction + name);
+                current = field != null ? relatedTypeOf(mappingContext, current, field) : null;
+            }
+            resolvedPaths.add(resolvedPath);
+        }
+
+        StringBuilder labels = new StringBuilder();
+        ClassInfo classInfo = metaData.classInfo(type.getName());
+        if (classInfo != null && classInfo.annotationsInfo().get(RelationshipEntity.class.getName()) == null) {
+            for (String label : classInfo.labels()) {
+                labels.append(":`").append(label).append('`');
+            }
+        }
+        return toCypher(labels.toString(), resolvedPaths);
+    }
+
+    /*
+     * A hop names the relationship field of that name or, failing that, any relationship field of that type.
+     */
+    private static FieldInfo relationshipFieldOf(ClassInfo classInfo, String name) {
+        FieldInfo ofType = null;
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+            if (fieldInfo.getName().equals(name)) {
+                return fieldInfo;
+            }
+            if (ofType == null && name.equals(fieldInfo.relationship())) {
+                ofType = fieldInfo;
+            }
+        }
+        return ofType;
+    }
+
+    private static Class<?> relatedTypeOf(Neo4jMappingContext mappingContext, Class<?> type, FieldInfo field) {
+        Neo4jPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(type);
+        Neo4jPersistentProperty property = persistentEntity != null ? persistentEntity.getPersistentProperty(field.getName()) : null;
+        if (property == null) {
+            return null;
+        }
+        ClassInfo related = mappingContext.getMetaData().classInfo(property.getActualType().getName());
+        // the far end of a relationship entity isn't known from the field, so the rest of the path is taken as types
+        return related != null && related.annotationsInfo().get(RelationshipEntity.class.getName()) == null
+                ? property.getActualType() : null;
+    }
+
+    private static String directionOf(String relationshipDirection) {
+        if (Relationship.INCOMING.equals(relationshipDirection)) {
+            return "<";
+        }
+        return Relationship.UNDIRECTED.equals(relationshipDirection) ? "-" : "";
+    }
+
+    private static String toCypher(String labels, List<List<String>> paths) {
+        StringBuilder cypher = new StringBuilder("MATCH (n").append(labels).append(") WHERE id(n) = {id}");
+        StringBuilder carried = new StringBuilder("n");
+        for (int i = 0; i < paths.size(); i++) {
+            cypher.append(" OPTIONAL MATCH p").append(i).append("=(n)");
+            for (String hop : paths.get(i)) {
+                appendHop(cypher, hop);
+            }
+            cypher.append(" WITH ").append(carried).append(", collect(DISTINCT p").append(i).append(") AS p").append(i);
+            carried.append(", p").append(i);
+        }
+        return cypher.append(" RETURN ").append(carried).toString();
+    }
+
+    private static void appendHop(StringBuilder cypher, String hop) {
+        Matcher matcher = HOP.matcher(hop);
+        matcher.matches();
+        String direction = matcher.group(1);
+        String type = "[:`" + matcher.group(2) + "`]";
+        if (direction.equals("<")) {
+            cypher.append("<-").append(type).append("-()");
+        } else if (direction.equals("-")) {
+            cypher.append("-").append(type).append("-()");
+        } else {
+            cypher.append("-").append(type).append("->()");
+        }
+    }
+
+    private static String join(String[] hops, int count) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            joined.append(i > 0 ? "." : "").append(hops[i]);
+        }
+        return joined.toString();
+    }
+
+}
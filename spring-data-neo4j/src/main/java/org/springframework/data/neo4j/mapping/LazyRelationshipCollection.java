@@ -0,0 +1,26 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+/**
+ * Implemented by the collections that {@link LazyRelationshipLoader} puts in place of relationship fields that weren't
+ * loaded, which load the related entities on first access.
+ */
+public interface LazyRelationshipCollection {
+
+    /**
+     * @return <code>true</code> if the related entities have been loaded, <code>false</code> if not
+     */
+    boolean isLoaded();
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link List} of related entities that's loaded on first access, for relationship fields declared as a {@link List}.
+ */
+final class LazyRelationshipList<E> extends AbstractList<E> implements LazyRelationshipCollection {
+
+    private final LazyRelationshipLoader.Batch batch;
+    private final Long ownerId;
+    private List<E> entities;
+
+    LazyRelationshipList(LazyRelationshipLoader.Batch batch, Long ownerId) {
+        this.batch = batch;
+        this.ownerId = ownerId;
+    }
+
+    @Override
+    public synchronized boolean isLoaded() {
+        return entities != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized List<E> entities() {
+        if (entities == null) {
+            entities = new ArrayList<>((Collection<E>) batch.relatedTo(ownerId));
+        }
+        return entities;
+    }
+
+    @Override
+    public E get(int index) {
+        return entities().get(index);
+    }
+
+    @Override
+    public int size() {
+        return entities().size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return entities().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        entities().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = entities().remove(index);
+        modCount++;
+        return removed;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.neo4j.util.ExpiringLruCache;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts lazily loaded collections in place of the relationship fields that weren't loaded because they lie beyond the
+ * depth to which their entities were loaded through templates and repositories.
+ * <p>
+ * The candidates are the association properties of the {@link Neo4jMappingContext}, declared as a {@link Collection},
+ * {@link Set} or {@link List} of node entities, of the entities at the edge of the loaded graph, e.g. of the loaded
+ * entities themselves when loading at depth 0.  Only fields annotated with {@link Relationship} are associations, so
+ * relationship fields relying on the OGM's defaults are never loaded lazily.  Collections of relationship entities are
+ * left alone.
+ * </p>
+ * <p>
+ * Each collection loads its related entities to depth 0 on first access, which gives them lazy collections in turn.
+ * Collections put in place of the same field by one load form a batch, so accessing any one of them loads the related
+ * entities of all its siblings with one statement, however many there are.  The relationships are loaded through the
+ * {@link Session} along with the related entities, so it keeps track of them as it does of those loaded eagerly, and
+ * removing a related entity from a lazy collection before saving its owner deletes the relationship.
+ * </p>
+ * <p>
+ * An entity at the edge may be one that the {@link Session} returns from its identity map, whose relationships were
+ * loaded earlier and may since have been changed in memory.  Such entities keep their collections as they are, as long
+ * as they're among the most recent entities whose relationships were loaded through this loader, up to the number
+ * given on construction.  Entities that were saved but never loaded aren't known to this loader, so changes made to
+ * their relationship fields after they were saved are replaced if a load reaches them at the edge.
+ * </p>
+ * <p>
+ * The collections keep the {@link Session} through which their owners were loaded, so they must be accessed while it's
+ * still usable.  Saving an entity iterates its relationship fields, which loads any lazy collections still pending.
+ * Define a bean of this type in order to enable lazy loading on templates and repositories.
+ * </p>
+ */
+public class LazyRelationshipLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyRelationshipLoader.class);
+
+    private static final String RELATED_STATEMENT = "MATCH (n) WHERE id(n) IN {ids} MATCH p=%s RETURN p";
+
+    /**
+     * The default number of entities whose relationships are remembered to have been loaded.
+     */
+    public static final int DEFAULT_MAX_ENTITIES = 10000;
+
+    private final Neo4jMappingContext mappingContext;
+    private final MetaData metaData;
+    private final ConcurrentMap<Class<?>, EntityAssociations> associations = new ConcurrentHashMap<>();
+    private final ExpiringLruCache<Long, WeakReference<Object>> loadedEntities;
+
+    /**
+     * Constructs a new {@link LazyRelationshipLoader} that remembers up to {@link #DEFAULT_MAX_ENTITIES} entities whose
+     * relationships were loaded.
+     *
+     * @param mappingContext The {@link Neo4jMappingContext} that describes the persistent entities
+     */
+    public LazyRelationshipLoader(Neo4jMappingContext mappingContext) {
+        this(mappingContext, DEFAULT_MAX_ENTITIES);
+    }
+
+    /**
+     * Constructs a new {@link LazyRelationshipLoader}.
+     *
+     * @param mappingContext The {@link Neo4jMappingContext} that describes the persistent entities
+     * @param maxEntities The maximum number of entities whose relationships are remembered to have been loaded
+     */
+    public LazyRelationshipLoader(Neo4jMappingContext mappingContext, int maxEntities) {
+        Assert.notNull(mappingContext, "Cannot create a LazyRelationshipLoader without a Neo4jMappingContext!");
+        this.mappingContext = mappingContext;
+        this.metaData = mappingContext.getMetaData();
+        this.loadedEntities = new ExpiringLruCache<>(maxEntities, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Puts lazy collections in place of the relationship fields of the given entities that lie beyond the given depth.
+     *
+     * @param session The {@link Session} through which the entities were loaded
+     * @param entities An entity or an {@link Iterable} of entities, as loaded
+     * @param depth The depth to which the entities were loaded, or -1 for their whole graph, in which case no lazy
+     *        collections are needed
+     */
+    public void attach(Session session, Object entities, int depth) {
+        if (entities == null) {
+            return;
+        }
+        Map<LazyField, Batch> batches = new HashMap<>();
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Reachable> pending = new ArrayDeque<>();
+        enqueue(pending, entities, depth);
+        while (!pending.isEmpty()) {
+            Reachable next = pending.poll();
+            if (visited.put(next.entity, Boolean.TRUE) != null) {
+                continue;
+            }
+            EntityAssociations entityAssociations = associationsOf(next.entity.getClass());
+            if (next.depth != 0) {
+                if (!entityAssociations.lazyFields.isEmpty()) {
+                    rememberLoaded(session, next.entity);
+                }
+                for (Field field : entityAssociations.fields) {
+                    enqueue(pending, ReflectionUtils.getField(field, next.entity), next.depth - 1);
+                }
+            } else if (!entityAssociations.lazyFields.isEmpty()) {
+                attachLazyCollections(session, next.entity, entityAssociations.lazyFields, batches);
+            }
+        }
+        if (!batches.isEmpty()) {
+            logger.debug("Attached {} batches of lazy relationship collections", batches.size());
+        }
+    }
+
+    private void attachLazyCollections(Session session, Object entity, List<LazyField> lazyFields, Map<LazyField, Batch> batches) {
+        Long id = session.resolveGraphIdFor(entity);
+        if (id == null || wasLoaded(id, entity)) {
+            return;
+        }
+        for (LazyField lazyField : lazyFields) {
+            // any related entities already present were only reached from the other side, so may not be all of them
+            Object value = ReflectionUtils.getField(lazyField.field, entity);
+            if (value instanceof LazyRelationshipCollection) {
+                continue;
+            }
+            Batch batch = batches.get(lazyField);
+            if (batch == null) {
+                batch = new Batch(this, session, lazyField);
+                batches.put(lazyField, batch);
+            }
+            batch.owners.put(id, entity);
+            Object lazyCollection = lazyField.list ? new LazyRelationshipList<>(batch, id) : new LazyRelationshipSet<>(batch, id);
+            ReflectionUtils.setField(lazyField.field, entity, lazyCollection);
+        }
+    }
+
+    private void rememberLoaded(Session session, Object entity) {
+        Long id = session.resolveGraphIdFor(entity);
+        if (id != null) {
+            loadedEntities.put(id, new WeakReference<>(entity));
+        }
+    }
+
+    /*
+     * Whether this very instance was reached within a load before, so the OGM has loaded its relationships already.
+     */
+    private boolean wasLoaded(Long id, Object entity) {
+        WeakReference<Object> loaded = loadedEntities.get(id);
+        return loaded != null && loaded.get() == entity;
+    }
+
+    private static void enqueue(Deque<Reachable> pending, Object value, int depth) {
+        if (value == null || value instanceof LazyRelationshipCollection && !((LazyRelationshipCollection) value).isLoaded()) {
+            return;
+        }
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                enqueue(pending, element, depth);
+            }
+        } else if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                enqueue(pending, Array.get(value, i), depth);
+            }
+        } else {
+            pending.add(new Reachable(value, depth));
+        }
+    }
+
+    private EntityAssociations associationsOf(Class<?> type) {
+        EntityAssociations entityAssociations = associations.get(type);
+        if (entityAssociations == null) {
+            entityAssociations = resolveAssociations(type);
+            associations.putIfAbsent(type, entityAssociations);
+        }
+        return entityAssociations;
+    }
+
+    private EntityAssociations resolveAssociations(Class<?> type) {
+        final EntityAssociations entityAssociations = new EntityAssociations();
+        final ClassInfo classInfo = metaData.classInfo(type.getName());
+        if (classInfo == null || isRelationshipEntity(classInfo)) {
+            return entityAssociations;
+        }
+        Neo4jPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(type);
+        persistentEntity.doWithProperties(new PropertyHandler<Neo4jPersistentProperty>() {
+            @Override
+            public void doWithPersistentProperty(Neo4jPersistentProperty property) {
+                Field field = property.getField();
+                if (!property.isAssociation() || field == null) {
+                    return;
+                }
+                ReflectionUtils.makeAccessible(field);
+                entityAssociations.fields.add(field);
+                LazyField lazyField = lazyFieldOf(classInfo, property, field);
+                if (lazyField != null) {
+                    entityAssociations.lazyFields.add(lazyField);
+                }
+            }
+        });
+        return entityAssociations;
+    }
+
+    private LazyField lazyFieldOf(ClassInfo classInfo, Neo4jPersistentProperty property, Field field) {
+        boolean list = !field.getType().isAssignableFrom(LazyRelationshipSet.class);
+        if (list && !field.getType().isAssignableFrom(LazyRelationshipList.class)) {
+            return null;
+        }
+        Class<?> relatedType = property.getActualType();
+        ClassInfo relatedClassInfo = metaData.classInfo(relatedType.getName());
+        if (relatedClassInfo == null || isRelationshipEntity(relatedClassInfo)) {
+            return null;
+        }
+        FieldInfo fieldInfo = relationshipFieldOf(classInfo, field.getName());
+        if (fieldInfo == null) {
+            return null;
+        }
+        String relationshipType = fieldInfo.relationship();
+        String direction = fieldInfo.relationshipDirection(Relationship.OUTGOING);
+        String pattern;
+        if (Relationship.INCOMING.equals(direction)) {
+            pattern = "(n)<-[:`" + relationshipType + "`]-(m)";
+        } else if (Relationship.UNDIRECTED.equals(direction)) {
+            pattern = "(n)-[:`" + relationshipType + "`]-(m)";
+        } else {
+            pattern = "(n)-[:`" + relationshipType + "`]->(m)";
+        }
+        return new LazyField(field, relatedType, String.format(RELATED_STATEMENT, pattern), list);
+    }
+
+    private static FieldInfo relationshipFieldOf(ClassInfo classInfo, String name) {
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+            if (fieldInfo.getName().equals(name)) {
+                return fieldInfo;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isRelationshipEntity(ClassInfo classInfo) {
+        return classInfo.annotationsInfo().get(RelationshipEntity.class.getName()) != null;
+    }
+
+    /**
+     * The lazy collections put in place of one field of sibling entities by one load, which load together.
+     */
+    static final class Batch {
+
+        private final LazyRelationshipLoader loader;
+        private final Session session;
+        private final LazyField lazyField;
+        private final Map<Long, Object> owners = new HashMap<>();
+        private Map<Long, List<Object>> relatedByOwner;
+
+        Batch(LazyRelationshipLoader loader, Session session, LazyField lazyField) {
+            this.loader = loader;
+            this.session = session;
+            this.lazyField = lazyField;
+        }
+
+        synchronized List<Object> relatedTo(Long ownerId) {
+            if (relatedByOwner == null) {
+                relatedByOwner = load();
+            }
+            List<Object> related = relatedByOwner.get(ownerId);
+            return related != null ? related : Collections.emptyList();
+        }
+
+        private Map<Long, List<Object>> load() {
+            // the session maps the relationships onto the owners' fields, which mustn't hold the lazy collections meanwhile
+            Map<Long, Object> lazyCollections = new HashMap<>();
+            for (Map.Entry<Long, Object> owner : owners.entrySet()) {
+                lazyCollections.put(owner.getKey(), ReflectionUtils.getField(lazyField.field, owner.getValue()));
+                ReflectionUtils.setField(lazyField.field, owner.getValue(), lazyField.list ? new ArrayList<Object>() : new HashSet<Object>());
+            }
+
+            Map<Long, List<Object>> loaded = new HashMap<>();
+            Set<Object> related = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+            try {
+                session.query(lazyField.relatedType, lazyField.statement,
+                        Collections.singletonMap("ids", new ArrayList<>(owners.keySet())));
+            } finally {
+                for (Map.Entry<Long, Object> owner : owners.entrySet()) {
+                    Object mapped = ReflectionUtils.getField(lazyField.field, owner.getValue());
+                    if (mapped instanceof Collection) {
+                        loaded.put(owner.getKey(), new ArrayList<Object>((Collection<?>) mapped));
+                        related.addAll((Collection<?>) mapped);
+                    }
+                    ReflectionUtils.setField(lazyField.field, owner.getValue(), lazyCollections.get(owner.getKey()));
+                }
+            }
+            loader.attach(session, related, 0);
+            logger.debug("Loaded {} related entities of {} owners through {}", related.size(), owners.size(), lazyField.field);
+            return loaded;
+        }
+    }
+
+    static final class LazyField {
+
+        private final Field field;
+        private final Class<?> relatedType;
+        private final String statement;
+        private final boolean list;
+
+        LazyField(Field field, Class<?> relatedType, String statement, boolean list) {
+            this.field = field;
+            this.relatedType = relatedType;
+            this.statement = statement;
+            this.list = list;
+        }
+    }
+
+    private static class EntityAssociations {
+
+        private final List<Field> fields = new ArrayList<>();
+        private final List<LazyField> lazyFields = new ArrayList<>();
+    }
+
+    private static class Reachable {
+
+        private final Object entity;
+        private final int depth;
+
+        Reachable(Object entity, int depth) {
+            this.entity = entity;
+            this.depth = depth;
+        }
+    }
+
+}
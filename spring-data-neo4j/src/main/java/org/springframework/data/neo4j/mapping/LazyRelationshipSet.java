@@ -0,0 +1,79 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * {@link Set} of related entities that's loaded on first access, for relationship fields declared as a {@link Set} or
+ * a {@link Collection}.
+ */
+final class LazyRelationshipSet<E> extends AbstractSet<E> implements LazyRelationshipCollection {
+
+    private final LazyRelationshipLoader.Batch batch;
+    private final Long ownerId;
+    private Set<E> entities;
+
+    LazyRelationshipSet(LazyRelationshipLoader.Batch batch, Long ownerId) {
+        this.batch = batch;
+        this.ownerId = ownerId;
+    }
+
+    @Override
+    public synchronized boolean isLoaded() {
+        return entities != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Set<E> entities() {
+        if (entities == null) {
+            entities = new LinkedHashSet<>((Collection<E>) batch.relatedTo(ownerId));
+        }
+        return entities;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return entities().iterator();
+    }
+
+    @Override
+    public int size() {
+        return entities().size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return entities().contains(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return entities().add(e);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return entities().remove(o);
+    }
+
+    @Override
+    public void clear() {
+        entities().clear();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The build-time index of mapped entities and their labels written by the <code>spring-data-neo4j-index</code>
+ * annotation processor.
+ * <p>
+ * Using the index is opt-in: given one, {@link Neo4jMappingContext} registers the indexed entities instead of walking
+ * all of the OGM metadata, which is what {@link org.springframework.data.neo4j.config.Neo4jConfiguration} does when its
+ * <code>getMappingMetadataIndex()</code> is overridden to load it.  The OGM still scans the packages given to its
+ * <code>SessionFactory</code>, so passing it {@link #getPackageNames()} keeps that scan to the packages that actually
+ * contain entities:
+ * </p>
+ * <pre>
+ * new SessionFactory(MappingMetadataIndex.load(getClass().getClassLoader()).getPackageNames());
+ * </pre>
+ * <p>
+ * The index doesn't describe the fields of the entities, which are still mapped from the OGM metadata when each
+ * entity is registered.
+ * </p>
+ */
+public class MappingMetadataIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappingMetadataIndex.class);
+
+    /**
+     * The classpath location of the index, which may be present in several jars.
+     */
+    public static final String INDEX_LOCATION = "META-INF/spring-data-neo4j/mapping.index";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, IndexedEntity> entities = new LinkedHashMap<>();
+
+    private MappingMetadataIndex() {
+    }
+
+    /**
+     * Loads and merges every index found at {@link #INDEX_LOCATION} on the classpath.
+     *
+     * @param classLoader The {@link ClassLoader} through which to find the indexes
+     * @return The {@link MappingMetadataIndex}, which is empty if no index was found
+     */
+    public static MappingMetadataIndex load(ClassLoader classLoader) {
+        return load(classLoader, INDEX_LOCATION);
+    }
+
+    /**
+     * Loads and merges every index found at the given location on the classpath.
+     *
+     * @param classLoader The {@link ClassLoader} through which to find the indexes
+     * @param location The classpath location of the indexes
+     * @return The {@link MappingMetadataIndex}, which is empty if no index was found
+     */
+    public static MappingMetadataIndex load(ClassLoader classLoader, String location) {
+        MappingMetadataIndex index = new MappingMetadataIndex();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(location);
+            while (resources.hasMoreElements()) {
+                index.read(resources.nextElement());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read mapping metadata index from " + location, e);
+        }
+        if (!index.isEmpty()) {
+            logger.info("Loaded mapping metadata index of {} entities", index.entities.size());
+        }
+        return index;
+    }
+
+    private void read(URL resource) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), UTF_8));
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                if (!readRecord(columns)) {
+                    logger.warn("Ignoring malformed line in mapping metadata index {}: {}", resource, line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private boolean readRecord(String[] columns) {
+        if (columns.length != 4 || !columns[0].equals("entity")) {
+            return false;
+        }
+        entities.put(columns[1], new IndexedEntity(columns[1], "RELATIONSHIP".equals(columns[2]), columns[3]));
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if no entities are indexed, <code>false</code> otherwise
+     */
+    public boolean isEmpty() {
+        return entities.isEmpty();
+    }
+
+    /**
+     * @return The binary names of the indexed entity classes
+     */
+    public Set<String> getEntityClassNames() {
+        return Collections.unmodifiableSet(entities.keySet());
+    }
+
+    /**
+     * @return The names of the packages that contain indexed entity classes
+     */
+    public String[] getPackageNames() {
+        Set<String> packageNames = new TreeSet<>();
+        for (String className : entities.keySet()) {
+            packageNames.add(ClassUtils.getPackageName(className));
+        }
+        return packageNames.toArray(new String[packageNames.size()]);
+    }
+
+    /**
+     * @return All of the indexed entities
+     */
+    public Collection<IndexedEntity> getEntities() {
+        return Collections.unmodifiableCollection(entities.values());
+    }
+
+    /**
+     * @param className The binary name of an entity class
+     * @return The {@link IndexedEntity} describing the given class, or <code>null</code> if it isn't indexed
+     */
+    public IndexedEntity getEntity(String className) {
+        return entities.get(className);
+    }
+
+    /**
+     * The indexed description of an entity class.
+     */
+    public static class IndexedEntity {
+
+        private final String className;
+        private final boolean relationshipEntity;
+        private final String label;
+
+        IndexedEntity(String className, boolean relationshipEntity, String label) {
+            this.className = className;
+            this.relationshipEntity = relationshipEntity;
+            this.label = label;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public boolean isRelationshipEntity() {
+            return relationshipEntity;
+        }
+
+        /**
+         * @return The label of a node entity, or the relationship type of a relationship entity
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+}
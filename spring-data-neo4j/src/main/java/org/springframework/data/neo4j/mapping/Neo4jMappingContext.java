@@ -24,8 +24,14 @@ import org.springframework.data.util.TypeInformation;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
-
-import static java.util.Collections.singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class implements Spring Data's MappingContext interface, scavenging the required data from the OGM's metadata in order
@@ -33,6 +39,15 @@ import static java.util.Collections.singleton;
  *
  * The main thing to note is that this class is effectively a container shim for {@code ClassInfo} objects. We don't reload all
  * the mapping information again.
+ * <p>
+ * By default, the persistent entities are all registered up front on the calling thread.  Parallel registration is
+ * opt-in: given a parallelism greater than one, they're registered on a {@link ForkJoinPool} of their own, which is shut
+ * down once they're all registered, whether or not that succeeded.  In lazy mode,
+ * each {@link Neo4jPersistentEntity} is only built the first time it's requested through
+ * {@link #getPersistentEntity(Class)}, so {@link #getPersistentEntities()} only returns those requested so far.  The time
+ * taken to register each entity is logged at debug level.  Given a non-empty {@link MappingMetadataIndex}, only the
+ * indexed entities are registered up front.
+ * </p>
  *
  * @author Vince Bickers
  * @author Adam George
@@ -43,24 +58,121 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
     private static final Logger logger = LoggerFactory.getLogger(Neo4jMappingContext.class);
 
     private final MetaData metaData;
+    private final Neo4jSimpleTypeHolder simpleTypeHolder = new Neo4jSimpleTypeHolder();
 
     /**
-     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}.
+     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}, which
+     * are registered on the calling thread.
      *
      * @param metaData The OGM {@link MetaData} from which to extract the persistent entities
      */
     public Neo4jMappingContext(MetaData metaData) {
+        this(metaData, 1, false);
+    }
+
+    /**
+     * Constructs a new {@link Neo4jMappingContext} based on the persistent entities in the given {@link MetaData}.
+     *
+     * @param metaData The OGM {@link MetaData} from which to extract the persistent entities
+     * @param parallelism The number of threads on which to register the persistent entities, or 1 to register them on the
+     *        calling thread
+     * @param lazy <code>true</code> to only build each persistent entity the first time it's requested, in which case
+     *        the given parallelism is ignored, or <code>false</code> to register them all now
+     */
+    public Neo4jMappingContext(MetaData metaData, int parallelism, boolean lazy) {
+        this(metaData, null, parallelism, lazy);
+    }
+
+    /**
+     * Constructs a new {@link Neo4jMappingContext} that registers the entities described by the given build-time
+     * {@link MappingMetadataIndex} rather than every class known to the {@link MetaData}, if the index isn't empty.
+     *
+     * @param metaData The OGM {@link MetaData} from which to extract the persistent entities
+     * @param index The {@link MappingMetadataIndex} of the persistent entities, which may be <code>null</code>
+     * @param parallelism The number of threads on which to register the persistent entities, or 1 to register them on the
+     *        calling thread
+     * @param lazy <code>true</code> to only build each persistent entity the first time it's requested, in which case
+     *        the given parallelism is ignored, or <code>false</code> to register them all now
+     */
+    public Neo4jMappingContext(MetaData metaData, MappingMetadataIndex index, int parallelism, boolean lazy) {
         this.metaData = metaData;
+        setSimpleTypeHolder(simpleTypeHolder);
+
+        if (lazy) {
+            logger.info("Neo4jMappingContext initialisation completed, persistent entities will be registered on first use");
+            return;
+        }
 
+        Collection<String> classNames = index != null && !index.isEmpty() ? index.getEntityClassNames() : classNamesOf(metaData);
+        long start = System.nanoTime();
+        int threads = Math.max(1, Math.min(parallelism, classNames.size()));
+        registerPersistentEntities(classNames, threads);
+        logger.info("Neo4jMappingContext initialisation completed: registered {} persistent entities in {} ms on {} thread(s)",
+                classNames.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+    }
+
+    private static Collection<String> classNamesOf(MetaData metaData) {
+        List<String> classNames = new ArrayList<>();
         for (ClassInfo classInfo : metaData.persistentEntities()) {
-            try {
-                addPersistentEntity(Class.forName(classInfo.name()));
-            } catch (ClassNotFoundException e) {
-                logger.error("Failed to load class: " + classInfo.name() + " named in ClassInfo due to exception", e);
+            classNames.add(classInfo.name());
+        }
+        return classNames;
+    }
+
+    private void registerPersistentEntities(Collection<String> classNames, int threads) {
+        if (threads == 1) {
+            for (String className : classNames) {
+                registerPersistentEntity(className);
             }
+            return;
         }
 
-        logger.info("Neo4jMappingContext initialisation completed");
+        // AbstractMappingContext serialises the building of entities, so this chiefly overlaps the loading of their classes
+        List<Callable<Void>> registrations = new ArrayList<>(classNames.size());
+        for (final String className : classNames) {
+            registrations.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    registerPersistentEntity(className);
+                    return null;
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<Void> registration : pool.invokeAll(registrations)) {
+                registration.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while registering persistent entities", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to register persistent entities", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void registerPersistentEntity(String className) {
+        long start = System.nanoTime();
+        try {
+            addPersistentEntity(Class.forName(className));
+            logger.debug("Registered persistent entity {} in {} microseconds", className,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        } catch (ClassNotFoundException e) {
+            logger.error("Failed to load class: " + className + " named in ClassInfo due to exception", e);
+        }
+    }
+
+    /**
+     * @return The OGM {@link MetaData} from which the persistent entities were extracted
+     */
+    public MetaData getMetaData() {
+        return metaData;
     }
 
     @Override
@@ -102,11 +214,9 @@ public class Neo4jMappingContext extends AbstractMappingContext<Neo4jPersistentE
         final Class<?> fieldType = field.getType().isArray() ? field.getType().getComponentType() : field.getType();
 
         if (shouldUpdateSimpleTypes(currentSimpleTypeHolder, field, fieldType)) {
-            SimpleTypeHolder updatedSimpleTypeHolder = new SimpleTypeHolder(singleton(fieldType), currentSimpleTypeHolder);
-            setSimpleTypeHolder(updatedSimpleTypeHolder);
-            return updatedSimpleTypeHolder;
+            simpleTypeHolder.addSimpleType(fieldType);
         }
-        return currentSimpleTypeHolder;
+        return simpleTypeHolder;
     }
 
     private boolean shouldUpdateSimpleTypes(SimpleTypeHolder currentSimpleTypeHolder, Field field, Class<?> rawFieldType) {
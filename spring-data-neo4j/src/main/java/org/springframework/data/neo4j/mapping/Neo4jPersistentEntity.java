@@ -12,9 +12,6 @@
  */
 package org.springframework.data.neo4j.mapping;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.mapping.model.BasicPersistentEntity;
 import org.springframework.data.util.TypeInformation;
 
@@ -31,10 +28,13 @@ import org.springframework.data.util.TypeInformation;
  *   <li>typeAlias</li>
  *   <li>typeInformation</li>
  *   <li>preferredConstructor (we always use the default constructor)</li>
- *   <li>versionProperty</li>
  * </ul>
  * Consequently their associated getter methods always return default values of null or [true|false] However, because these
  * method calls are not expected, we also log a warning message if they get invoked
+ * <p>
+ * The version property is the one annotated with Spring Data's {@link org.springframework.data.annotation.Version},
+ * which is used for optimistic locking by {@link OptimisticLocking}.
+ * </p>
  *
  * @author Vince Bickers
  * @author Adam George
@@ -42,8 +42,6 @@ import org.springframework.data.util.TypeInformation;
  */
 public class Neo4jPersistentEntity<T> extends BasicPersistentEntity<T, Neo4jPersistentProperty> {
 
-    private static final Logger logger = LoggerFactory.getLogger(Neo4jPersistentEntity.class);
-
     /**
      * Constructs a new {@link Neo4jPersistentEntity} based on the given type information.
      *
@@ -53,22 +51,4 @@ public class Neo4jPersistentEntity<T> extends BasicPersistentEntity<T, Neo4jPers
         super(information);
     }
 
-    @Override
-    public boolean hasVersionProperty() {
-        logger.debug("[entity].hasVersionProperty() returns false"); // by design
-        return false;
-    }
-
-    @Override
-    public Neo4jPersistentProperty getVersionProperty() {
-        logger.debug("[entity].getVersionProperty() returns null"); // by design
-        return null;
-    }
-
-    @Override
-    public boolean isVersionProperty(PersistentProperty<?> property) {
-        logger.debug("[entity].isIdProperty({}) returns false", property); // again, by design
-        return false;
-    }
-
 }
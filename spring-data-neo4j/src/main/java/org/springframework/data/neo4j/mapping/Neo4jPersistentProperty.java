@@ -40,7 +40,6 @@ import java.lang.reflect.Field;
  * <ul>
  *   <li>mapValueType</li>
  *   <li>typeInformation</li>
- *   <li>isVersionProperty (there is no SDN versioning at this stage)</li>
  *   <li>isTransient (we never supply transient classes to the Spring mapping context)</li>
  *   <li>isWritable (we don't currently support read-only fields)</li>
  * </ul>
@@ -98,12 +97,6 @@ public class Neo4jPersistentProperty extends AnnotationBasedPersistentProperty<N
         return this.isIdProperty;
     }
 
-    @Override
-    public boolean isVersionProperty() {
-        logger.debug("[property].isVersionProperty() returns false"); // by design
-        return false;
-    }
-
     /**
      * Overridden to force field access as opposed to getter method access for simplicity.
      *
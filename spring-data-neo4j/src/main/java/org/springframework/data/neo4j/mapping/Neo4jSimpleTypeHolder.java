@@ -0,0 +1,75 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link SimpleTypeHolder} that holds all the custom simple types of a {@link Neo4jMappingContext} in one flat set and
+ * remembers each decision it makes in a concurrent cache, so a type is only ever resolved once.
+ * <p>
+ * Spring Data's own holder is immutable, which means registering each custom type builds a new holder containing a copy
+ * of every type registered before it, and its lookups scan those types one by one.
+ * </p>
+ */
+class Neo4jSimpleTypeHolder extends SimpleTypeHolder {
+
+    private final Set<Class<?>> customSimpleTypes = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    private volatile ConcurrentMap<Class<?>, Boolean> decisions = new ConcurrentHashMap<>();
+
+    Neo4jSimpleTypeHolder() {
+        super(Collections.<Class<?>>emptySet(), true);
+    }
+
+    /**
+     * Registers the given type as simple, along with its subtypes.
+     *
+     * @param type The type to register
+     */
+    void addSimpleType(Class<?> type) {
+        if (customSimpleTypes.add(type)) {
+            // a subtype may already have been found not to be simple, and decisions in flight must not be kept
+            decisions = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public boolean isSimpleType(Class<?> type) {
+        ConcurrentMap<Class<?>, Boolean> currentDecisions = decisions;
+        Boolean decision = currentDecisions.get(type);
+        if (decision == null) {
+            decision = isCustomSimpleType(type) || super.isSimpleType(type);
+            currentDecisions.putIfAbsent(type, decision);
+        }
+        return decision;
+    }
+
+    private boolean isCustomSimpleType(Class<?> type) {
+        if (customSimpleTypes.contains(type)) {
+            return true;
+        }
+        for (Class<?> customSimpleType : customSimpleTypes) {
+            if (customSimpleType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.model.Result;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.transaction.Transaction;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Optimistic locking of entities that declare a version property annotated with Spring Data's
+ * {@link org.springframework.data.annotation.Version}, as exposed by the {@link Neo4jMappingContext}.
+ * <p>
+ * Before an existing entity is saved or deleted, a single Cypher statement checks that the version of its node still
+ * matches the version held by the entity, which also locks the node until the end of the transaction.  If another
+ * transaction has changed or deleted the node in the meantime then no node matches and an
+ * {@link OptimisticLockingFailureException} is thrown, so concurrent updates are guarded without reloading the entity
+ * first.  Relationship entities are checked and locked in the same way through their relationship.  Only the entities
+ * passed to save or delete are checked, not the related entities that a save may reach.
+ * </p>
+ * <p>
+ * The check and the write it guards run in the same transaction: the current one if the session has one, or else one
+ * that's opened by the check and committed by {@link VersionCheck#completed()}.  The entity's version is only
+ * incremented right before it's written, through {@link VersionCheck#incrementVersion()}, so that the write carries
+ * the new version, and it's restored if the write fails or the transaction doesn't commit.
+ * </p>
+ */
+public class OptimisticLocking {
+
+    private static final String CHECK_AND_LOCK_VERSION = "MATCH %1$s WHERE id(n) = {id} AND coalesce(n.`%2$s`, 0) = {version} "
+            + "SET n.`%2$s` = {version} RETURN count(n) AS matched";
+    private static final String NODE_PATTERN = "(n)";
+    private static final String RELATIONSHIP_PATTERN = "()-[n]->()";
+
+    private final Neo4jMappingContext mappingContext;
+    private final MetaData metaData;
+
+    /**
+     * Constructs a new {@link OptimisticLocking} for the entities described by the given {@link Neo4jMappingContext}.
+     *
+     * @param mappingContext The {@link Neo4jMappingContext} from which to resolve the version properties of entities
+     */
+    public OptimisticLocking(Neo4jMappingContext mappingContext) {
+        Assert.notNull(mappingContext, "Cannot create OptimisticLocking without a Neo4jMappingContext!");
+        this.mappingContext = mappingContext;
+        this.metaData = mappingContext.getMetaData();
+    }
+
+    /**
+     * Checks the version of an entity that's about to be saved.
+     *
+     * @param session The OGM {@link Session} through which the entity is saved
+     * @param entity The entity to save
+     * @return The {@link VersionCheck} through which to increment the version of the entity and to report the outcome of
+     *         the save
+     * @throws OptimisticLockingFailureException if the node has been changed or deleted by another transaction
+     */
+    public VersionCheck beforeSave(Session session, Object entity) {
+        return check(session, entity);
+    }
+
+    /**
+     * Checks the version of an entity that's about to be deleted.
+     *
+     * @param session The OGM {@link Session} through which the entity is deleted
+     * @param entity The entity to delete
+     * @return The {@link VersionCheck} through which to report the outcome of the delete
+     * @throws OptimisticLockingFailureException if the node has been changed or deleted by another transaction
+     */
+    public VersionCheck beforeDelete(Session session, Object entity) {
+        return check(session, entity);
+    }
+
+    private VersionCheck check(Session session, Object entity) {
+        Neo4jPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entity.getClass());
+        Neo4jPersistentProperty versionProperty = persistentEntity != null ? persistentEntity.getVersionProperty() : null;
+        if (versionProperty == null) {
+            return VersionCheck.NONE;
+        }
+        Class<?> versionType = versionProperty.getType();
+        if (versionType != Long.class && versionType != long.class && versionType != Integer.class && versionType != int.class) {
+            throw new MappingException("Version property " + versionProperty.getName() + " of " + entity.getClass().getName()
+                    + " must be a long or an int");
+        }
+
+        PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(entity);
+        Number version = (Number) accessor.getProperty(versionProperty);
+        Long id = session.resolveGraphIdFor(entity);
+        Transaction transaction = session.getTransaction() == null ? session.beginTransaction() : null;
+        VersionCheck versionCheck = new VersionCheck(accessor, versionProperty, version, id != null, transaction);
+        try {
+            if (id != null) {
+                ClassInfo classInfo = metaData.classInfo(entity.getClass().getName());
+                String statement = String.format(CHECK_AND_LOCK_VERSION,
+                        classInfo != null && isRelationshipEntity(classInfo) ? RELATIONSHIP_PATTERN : NODE_PATTERN,
+                        propertyNameOf(classInfo, versionProperty));
+                checkAndLock(session, entity, statement, id, version != null ? version.longValue() : 0L);
+            }
+        } catch (RuntimeException e) {
+            versionCheck.failed();
+            throw e;
+        }
+        if (transaction == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            restoreOnRollback(entity, versionCheck);
+        }
+        return versionCheck;
+    }
+
+    /*
+     * A version written within a transaction that doesn't commit never reached the database, so the entity gets back the
+     * version it held when it was first checked in that transaction.
+     */
+    private void restoreOnRollback(Object entity, VersionCheck versionCheck) {
+        RestoreOnRollback restoreOnRollback = (RestoreOnRollback) TransactionSynchronizationManager.getResource(this);
+        if (restoreOnRollback == null) {
+            restoreOnRollback = new RestoreOnRollback();
+            TransactionSynchronizationManager.bindResource(this, restoreOnRollback);
+            TransactionSynchronizationManager.registerSynchronization(restoreOnRollback);
+        }
+        if (!restoreOnRollback.firstChecks.containsKey(entity)) {
+            restoreOnRollback.firstChecks.put(entity, versionCheck);
+        }
+    }
+
+    private static String propertyNameOf(ClassInfo classInfo, Neo4jPersistentProperty versionProperty) {
+        FieldInfo fieldInfo = classInfo != null ? classInfo.propertyFieldByName(versionProperty.getName()) : null;
+        return fieldInfo != null ? fieldInfo.property() : versionProperty.getName();
+    }
+
+    private static boolean isRelationshipEntity(ClassInfo classInfo) {
+        return classInfo.annotationsInfo().get(RelationshipEntity.class.getName()) != null;
+    }
+
+    private static void checkAndLock(Session session, Object entity, String statement, Long id, long version) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        parameters.put("version", version);
+        Result result = session.query(statement, parameters, false);
+
+        Iterator<Map<String, Object>> rows = result.queryResults().iterator();
+        Object matched = rows.hasNext() ? rows.next().get("matched") : null;
+        if (!(matched instanceof Number) || ((Number) matched).longValue() == 0) {
+            throw new OptimisticLockingFailureException(String.format("%s with ID %d and version %d has been changed or deleted "
+                    + "by another transaction", entity.getClass().getName(), id, version));
+        }
+    }
+
+    /**
+     * The outcome of checking the version of an entity, which guards the write that follows it.  Exactly one of
+     * {@link #completed()} or {@link #failed()} must be called once the write has been attempted.
+     */
+    public static class VersionCheck {
+
+        /**
+         * The check of an entity that isn't versioned, or of any entity when there's no {@link OptimisticLocking}.
+         */
+        public static final VersionCheck NONE = new VersionCheck(null, null, null, false, null);
+
+        private final PersistentPropertyAccessor accessor;
+        private final Neo4jPersistentProperty versionProperty;
+        private final Number checkedVersion;
+        private final boolean persisted;
+        private Transaction transaction;
+
+        VersionCheck(PersistentPropertyAccessor accessor, Neo4jPersistentProperty versionProperty, Number checkedVersion,
+                boolean persisted, Transaction transaction) {
+            this.accessor = accessor;
+            this.versionProperty = versionProperty;
+            this.checkedVersion = checkedVersion;
+            this.persisted = persisted;
+            this.transaction = transaction;
+        }
+
+        /**
+         * Sets the version that the entity is about to be written with, which initialises the version of a new entity.
+         *
+         * @return <code>true</code> if the entity is versioned, <code>false</code> if nothing was changed
+         */
+        public boolean incrementVersion() {
+            if (versionProperty == null) {
+                return false;
+            }
+            long current = checkedVersion != null ? checkedVersion.longValue() : 0L;
+            setVersion(persisted ? current + 1 : current);
+            return true;
+        }
+
+        /**
+         * Reports that the write succeeded, committing the transaction opened by the check if there is one.
+         */
+        public void completed() {
+            Transaction opened = transaction;
+            transaction = null;
+            if (opened != null) {
+                opened.commit();
+            }
+        }
+
+        /**
+         * Reports that the write failed, restoring the version of the entity and rolling back the transaction opened by
+         * the check if there is one.
+         */
+        public void failed() {
+            restoreVersion();
+            Transaction opened = transaction;
+            transaction = null;
+            if (opened != null) {
+                opened.rollback();
+            }
+        }
+
+        /**
+         * Reports the outcome of a write guarded by several checks, in the reverse order of the checks so that the
+         * transaction opened by the first of them is completed last.
+         *
+         * @param versionChecks The checks in the order in which they were made
+         * @param succeeded <code>true</code> if the write succeeded, <code>false</code> if it failed
+         */
+        public static void completeAll(List<VersionCheck> versionChecks, boolean succeeded) {
+            for (ListIterator<VersionCheck> checks = versionChecks.listIterator(versionChecks.size()); checks.hasPrevious(); ) {
+                VersionCheck versionCheck = checks.previous();
+                if (succeeded) {
+                    versionCheck.completed();
+                } else {
+                    versionCheck.failed();
+                }
+            }
+        }
+
+        void restoreVersion() {
+            if (versionProperty != null) {
+                accessor.setProperty(versionProperty, checkedVersion);
+            }
+        }
+
+        private void setVersion(long version) {
+            Class<?> versionType = versionProperty.getType();
+            accessor.setProperty(versionProperty, versionType == Long.class || versionType == long.class
+                    ? (Object) version : (Object) (int) version);
+        }
+    }
+
+    private class RestoreOnRollback extends TransactionSynchronizationAdapter {
+
+        private final Map<Object, VersionCheck> firstChecks = new IdentityHashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OptimisticLocking.this);
+            if (status != STATUS_COMMITTED) {
+                for (VersionCheck versionCheck : firstChecks.values()) {
+                    versionCheck.restoreVersion();
+                }
+            }
+        }
+    }
+
+}
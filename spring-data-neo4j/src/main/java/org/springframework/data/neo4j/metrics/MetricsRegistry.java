@@ -0,0 +1,41 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * Receives a measurement of every instrumented repository method and template operation, so that it can be aggregated
+ * or published to a monitoring system.  Define a bean of this type in order to instrument the repositories and, through a
+ * {@link Neo4jOperationsMetricsInterceptor}, the template.
+ * <p>
+ * Implementations are called on the thread that performed the operation and must therefore be thread-safe and cheap.
+ * </p>
+ *
+ * @see SimpleMetricsRegistry
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Records the outcome of an operation.
+     *
+     * @param operation The name of the operation, such as <code>Neo4jOperations.load</code> or
+     *        <code>UserRepository.findByName(String)</code>
+     * @param entityType The entity type on which the operation acted, or <code>null</code> if it isn't known
+     * @param elapsedNanos The time taken by the operation, in nanoseconds
+     * @param rows The number of entities or result rows returned by the operation, where they could be counted without
+     *        consuming the result
+     * @param error The exception thrown by the operation, or <code>null</code> if it succeeded
+     */
+    void record(String operation, Class<?> entityType, long elapsedNanos, int rows, Throwable error);
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.neo4j.template.Neo4jOperationsInterceptor;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Neo4jOperationsInterceptor} that records every template operation with a {@link MetricsRegistry} under the name
+ * <code>Neo4jOperations.operation</code>, tagged with the entity type where it's known.  Queries that don't name an
+ * entity type are recorded without one.
+ * <p>
+ * The {@link org.springframework.data.neo4j.template.Neo4jOperationsPostProcessor} applies it to the templates of an
+ * application context that defines a {@link MetricsRegistry}.
+ * </p>
+ */
+public class Neo4jOperationsMetricsInterceptor extends Neo4jOperationsInterceptor {
+
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Constructs a new {@link Neo4jOperationsMetricsInterceptor}.
+     *
+     * @param metricsRegistry The {@link MetricsRegistry} with which to record the operations
+     */
+    public Neo4jOperationsMetricsInterceptor(MetricsRegistry metricsRegistry) {
+        Assert.notNull(metricsRegistry, "Cannot create a Neo4jOperationsMetricsInterceptor without a MetricsRegistry!");
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected Object invoke(MethodInvocation invocation, String operation, Class<?> entityType, String statement)
+            throws Throwable {
+        OperationSample sample = new OperationSample(metricsRegistry, operation, entityType);
+        try {
+            return sample.succeeded(proceed(invocation));
+        } catch (Throwable e) {
+            throw sample.failed(e);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.springframework.data.neo4j.util.ResultRows;
+
+/**
+ * Times one execution of an operation and reports it to a {@link MetricsRegistry} on completion.
+ */
+final class OperationSample {
+
+    private final MetricsRegistry registry;
+    private final String operation;
+    private final Class<?> entityType;
+    private final long start = System.nanoTime();
+
+    OperationSample(MetricsRegistry registry, String operation, Class<?> entityType) {
+        this.registry = registry;
+        this.operation = operation;
+        this.entityType = entityType;
+    }
+
+    <R> R succeeded(R result) {
+        registry.record(operation, entityType, System.nanoTime() - start, ResultRows.count(result), null);
+        return result;
+    }
+
+    <E extends Throwable> E failed(E error) {
+        registry.record(operation, entityType, System.nanoTime() - start, 0, error);
+        return error;
+    }
+
+}
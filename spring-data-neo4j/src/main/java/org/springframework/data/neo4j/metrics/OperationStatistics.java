@@ -0,0 +1,202 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The statistics aggregated by a {@link SimpleMetricsRegistry} for one operation on one entity type.
+ * <p>
+ * Latencies are counted in a histogram of {@value #BUCKETS} buckets whose upper bounds double from 1 microsecond, the
+ * last bucket counting everything slower, so percentiles are reported as the upper bound of the bucket in which they
+ * fall.  All counters are updated without locking, so a snapshot taken while operations are recorded may be slightly
+ * inconsistent.
+ * </p>
+ */
+public class OperationStatistics {
+
+    /**
+     * The number of buckets in the latency histogram.
+     */
+    public static final int BUCKETS = 28;
+
+    private final String operation;
+    private final Class<?> entityType;
+    private final long startNanos;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong rowCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    OperationStatistics(String operation, Class<?> entityType, long startNanos) {
+        this.operation = operation;
+        this.entityType = entityType;
+        this.startNanos = startNanos;
+    }
+
+    void record(long elapsedNanos, int rows, boolean failed) {
+        count.incrementAndGet();
+        if (failed) {
+            errorCount.incrementAndGet();
+        }
+        rowCount.addAndGet(rows);
+        totalNanos.addAndGet(elapsedNanos);
+        histogram.incrementAndGet(bucketOf(elapsedNanos));
+
+        long max = maxNanos.get();
+        while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    static int bucketOf(long elapsedNanos) {
+        long micros = (elapsedNanos + 999) / 1000;
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+    }
+
+    /**
+     * @param bucket The index of a bucket in the latency histogram
+     * @param unit The {@link TimeUnit} in which to express the bound
+     * @return The upper bound of the latencies counted in the given bucket, or {@link Long#MAX_VALUE} for the last one
+     */
+    public static long getBucketUpperBound(int bucket, TimeUnit unit) {
+        if (bucket >= BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(1L << bucket, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @return The name of the operation
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return The entity type on which the operation acted, or <code>null</code> if it isn't known
+     */
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * @return The number of times the operation was performed, whether or not it succeeded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The number of times the operation threw an exception
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return The total number of entities or result rows returned by the operation
+     */
+    public long getRowCount() {
+        return rowCount.get();
+    }
+
+    /**
+     * @param unit The {@link TimeUnit} in which to express the time
+     * @return The total time spent performing the operation
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit The {@link TimeUnit} in which to express the time
+     * @return The mean time taken by the operation, or 0 if it hasn't been performed
+     */
+    public long getMeanTime(TimeUnit unit) {
+        long n = count.get();
+        return n == 0 ? 0 : unit.convert(totalNanos.get() / n, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit The {@link TimeUnit} in which to express the time
+     * @return The longest time taken by the operation
+     */
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param percentile The percentile to estimate, between 0 and 100
+     * @param unit The {@link TimeUnit} in which to express the time
+     * @return The upper bound of the histogram bucket in which the given percentile of latencies falls, which is never
+     *         more than the longest time taken, or 0 if the operation hasn't been performed
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank && counts[bucket] > 0) {
+                return Math.min(getBucketUpperBound(bucket, unit), getMaxTime(unit));
+            }
+        }
+        return getMaxTime(unit);
+    }
+
+    /**
+     * @return A copy of the number of operations counted in each bucket of the latency histogram
+     * @see #getBucketUpperBound(int, TimeUnit)
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = histogram.get(bucket);
+        }
+        return counts;
+    }
+
+    /**
+     * @return The mean number of operations performed per second since they were first recorded
+     */
+    public double getThroughput() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return elapsedNanos <= 0 ? 0 : count.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]: count=%d, errors=%d, rows=%d, mean=%dus, p99=%dus, max=%dus",
+                operation, entityType != null ? entityType.getSimpleName() : "-", getCount(), getErrorCount(),
+                getRowCount(), getMeanTime(TimeUnit.MICROSECONDS), getPercentile(99, TimeUnit.MICROSECONDS),
+                getMaxTime(TimeUnit.MICROSECONDS));
+    }
+
+}
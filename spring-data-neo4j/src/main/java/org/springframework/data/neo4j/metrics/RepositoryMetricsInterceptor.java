@@ -0,0 +1,85 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MethodInterceptor} applied to repository proxies, which records every repository method invocation with a
+ * {@link MetricsRegistry} under the name <code>RepositoryInterface.method(ParameterTypes)</code> and the repository's
+ * domain type, such as <code>UserRepository.save(User)</code>.  Finder methods, whether annotated with
+ * <code>&#064;Query</code> or derived, are therefore tagged with their own names, and overloads are recorded apart.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final MetricsRegistry metricsRegistry;
+    private final String repositoryName;
+    private final Class<?> domainType;
+    private final Class<?> repositoryInterface;
+    private final ConcurrentMap<Method, String> operations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link RepositoryMetricsInterceptor}.
+     *
+     * @param metricsRegistry The {@link MetricsRegistry} with which to record the invocations
+     * @param repositoryInterface The repository interface whose methods are intercepted
+     * @param domainType The domain type managed by the repository
+     */
+    public RepositoryMetricsInterceptor(MetricsRegistry metricsRegistry, Class<?> repositoryInterface, Class<?> domainType) {
+        Assert.notNull(metricsRegistry, "Cannot create a RepositoryMetricsInterceptor without a MetricsRegistry!");
+        this.metricsRegistry = metricsRegistry;
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.domainType = domainType;
+        this.repositoryInterface = repositoryInterface;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        String operation = operationOf(invocation.getMethod());
+        OperationSample sample = new OperationSample(metricsRegistry, operation, domainType);
+        try {
+            return sample.succeeded(invocation.proceed());
+        } catch (Throwable e) {
+            throw sample.failed(e);
+        }
+    }
+
+    private String operationOf(Method method) {
+        String operation = operations.get(method);
+        if (operation == null) {
+            StringBuilder builder = new StringBuilder(repositoryName).append('.').append(method.getName()).append('(');
+            for (int i = 0; i < method.getParameterTypes().length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                // resolved against the repository interface, so that the entity parameters of CrudRepository name the domain type
+                builder.append(ResolvableType.forMethodParameter(method, i, repositoryInterface).resolve(Object.class).getSimpleName());
+            }
+            operation = builder.append(')').toString();
+            operations.putIfAbsent(method, operation);
+        }
+        return operation;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MetricsRegistry} that aggregates the measurements in memory as {@link OperationStatistics}, one per operation
+ * and entity type, which can be read by a monitoring endpoint or exported periodically to another metrics library.
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+    private final ConcurrentMap<OperationKey, OperationStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String operation, Class<?> entityType, long elapsedNanos, int rows, Throwable error) {
+        OperationKey key = new OperationKey(operation, entityType);
+        OperationStatistics operationStatistics = statistics.get(key);
+        if (operationStatistics == null) {
+            OperationStatistics newStatistics = new OperationStatistics(operation, entityType, System.nanoTime() - elapsedNanos);
+            operationStatistics = statistics.putIfAbsent(key, newStatistics);
+            if (operationStatistics == null) {
+                operationStatistics = newStatistics;
+            }
+        }
+        operationStatistics.record(elapsedNanos, rows, error != null);
+    }
+
+    /**
+     * @return The {@link OperationStatistics} of every operation recorded since this registry was created or last reset
+     */
+    public Collection<OperationStatistics> getStatistics() {
+        return new ArrayList<>(statistics.values());
+    }
+
+    /**
+     * @param operation The name of the operation
+     * @param entityType The entity type on which the operation acted, which may be <code>null</code>
+     * @return The {@link OperationStatistics} of the given operation, or <code>null</code> if it hasn't been recorded
+     */
+    public OperationStatistics getStatistics(String operation, Class<?> entityType) {
+        return statistics.get(new OperationKey(operation, entityType));
+    }
+
+    /**
+     * Discards all the statistics recorded so far.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    private static final class OperationKey {
+
+        private final String operation;
+        private final Class<?> entityType;
+
+        OperationKey(String operation, Class<?> entityType) {
+            this.operation = operation;
+            this.entityType = entityType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OperationKey)) {
+                return false;
+            }
+            OperationKey other = (OperationKey) o;
+            return operation.equals(other.operation)
+                    && (entityType == null ? other.entityType == null : entityType.equals(other.entityType));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * operation.hashCode() + (entityType != null ? entityType.hashCode() : 0);
+        }
+    }
+
+}
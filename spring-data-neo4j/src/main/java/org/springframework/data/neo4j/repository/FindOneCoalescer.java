@@ -0,0 +1,266 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls to {@link GraphRepositoryImpl#findOne(Long)} for the same entity type into a single
+ * <code>loadAll</code> by ID, in the manner of a data loader.
+ * <p>
+ * The first caller opens a batch and waits for up to the configured window, or until the batch reaches its maximum
+ * size, while callers on other threads add their IDs to it; it then loads all the entities in one round-trip and hands
+ * each caller its own.  A caller that finds nothing waiting therefore pays the window in latency, which is why this is
+ * opt-in: define a bean of this type in order to enable it on all repositories.  Calls made within a transaction aren't
+ * coalesced, since the entities would otherwise be read in another caller's transaction.
+ * </p>
+ * <p>
+ * Batches are keyed on the session that's actually behind the one given, so that callers sharing a scoped or otherwise
+ * proxied session are only coalesced with those that resolve it to the same target.  If the target can't be resolved,
+ * the call isn't coalesced.
+ * </p>
+ */
+public class FindOneCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FindOneCoalescer.class);
+
+    /**
+     * The time in microseconds for which the first caller waits for others to join its batch by default.
+     */
+    public static final long DEFAULT_WINDOW_MICROS = 1000;
+
+    /**
+     * The maximum number of IDs loaded in one batch by default.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ConcurrentMap<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+    private final AtomicLong batchesLoaded = new AtomicLong();
+
+    /**
+     * Constructs a new {@link FindOneCoalescer} with the default window and maximum batch size.
+     */
+    public FindOneCoalescer() {
+        this(DEFAULT_WINDOW_MICROS, TimeUnit.MICROSECONDS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new {@link FindOneCoalescer}.
+     *
+     * @param window The time for which the first caller waits for others to join its batch
+     * @param unit The {@link TimeUnit} of the given window
+     * @param maxBatchSize The number of IDs at which a batch is loaded without waiting for the rest of the window
+     */
+    public FindOneCoalescer(long window, TimeUnit unit, int maxBatchSize) {
+        Assert.isTrue(window >= 0, "The coalescing window cannot be negative");
+        Assert.isTrue(maxBatchSize > 0, "The maximum batch size must be at least 1");
+        this.windowNanos = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Loads an entity by ID, together with those requested concurrently by other callers.
+     *
+     * @param session The {@link Session} through which to load the entities
+     * @param type The type of the entity
+     * @param id The ID of the entity
+     * @param depth The depth to which to load the entity
+     * @return The entity, or <code>null</code> if there is none of the given type with the given ID
+     */
+    public <T> T findOne(Session session, Class<T> type, Long id, int depth) {
+        Session target = id != null && !TransactionSynchronizationManager.isActualTransactionActive() ? targetOf(session) : null;
+        if (target == null) {
+            return session.load(type, id, depth);
+        }
+
+        BatchKey key = new BatchKey(target, type, depth);
+        while (true) {
+            Batch batch = openBatches.get(key);
+            if (batch == null) {
+                Batch newBatch = new Batch(id);
+                batch = openBatches.putIfAbsent(key, newBatch);
+                if (batch == null) {
+                    lead(key, newBatch, target, type, depth);
+                    return type.cast(newBatch.await(id));
+                }
+            }
+            if (batch.join(id, maxBatchSize)) {
+                return type.cast(batch.await(id));
+            }
+            // the batch closed before the ID could join it, so another one is opened
+            openBatches.remove(key, batch);
+        }
+    }
+
+    /**
+     * @return The number of batches loaded so far
+     */
+    public long getBatchesLoaded() {
+        return batchesLoaded.get();
+    }
+
+    private static Session targetOf(Session session) {
+        Object target = session;
+        try {
+            while (true) {
+                if (target instanceof ScopedObject) {
+                    target = ((ScopedObject) target).getTargetObject();
+                } else if (target instanceof Advised && ((Advised) target).getTargetSource().isStatic()) {
+                    target = ((Advised) target).getTargetSource().getTarget();
+                } else {
+                    // other dynamic targets, such as pooled ones, would have to be released again
+                    return target instanceof Session && !(target instanceof Advised) ? (Session) target : null;
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Not coalescing a lookup through a session whose target can't be resolved", e);
+            return null;
+        }
+    }
+
+    private void lead(BatchKey key, Batch batch, Session session, Class<?> type, int depth) {
+        Set<Long> ids = batch.close(windowNanos, maxBatchSize);
+        openBatches.remove(key, batch);
+        try {
+            Map<Long, Object> entitiesById = new HashMap<>();
+            for (Object entity : session.loadAll(type, new ArrayList<>(ids), depth)) {
+                entitiesById.put(session.resolveGraphIdFor(entity), entity);
+            }
+            batchesLoaded.incrementAndGet();
+            logger.debug("Loaded {} entities of type {} in one batch of {} IDs", entitiesById.size(), type.getName(), ids.size());
+            batch.complete(entitiesById, null);
+        } catch (RuntimeException e) {
+            batch.complete(null, e);
+            throw e;
+        }
+    }
+
+    private static class Batch {
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private boolean closed;
+        private boolean done;
+        private Map<Long, Object> entitiesById;
+        private RuntimeException failure;
+
+        Batch(Long id) {
+            ids.add(id);
+        }
+
+        synchronized boolean join(Long id, int maxBatchSize) {
+            if (closed) {
+                return false;
+            }
+            ids.add(id);
+            if (ids.size() >= maxBatchSize) {
+                closed = true;
+                notifyAll();
+            }
+            return true;
+        }
+
+        synchronized Set<Long> close(long windowNanos, int maxBatchSize) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (!closed && ids.size() < maxBatchSize && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            closed = true;
+            return new LinkedHashSet<>(ids);
+        }
+
+        synchronized void complete(Map<Long, Object> entitiesById, RuntimeException failure) {
+            this.entitiesById = entitiesById;
+            this.failure = failure;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized Object await(Long id) {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return entitiesById.get(id);
+        }
+    }
+
+    private static final class BatchKey {
+
+        private final Session session;
+        private final Class<?> type;
+        private final int depth;
+
+        BatchKey(Session session, Class<?> type, int depth) {
+            this.session = session;
+            this.type = type;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchKey)) {
+                return false;
+            }
+            BatchKey other = (BatchKey) o;
+            return session == other.session && depth == other.depth && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(session);
+            result = 31 * result + type.hashCode();
+            result = 31 * result + depth;
+            return result;
+        }
+    }
+
+}
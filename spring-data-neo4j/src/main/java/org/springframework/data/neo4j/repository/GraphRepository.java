@@ -16,6 +16,7 @@ package org.springframework.data.neo4j.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.mapping.FetchPlan;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
@@ -31,6 +32,10 @@ public interface GraphRepository<T> extends PagingAndSortingRepository<T, Long>
 
     T findOne(Long id, int depth);
 
+    T findOne(Long id, FetchPlan fetchPlan);
+
+    T findOne(Long id, String fetchPlanName);
+
 
     Iterable<T> findAll();
 
@@ -19,46 +19,147 @@ import org.neo4j.ogm.session.Session;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.event.AfterDeleteEvent;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BeforeDeleteEvent;
+import org.springframework.data.neo4j.event.BeforeSaveEvent;
+import org.springframework.data.neo4j.event.DataManipulationEventBatch;
+import org.springframework.data.neo4j.event.Neo4jDataManipulationEvent;
+import org.springframework.data.neo4j.mapping.EntityStateTracker;
+import org.springframework.data.neo4j.mapping.FetchPlan;
+import org.springframework.data.neo4j.mapping.LazyRelationshipLoader;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.OptimisticLocking;
+import org.springframework.data.neo4j.transaction.WriteBehindQueue;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
+ * Default implementation of {@link GraphRepository}.  Like {@link org.springframework.data.neo4j.template.Neo4jTemplate},
+ * it publishes a {@link Neo4jDataManipulationEvent} before and after saving or deleting each entity, provided it has been
+ * given an {@link ApplicationEventPublisher}, and saves only what has changed if it has been given an
+ * {@link EntityStateTracker}.  Versioned entities are subject to {@link OptimisticLocking}.
+ * <p>
+ * Entities are found by any {@link Iterable} of IDs in chunks of at most {@link #DEFAULT_ID_CHUNK_SIZE} IDs, so that
+ * very large lists don't exceed the size of a single request, and are returned in the order of the given IDs.  Given
+ * a {@link FindOneCoalescer}, concurrent lookups of single entities by ID are loaded together, and given a
+ * {@link LazyRelationshipLoader}, the relationships beyond the depth to which entities are loaded are loaded on first
+ * access.
+ * </p>
+ *
  * @author Vince Bickers
  */
 @Repository
-public class GraphRepositoryImpl<T> implements GraphRepository<T> {
+public class GraphRepositoryImpl<T> implements GraphRepository<T>, ApplicationEventPublisherAware {
 
     private static final int DEFAULT_QUERY_DEPTH = 1;
 
+    /**
+     * The maximum number of IDs sent in each statement by {@link #findAll(Iterable, int)} by default.
+     */
+    public static final int DEFAULT_ID_CHUNK_SIZE = 1000;
+
     private final Class<T> clazz;
     private final Session session;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private EntityStateTracker entityStateTracker;
+    private OptimisticLocking optimisticLocking;
+    private Neo4jMappingContext mappingContext;
+    private int idChunkSize = DEFAULT_ID_CHUNK_SIZE;
+    private FindOneCoalescer findOneCoalescer;
+    private LazyRelationshipLoader lazyRelationshipLoader;
 
     public GraphRepositoryImpl(Class<T> clazz, Session session) {
         this.clazz = clazz;
         this.session = session;
     }
 
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @param entityStateTracker The {@link EntityStateTracker} used to save only what has changed since an entity was
+     *        loaded or last saved, or <code>null</code> to always save entities in full
+     */
+    public void setEntityStateTracker(EntityStateTracker entityStateTracker) {
+        this.entityStateTracker = entityStateTracker;
+    }
+
+    /**
+     * @param optimisticLocking The {@link OptimisticLocking} that guards saves and deletes of versioned entities, or
+     *        <code>null</code> to disable optimistic locking
+     */
+    public void setOptimisticLocking(OptimisticLocking optimisticLocking) {
+        this.optimisticLocking = optimisticLocking;
+    }
+
+    /**
+     * @param mappingContext The {@link Neo4jMappingContext} against which fetch plans are resolved, or <code>null</code>
+     *        to take their paths as relationship types
+     */
+    public void setMappingContext(Neo4jMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    /**
+     * @param idChunkSize The maximum number of IDs sent in each statement when finding entities by ID
+     */
+    public void setIdChunkSize(int idChunkSize) {
+        Assert.isTrue(idChunkSize > 0, "The ID chunk size must be at least 1");
+        this.idChunkSize = idChunkSize;
+    }
+
+    /**
+     * @param findOneCoalescer The {@link FindOneCoalescer} through which concurrent lookups by ID are loaded together,
+     *        or <code>null</code> to load each entity separately
+     */
+    public void setFindOneCoalescer(FindOneCoalescer findOneCoalescer) {
+        this.findOneCoalescer = findOneCoalescer;
+    }
+
+    /**
+     * @param lazyRelationshipLoader The {@link LazyRelationshipLoader} that puts lazy collections in place of the
+     *        relationships beyond the depth to which entities are loaded, or <code>null</code> to leave them empty
+     */
+    public void setLazyRelationshipLoader(LazyRelationshipLoader lazyRelationshipLoader) {
+        this.lazyRelationshipLoader = lazyRelationshipLoader;
+    }
+
     @Override
     public <S extends T> S save(S entity) {
-        session.save(entity);
-        return entity;
+        return save(entity, WriteBehindQueue.DEFAULT_SAVE_DEPTH);
     }
 
     @Override
     public <S extends T> Iterable<S> save(Iterable<S> entities) {
         for (S entity : entities) {
-            session.save(entity);
+            save(entity);
         }
         return entities;
     }
 
     @Override
     public T findOne(Long id) {
-        return session.load(clazz, id);
+        if (findOneCoalescer != null) {
+            return findOne(id, DEFAULT_QUERY_DEPTH);
+        }
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.load(clazz, id), DEFAULT_QUERY_DEPTH);
     }
 
     @Override
@@ -68,49 +169,168 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public long count() {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.countEntitiesOfType(clazz);
     }
 
     @Override
     public void delete(Long id) {
-        Object o = findOne(id);
+        T o = findOne(id);
         if (o != null) {
-            session.delete(o);
+            delete(o);
         }
     }
 
     @Override
     public void delete(T t) {
-        session.delete(t);
+        publishEvent(new BeforeDeleteEvent(this, t));
+        if (entityStateTracker != null) {
+            entityStateTracker.forget(t);
+        }
+        OptimisticLocking.VersionCheck versionCheck = beforeDelete(t);
+        Long id = session.resolveGraphIdFor(t);
+        WriteBehindQueue writeBehindQueue = WriteBehindQueue.forSession(session);
+        try {
+            if (writeBehindQueue != null) {
+                writeBehindQueue.delete(t, publishing(new AfterDeleteEvent(this, t, id)));
+            } else {
+                session.delete(t);
+            }
+            versionCheck.completed();
+        } catch (RuntimeException e) {
+            versionCheck.failed();
+            throw e;
+        }
+        if (writeBehindQueue == null) {
+            publishEvent(new AfterDeleteEvent(this, t, id));
+        }
     }
 
     @Override
     public void delete(Iterable<? extends T> ts) {
         for (T t : ts) {
-            session.delete(t);
+            delete(t);
         }
     }
 
     @Override
     public void deleteAll() {
+        WriteBehindQueue.flushPendingWrites(session);
         session.deleteAll(clazz);
     }
 
     @Override
     public <S extends T> S save(S s, int depth) {
-        session.save(s, depth);
+        publishEvent(new BeforeSaveEvent(this, s));
+        EntityStateTracker.Changes changes = changesOf(s, depth);
+        if (changes != null && changes.isEmpty()) {
+            // an unmodified entity isn't written, so its version needn't be checked either
+            publishEvent(new AfterSaveEvent(this, s, session.resolveGraphIdFor(s), Collections.<String, Object>emptyMap()));
+            return s;
+        }
+        OptimisticLocking.VersionCheck versionCheck = beforeSave(s);
+        Map<String, Object> changedProperties;
+        try {
+            if (versionCheck.incrementVersion()) {
+                // the new version is one of the changes to write
+                changes = changesOf(s, depth);
+            }
+            changedProperties = changedPropertiesOf(s);
+            WriteBehindQueue writeBehindQueue = WriteBehindQueue.forSession(session);
+            if (writeBehindQueue != null) {
+                writeBehindQueue.save(s, depth, publishingAfterSave(s, changedProperties));
+                versionCheck.completed();
+                return track(s, depth);
+            }
+            if (changes != null) {
+                changes.apply(session);
+            } else {
+                session.save(s, depth);
+            }
+            versionCheck.completed();
+        } catch (RuntimeException e) {
+            versionCheck.failed();
+            throw e;
+        }
+        track(s, depth);
+        publishEvent(new AfterSaveEvent(this, s, session.resolveGraphIdFor(s), changedProperties));
         return s;
     }
 
     @Override
     public <S extends T> Iterable<S> save(Iterable<S> ses, int depth) {
-        session.save(ses, depth);
+        for (S s : ses) {
+            publishEvent(new BeforeSaveEvent(this, s));
+        }
+        EntityStateTracker.Changes changes = changesOf(ses, depth);
+        if (changes != null && changes.isEmpty()) {
+            // unmodified entities aren't written, so their versions needn't be checked either
+            for (S s : ses) {
+                publishEvent(new AfterSaveEvent(this, s, session.resolveGraphIdFor(s), Collections.<String, Object>emptyMap()));
+            }
+            return ses;
+        }
+        List<OptimisticLocking.VersionCheck> versionChecks = new ArrayList<>();
+        Map<Object, Map<String, Object>> changedProperties = new IdentityHashMap<>();
+        try {
+            for (S s : ses) {
+                versionChecks.add(beforeSave(s));
+            }
+            boolean versioned = false;
+            for (OptimisticLocking.VersionCheck versionCheck : versionChecks) {
+                versioned |= versionCheck.incrementVersion();
+            }
+            if (versioned) {
+                // the new versions are among the changes to write
+                changes = changesOf(ses, depth);
+            }
+            for (S s : ses) {
+                changedProperties.put(s, changedPropertiesOf(s));
+            }
+            WriteBehindQueue writeBehindQueue = WriteBehindQueue.forSession(session);
+            if (writeBehindQueue != null) {
+                for (S s : ses) {
+                    writeBehindQueue.save(s, depth, publishingAfterSave(s, changedProperties.get(s)));
+                }
+                OptimisticLocking.VersionCheck.completeAll(versionChecks, true);
+                return track(ses, depth);
+            }
+            if (changes != null) {
+                changes.apply(session);
+            } else {
+                session.save(ses, depth);
+            }
+            OptimisticLocking.VersionCheck.completeAll(versionChecks, true);
+        } catch (RuntimeException e) {
+            OptimisticLocking.VersionCheck.completeAll(versionChecks, false);
+            throw e;
+        }
+        track(ses, depth);
+        for (S s : ses) {
+            publishEvent(new AfterSaveEvent(this, s, session.resolveGraphIdFor(s), changedProperties.get(s)));
+        }
         return ses;
     }
 
     @Override
     public T findOne(Long id, int depth) {
-        return session.load(clazz, id, depth);
+        if (findOneCoalescer != null) {
+            WriteBehindQueue.flushPendingWrites(session);
+            return loaded(findOneCoalescer.findOne(session, clazz, id, depth), depth);
+        }
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.load(clazz, id, depth), depth);
+    }
+
+    @Override
+    public T findOne(Long id, FetchPlan fetchPlan) {
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(fetchPlan.load(session, mappingContext, clazz, id), fetchPlan.getDepth());
+    }
+
+    @Override
+    public T findOne(Long id, String fetchPlanName) {
+        return findOne(id, FetchPlan.named(clazz, fetchPlanName));
     }
 
     // findAll and variants
@@ -121,7 +341,8 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public Iterable<T> findAll(int depth) {
-        return session.loadAll(clazz, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(clazz, depth), depth);
     }
 
     @Override
@@ -131,7 +352,24 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public Iterable<T> findAll(Iterable<Long> ids, int depth) {
-        return session.loadAll(clazz, (Collection<Long>) ids, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        List<Long> distinctIds = new ArrayList<>(distinct(ids));
+        Map<Long, T> entitiesById = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += idChunkSize) {
+            List<Long> chunk = new ArrayList<>(distinctIds.subList(from, Math.min(from + idChunkSize, distinctIds.size())));
+            for (T entity : session.loadAll(clazz, chunk, depth)) {
+                entitiesById.put(session.resolveGraphIdFor(entity), entity);
+            }
+        }
+
+        List<T> entities = new ArrayList<>(entitiesById.size());
+        for (Long id : distinctIds) {
+            T entity = entitiesById.get(id);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return loaded(entities, depth);
     }
 
     @Override
@@ -141,7 +379,8 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public Iterable<T> findAll(Sort sort, int depth) {
-        return session.loadAll(clazz, convert(sort), depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(clazz, convert(sort), depth), depth);
     }
 
     @Override
@@ -151,7 +390,9 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public Iterable<T> findAll(Iterable<Long> ids, Sort sort, int depth) {
-        return session.loadAll(clazz, (Collection<Long>) ids, convert(sort), depth);
+        // sorting is done by the server, so all the IDs go in one statement
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(clazz, distinct(ids), convert(sort), depth), depth);
     }
 
 
@@ -162,10 +403,84 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public Page<T> findAll(Pageable pageable, int depth) {
-        Collection<T> data = session.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        Collection<T> data = loaded(session.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), depth), depth);
         return updatePage(pageable, new ArrayList<T>(data));
     }
 
+    private <R> R loaded(R entities, int depth) {
+        if (lazyRelationshipLoader != null) {
+            lazyRelationshipLoader.attach(session, entities, depth);
+        }
+        return track(entities, depth);
+    }
+
+    private <R> R track(R entities, int depth) {
+        if (entityStateTracker != null) {
+            entityStateTracker.snapshot(entities, depth);
+        }
+        return entities;
+    }
+
+    private static Set<Long> distinct(Iterable<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinctIds.add(id);
+            }
+        }
+        return distinctIds;
+    }
+
+    /*
+     * The event is only created once the save has been flushed, when the graph ID of a new entity is known.
+     */
+    private Runnable publishingAfterSave(final Object entity, final Map<String, Object> changedProperties) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                publishEvent(new AfterSaveEvent(GraphRepositoryImpl.this, entity, session.resolveGraphIdFor(entity), changedProperties));
+            }
+        };
+    }
+
+    /*
+     * Captured before the entity is written, while its snapshot still describes the state it was loaded in.
+     */
+    private Map<String, Object> changedPropertiesOf(Object entity) {
+        return entityStateTracker != null ? entityStateTracker.changedPropertiesOf(entity) : null;
+    }
+
+    private EntityStateTracker.Changes changesOf(Object entities, int depth) {
+        return entityStateTracker != null ? entityStateTracker.changesOf(entities, depth) : null;
+    }
+
+    private OptimisticLocking.VersionCheck beforeSave(Object entity) {
+        return optimisticLocking != null ? optimisticLocking.beforeSave(session, entity) : OptimisticLocking.VersionCheck.NONE;
+    }
+
+    private OptimisticLocking.VersionCheck beforeDelete(Object entity) {
+        return optimisticLocking != null ? optimisticLocking.beforeDelete(session, entity) : OptimisticLocking.VersionCheck.NONE;
+    }
+
+    private Runnable publishing(final Neo4jDataManipulationEvent event) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                publishEvent(event);
+            }
+        };
+    }
+
+    private void publishEvent(Neo4jDataManipulationEvent event) {
+        if (this.applicationEventPublisher != null) {
+            DataManipulationEventBatch eventBatch = DataManipulationEventBatch.forSession(session);
+            if (eventBatch == null || !eventBatch.add(this.applicationEventPublisher, event)) {
+                this.applicationEventPublisher.publishEvent(event);
+            }
+        }
+    }
+
     /*
      * Converts a Spring Data Sort object to an OGM SortOrder
      */
@@ -14,6 +14,7 @@
 package org.springframework.data.neo4j.repository.query;
 
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.NamedQueries;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -30,9 +31,28 @@ import java.lang.reflect.Method;
 public class GraphQueryLookupStrategy implements QueryLookupStrategy {
 
     private final Session session;
+    private final QueryResultCache queryResultCache;
+    private final SlowQueryLog slowQueryLog;
+    private final Neo4jMappingContext mappingContext;
 
     public GraphQueryLookupStrategy(Session session) {
+        this(session, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, QueryResultCache queryResultCache) {
+        this(session, queryResultCache, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, QueryResultCache queryResultCache, SlowQueryLog slowQueryLog) {
+        this(session, queryResultCache, slowQueryLog, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, QueryResultCache queryResultCache, SlowQueryLog slowQueryLog,
+            Neo4jMappingContext mappingContext) {
         this.session = session;
+        this.queryResultCache = queryResultCache;
+        this.slowQueryLog = slowQueryLog;
+        this.mappingContext = mappingContext;
     }
     
     /* 
@@ -42,6 +62,6 @@ public class GraphQueryLookupStrategy implements QueryLookupStrategy {
     @Override
     public RepositoryQuery resolveQuery(Method method, RepositoryMetadata metadata, ProjectionFactory factory,
         NamedQueries namedQueries) {
-        return new GraphQueryMethod(method, metadata, factory, session).createQuery();
+        return new GraphQueryMethod(method, metadata, factory, session, queryResultCache, slowQueryLog, mappingContext).createQuery();
     }
 }
@@ -16,6 +16,7 @@ package org.springframework.data.neo4j.repository.query;
 import org.neo4j.ogm.session.Session;
 import org.springframework.data.neo4j.annotation.Query;
 import org.springframework.data.neo4j.annotation.QueryResult;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
 import org.springframework.data.neo4j.repository.query.derived.DerivedGraphRepositoryQuery;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -26,6 +27,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Mark Angrish
@@ -37,22 +39,82 @@ public class GraphQueryMethod extends QueryMethod {
     private final Session session;
     private final Method method;
     private final Query queryAnnotation;
+    private final QueryResultCache queryResultCache;
+    private final SlowQueryLog slowQueryLog;
+    private final Neo4jMappingContext mappingContext;
 
     public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session) {
+        this(method, metadata, factory, session, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            QueryResultCache queryResultCache) {
+        this(method, metadata, factory, session, queryResultCache, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            QueryResultCache queryResultCache, SlowQueryLog slowQueryLog) {
+        this(method, metadata, factory, session, queryResultCache, slowQueryLog, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            QueryResultCache queryResultCache, SlowQueryLog slowQueryLog, Neo4jMappingContext mappingContext) {
         super(method, metadata, factory);
         this.method = method;
         this.session = session;
         this.queryAnnotation = method.getAnnotation(Query.class);
+        if (queryAnnotation != null && queryAnnotation.cacheTimeToLive() < 0) {
+            throw new IllegalStateException("Method " + method + " declares a negative cacheTimeToLive");
+        }
+        this.queryResultCache = queryResultCache;
+        this.slowQueryLog = slowQueryLog;
+        this.mappingContext = mappingContext;
     }
 
     public String getQuery() {
         return queryAnnotation.value();
     }
 
+    /**
+     * @return <code>true</code> if this method declares a cache for its results, <code>false</code> otherwise
+     */
+    public boolean isCacheable() {
+        return queryAnnotation != null && !queryAnnotation.cacheName().isEmpty();
+    }
+
+    public String getCacheName() {
+        return queryAnnotation.cacheName();
+    }
+
+    public long getCacheTimeToLiveMillis() {
+        return TimeUnit.SECONDS.toMillis(queryAnnotation.cacheTimeToLive());
+    }
+
+    /**
+     * @return The labels declared on <code>&#064;Query</code> on which this method's results depend, which may be empty
+     */
+    public String[] getCacheLabels() {
+        return queryAnnotation.cacheLabels();
+    }
+
     public Method getMethod() {
         return method;
     }
 
+    /**
+     * @return The {@link SlowQueryLog} in which to record slow executions of this method, or <code>null</code> if there's none
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * @return The {@link Neo4jMappingContext} that describes the persistent entities, or <code>null</code> if there's none
+     */
+    public Neo4jMappingContext getMappingContext() {
+        return mappingContext;
+    }
+
     @Override
     public String getNamedQueryName() {
         throw new UnsupportedOperationException("OGM does not currently support named queries.");
@@ -88,9 +150,9 @@ public class GraphQueryMethod extends QueryMethod {
     public RepositoryQuery createQuery() {
         if (method.getAnnotation(Query.class) != null) {
             if (resolveConcreteReturnType().isAnnotationPresent(QueryResult.class)) {
-                return new QueryResultGraphRepositoryQuery(this, session);
+                return new QueryResultGraphRepositoryQuery(this, session, queryResultCache);
             }
-            return new GraphRepositoryQuery(this, session);
+            return new GraphRepositoryQuery(this, session, queryResultCache);
         }
         return new DerivedGraphRepositoryQuery(this, session);
 
@@ -17,10 +17,17 @@ package org.springframework.data.neo4j.repository.query;
 import org.neo4j.ogm.model.QueryStatistics;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.neo4j.transaction.WriteBehindQueue;
 import org.springframework.data.repository.query.*;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -35,9 +42,17 @@ public class GraphRepositoryQuery implements RepositoryQuery {
 
     protected final Session session;
 
+    private final QueryResultCache queryResultCache;
+    private volatile Collection<String> cacheLabels;
+
     public GraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
+        this(graphQueryMethod, session, null);
+    }
+
+    public GraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session, QueryResultCache queryResultCache) {
         this.graphQueryMethod = graphQueryMethod;
         this.session = session;
+        this.queryResultCache = queryResultCache;
     }
 
     @Override
@@ -49,7 +64,23 @@ public class GraphRepositoryQuery implements RepositoryQuery {
         
         ParameterAccessor accessor = new ParametersParameterAccessor(graphQueryMethod.getParameters(), parameters);
         ResultProcessor processor = graphQueryMethod.getResultProcessor();
-        Object result = execute(returnType, concreteType, getQueryString(), params);
+        WriteBehindQueue.flushPendingWrites(session);
+        long start = System.nanoTime();
+        Object result = null;
+        RuntimeException error = null;
+        try {
+            result = isCacheable(returnType)
+                    ? executeCached(returnType, concreteType, params)
+                    : execute(returnType, concreteType, getQueryString(), params);
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            SlowQueryLog slowQueryLog = graphQueryMethod.getSlowQueryLog();
+            if (slowQueryLog != null) {
+                slowQueryLog.record(graphQueryMethod.getMethod(), getQueryString(), params, result, error, System.nanoTime() - start);
+            }
+        }
         
         return Result.class.equals(returnType) ? result :
         	processor.withDynamicProjection(accessor).processResult(result);
@@ -78,6 +109,38 @@ public class GraphRepositoryQuery implements RepositoryQuery {
         return session.queryForObject(returnType, cypherQuery, queryParams);
     }
 
+    private Object executeCached(Class<?> returnType, Class<?> concreteType, Map<String, Object> params) {
+        String cacheName = graphQueryMethod.getCacheName();
+        Object key = new SimpleKey(graphQueryMethod.getMethod().toGenericString(), params);
+
+        Cache.ValueWrapper cached = queryResultCache.get(cacheName, key);
+        if (cached != null) {
+            return cached.get();
+        }
+        Collection<String> labels = getCacheLabels(concreteType);
+        long generation = queryResultCache.generationOf(labels);
+        Object result = execute(returnType, concreteType, getQueryString(), params);
+        queryResultCache.put(cacheName, key, result, graphQueryMethod.getCacheTimeToLiveMillis(), labels, generation);
+        return result;
+    }
+
+    private boolean isCacheable(Class<?> returnType) {
+        return queryResultCache != null && graphQueryMethod.isCacheable()
+                && !returnType.equals(Void.class) && !returnType.equals(void.class) && !queryReturnsStatistics();
+    }
+
+    private Collection<String> getCacheLabels(Class<?> concreteType) {
+        if (cacheLabels == null) {
+            Set<String> labels = new LinkedHashSet<>(Arrays.asList(graphQueryMethod.getCacheLabels()));
+            if (labels.isEmpty()) {
+                labels.addAll(queryResultCache.labelsOf(graphQueryMethod.getDomainClass()));
+                labels.addAll(queryResultCache.labelsOf(concreteType));
+            }
+            cacheLabels = labels;
+        }
+        return cacheLabels;
+    }
+
     private Map<String, Object> resolveParams(Object[] parameters) {
 
         Map<String, Object> params = new HashMap<>();
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.neo4j.event.CacheInvalidation;
+import org.springframework.data.neo4j.event.CacheInvalidationBus;
+import org.springframework.data.neo4j.event.CacheInvalidationListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores the results of <code>&#064;Query</code> methods that declare a {@link org.springframework.data.neo4j.annotation.Query#cacheName()}
+ * in the caches of a Spring {@link CacheManager}.
+ * <p>
+ * Each result is stored together with its expiry time, since the Spring cache abstraction has no notion of a
+ * per-entry time-to-live, and is indexed by the node labels on which it depends.  Saving or deleting an entity evicts
+ * every result indexed by one of the entity's labels, as notified by the {@link CacheInvalidationBus}.  Define a bean
+ * of this type alongside a {@link CacheManager} in order to enable query result caching on repositories.
+ * </p>
+ * <p>
+ * A result computed while one of its labels is invalidated is not cached, which callers ensure by passing the
+ * {@link #generationOf(Collection) generation} of its labels read before running the query to {@link #put}.  Results
+ * that expire or that the caches evict of their own accord are removed from the label index when they're next looked
+ * up, or by {@link #purgeIndex()}, which runs whenever the index has doubled in size since it last ran.  Since it has
+ * to look every indexed result up, purging counts as an access for caches that evict the least recently used entries.
+ * </p>
+ * <p>
+ * Results computed while a Spring-managed transaction is active aren't cached either, since they may depend on writes
+ * that the transaction hasn't committed, and a rollback notifies nothing that would evict them.
+ * </p>
+ */
+public class QueryResultCache implements CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+    private static final int MIN_PURGE_THRESHOLD = 1024;
+
+    private final CacheManager cacheManager;
+    private final MetaData metaData;
+    private final ConcurrentMap<String, Set<CacheEntryReference>> entriesByLabel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CacheEntryReference, IndexedEntry> indexedEntries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> labelGenerations = new ConcurrentHashMap<>();
+    private final AtomicInteger purgeThreshold = new AtomicInteger(MIN_PURGE_THRESHOLD);
+
+    /**
+     * Constructs a new {@link QueryResultCache}.
+     *
+     * @param cacheManager The {@link CacheManager} that provides the caches named on <code>&#064;Query</code> methods
+     * @param metaData The OGM {@link MetaData} used to resolve the labels of changed entities
+     */
+    public QueryResultCache(CacheManager cacheManager, MetaData metaData) {
+        Assert.notNull(cacheManager, "Cannot create a QueryResultCache without a CacheManager!");
+        Assert.notNull(metaData, "Cannot create a QueryResultCache without MetaData!");
+        this.cacheManager = cacheManager;
+        this.metaData = metaData;
+    }
+
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        evictLabels(invalidation.getLabels());
+    }
+
+    /**
+     * Looks up a cached query result.
+     *
+     * @param cacheName The name of the cache in which the result is stored
+     * @param key The key derived from the query parameters
+     * @return A {@link Cache.ValueWrapper} containing the cached result, which may be <code>null</code>, or <code>null</code>
+     *         if there is no unexpired result cached against the given key
+     */
+    public Cache.ValueWrapper get(String cacheName, Object key) {
+        Cache cache = getCache(cacheName);
+        CachedResult cached = cache.get(key, CachedResult.class);
+        if (cached == null) {
+            unindex(new CacheEntryReference(cacheName, key));
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            cache.evict(key);
+            unindex(new CacheEntryReference(cacheName, key));
+            return null;
+        }
+        return new SimpleValueWrapper(cached.value);
+    }
+
+    /**
+     * Reads the generation of the given labels, which changes whenever results depending on any of them are evicted.
+     *
+     * @param labels The labels of the nodes on which a query result depends
+     * @return The current generation of the given labels
+     */
+    public long generationOf(Collection<String> labels) {
+        long generation = 0;
+        for (String label : labels) {
+            AtomicLong labelGeneration = labelGenerations.get(label);
+            if (labelGeneration != null) {
+                generation += labelGeneration.get();
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Caches a query result, unless any of the labels on which it depends has been invalidated since the given
+     * generation was read, in which case the result may be stale, or unless a transaction is active on the current
+     * thread.
+     *
+     * @param cacheName The name of the cache in which to store the result
+     * @param key The key derived from the query parameters
+     * @param value The query result, which may be <code>null</code>
+     * @param timeToLiveMillis The number of milliseconds for which the result stays valid, or 0 to keep it until it's
+     *        invalidated or the cache evicts it of its own accord
+     * @param labels The labels of the nodes on which the result depends
+     * @param generation The {@link #generationOf(Collection) generation} of the labels read before running the query
+     */
+    public void put(String cacheName, Object key, Object value, long timeToLiveMillis, Collection<String> labels, long generation) {
+        Assert.isTrue(timeToLiveMillis >= 0, "The time-to-live of a cached query result must not be negative");
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            logger.debug("Not caching query result computed within a transaction that may yet roll back");
+            return;
+        }
+        long expiresAt = timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : Long.MAX_VALUE;
+        Cache cache = getCache(cacheName);
+        CacheEntryReference reference = new CacheEntryReference(cacheName, key);
+        cache.put(key, new CachedResult(value, expiresAt));
+        index(reference, labels, expiresAt);
+
+        // checked after indexing, so an invalidation that starts in the meantime either evicts the entry or is seen here
+        if (generationOf(labels) != generation) {
+            cache.evict(key);
+            unindex(reference);
+            logger.debug("Discarded query result computed while its labels {} were invalidated", labels);
+            return;
+        }
+        if (indexedEntries.size() >= purgeThreshold.get()) {
+            purgeIndex();
+        }
+    }
+
+    /**
+     * Evicts every cached result that depends on nodes with any of the given labels.
+     *
+     * @param labels The labels of the changed nodes
+     */
+    public void evictLabels(Collection<String> labels) {
+        for (String label : labels) {
+            AtomicLong labelGeneration = labelGenerations.get(label);
+            if (labelGeneration == null) {
+                labelGenerations.putIfAbsent(label, new AtomicLong());
+                labelGeneration = labelGenerations.get(label);
+            }
+            labelGeneration.incrementAndGet();
+
+            Set<CacheEntryReference> references = entriesByLabel.remove(label);
+            if (references == null) {
+                continue;
+            }
+            for (CacheEntryReference reference : references) {
+                Cache cache = cacheManager.getCache(reference.cacheName);
+                if (cache != null) {
+                    cache.evict(reference.key);
+                }
+                unindex(reference);
+            }
+            logger.debug("Evicted {} cached query results depending on label {}", references.size(), label);
+        }
+    }
+
+    /**
+     * Removes the results that have expired or that are no longer held by their caches from the label index.
+     */
+    public void purgeIndex() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Map.Entry<CacheEntryReference, IndexedEntry> entry : indexedEntries.entrySet()) {
+            CacheEntryReference reference = entry.getKey();
+            Cache cache = cacheManager.getCache(reference.cacheName);
+            if (cache != null && now >= entry.getValue().expiresAt) {
+                cache.evict(reference.key);
+            }
+            if (cache == null || now >= entry.getValue().expiresAt || cache.get(reference.key) == null) {
+                unindex(reference);
+                purged++;
+            }
+        }
+        purgeThreshold.set(Math.max(MIN_PURGE_THRESHOLD, 2 * indexedEntries.size()));
+        logger.debug("Purged {} query results that are no longer cached from the label index", purged);
+    }
+
+    /**
+     * @return The number of cached results currently held in the label index
+     */
+    public int getIndexedResultCount() {
+        return indexedEntries.size();
+    }
+
+    /**
+     * @param type The entity type
+     * @return The labels of the nodes to which the given type is mapped, or an empty collection if it isn't a node entity
+     */
+    public Collection<String> labelsOf(Class<?> type) {
+        ClassInfo classInfo = metaData.classInfo(type.getName());
+        if (classInfo == null) {
+            return Collections.emptySet();
+        }
+        return classInfo.labels();
+    }
+
+    private void index(CacheEntryReference reference, Collection<String> labels, long expiresAt) {
+        indexedEntries.put(reference, new IndexedEntry(new ArrayList<>(labels), expiresAt));
+        for (String label : labels) {
+            Set<CacheEntryReference> references = entriesByLabel.get(label);
+            if (references == null) {
+                Set<CacheEntryReference> newReferences = Collections.newSetFromMap(new ConcurrentHashMap<CacheEntryReference, Boolean>());
+                references = entriesByLabel.putIfAbsent(label, newReferences);
+                if (references == null) {
+                    references = newReferences;
+                }
+            }
+            references.add(reference);
+        }
+    }
+
+    private void unindex(CacheEntryReference reference) {
+        IndexedEntry entry = indexedEntries.remove(reference);
+        if (entry == null) {
+            return;
+        }
+        for (String label : entry.labels) {
+            Set<CacheEntryReference> references = entriesByLabel.get(label);
+            if (references != null) {
+                references.remove(reference);
+            }
+        }
+    }
+
+    private Cache getCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("No cache named '" + cacheName + "' is known to the CacheManager");
+        }
+        return cache;
+    }
+
+    private static class CachedResult {
+
+        private final Object value;
+        private final long expiresAt;
+
+        CachedResult(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private static class IndexedEntry {
+
+        private final Collection<String> labels;
+        private final long expiresAt;
+
+        IndexedEntry(Collection<String> labels, long expiresAt) {
+            this.labels = labels;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class CacheEntryReference {
+
+        private final String cacheName;
+        private final Object key;
+
+        CacheEntryReference(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheEntryReference)) {
+                return false;
+            }
+            CacheEntryReference other = (CacheEntryReference) o;
+            return cacheName.equals(other.cacheName) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cacheName.hashCode() + key.hashCode();
+        }
+    }
+
+}
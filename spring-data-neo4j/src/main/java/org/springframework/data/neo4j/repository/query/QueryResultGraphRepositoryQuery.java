@@ -42,7 +42,18 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
      * @param session The OGM {@link Session} used to execute the query
      */
     public QueryResultGraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
-        super(graphQueryMethod, session);
+        this(graphQueryMethod, session, null);
+    }
+
+    /**
+     * Constructs a new {@link QueryResultGraphRepositoryQuery} based on the given arguments.
+     *
+     * @param graphQueryMethod The {@link GraphQueryMethod} to which this repository query corresponds
+     * @param session The OGM {@link Session} used to execute the query
+     * @param queryResultCache The {@link QueryResultCache} in which to cache results, or <code>null</code> to disable caching
+     */
+    public QueryResultGraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session, QueryResultCache queryResultCache) {
+        super(graphQueryMethod, session, queryResultCache);
     }
 
     @Override
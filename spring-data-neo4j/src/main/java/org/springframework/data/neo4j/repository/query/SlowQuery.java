@@ -0,0 +1,110 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A repository query execution recorded by the {@link SlowQueryLog} because it exceeded the threshold.  Parameter values
+ * aren't retained, only their shapes, so that no data ends up in logs or memory dumps.
+ */
+public class SlowQuery {
+
+    private final long timestamp;
+    private final String method;
+    private final String statement;
+    private final Map<String, String> parameterShapes;
+    private final int depth;
+    private final int resultSize;
+    private final Throwable error;
+    private final long elapsedNanos;
+
+    SlowQuery(long timestamp, String method, String statement, Map<String, String> parameterShapes, int depth,
+            int resultSize, Throwable error, long elapsedNanos) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.statement = statement;
+        this.parameterShapes = parameterShapes;
+        this.depth = depth;
+        this.resultSize = resultSize;
+        this.error = error;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The time at which the query completed, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The repository method that executed the query, as <code>Repository.method</code>
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The Cypher statement of a <code>&#064;Query</code> method, or the filters of a derived finder
+     */
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return The type and size of each parameter keyed by name, in the order in which they were supplied
+     */
+    public Map<String, String> getParameterShapes() {
+        return parameterShapes;
+    }
+
+    /**
+     * @return The depth to which the results were loaded, or -1 if it's determined by the Cypher statement
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The number of results returned, which is 0 if they couldn't be counted without consuming a lazy result
+     */
+    public int getResultSize() {
+        return resultSize;
+    }
+
+    /**
+     * @return The exception with which the query failed, or <code>null</code> if it succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @param unit The {@link TimeUnit} in which to express the time
+     * @return The time taken to execute the query
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        String outcome = error != null ? " failing with " + error.getClass().getName() : " returning " + resultSize + " result(s)";
+        return method + " took " + getElapsedTime(TimeUnit.MILLISECONDS) + " ms" + outcome + " at depth " + depth + ": "
+                + statement + " " + parameterShapes;
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.neo4j.ogm.cypher.Filter;
+import org.neo4j.ogm.cypher.Filters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.util.ResultRows;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Logs repository queries that take longer than a threshold, at WARN level, and keeps the most recent of them in a
+ * bounded in-memory ring buffer from which they can be read programmatically, e.g. by a monitoring endpoint.
+ * <p>
+ * The Cypher statement of <code>&#064;Query</code> methods is captured verbatim, whereas derived finders are described
+ * by their filters, since the OGM generates their Cypher internally.  Parameter values are redacted: only their types
+ * and sizes are recorded.  Queries that fail are recorded too, with their failure, if they were slow to do so.  A
+ * sampling rate below 1 keeps only that fraction of the slow queries, which limits the cost when a whole workload
+ * turns slow.  Define a bean of this type in order to enable the log on repositories.
+ * </p>
+ */
+public class SlowQueryLog {
+
+    /**
+     * The number of slow queries kept in memory by default.
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final long thresholdNanos;
+    private final double samplingRate;
+    private final AtomicReferenceArray<SlowQuery> recentQueries;
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Constructs a new {@link SlowQueryLog} that logs every query slower than the given threshold and keeps the last
+     * {@value #DEFAULT_CAPACITY} of them.
+     *
+     * @param threshold The time beyond which a query is considered slow
+     * @param unit The {@link TimeUnit} of the threshold
+     */
+    public SlowQueryLog(long threshold, TimeUnit unit) {
+        this(threshold, unit, 1.0, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@link SlowQueryLog}.
+     *
+     * @param threshold The time beyond which a query is considered slow
+     * @param unit The {@link TimeUnit} of the threshold
+     * @param samplingRate The fraction of slow queries to log, between 0 (exclusive) and 1
+     * @param capacity The number of most recent slow queries to keep in memory
+     */
+    public SlowQueryLog(long threshold, TimeUnit unit, double samplingRate, int capacity) {
+        Assert.isTrue(threshold >= 0, "The slow query threshold cannot be negative");
+        Assert.isTrue(samplingRate > 0 && samplingRate <= 1, "The sampling rate must be greater than 0 and at most 1");
+        Assert.isTrue(capacity > 0, "The slow query log must have room for at least one query");
+        this.thresholdNanos = unit.toNanos(threshold);
+        this.samplingRate = samplingRate;
+        this.recentQueries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records the execution of a <code>&#064;Query</code> method if it was slow.
+     *
+     * @param method The repository method
+     * @param statement The Cypher statement executed
+     * @param parameters The query parameters keyed by name
+     * @param result The result returned by the method, or <code>null</code> if it failed
+     * @param error The exception with which the query failed, or <code>null</code> if it succeeded
+     * @param elapsedNanos The time taken to execute the query, in nanoseconds
+     */
+    public void record(Method method, String statement, Map<String, ?> parameters, Object result, Throwable error,
+            long elapsedNanos) {
+        if (isRecorded(elapsedNanos)) {
+            Map<String, String> shapes = new LinkedHashMap<>();
+            for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+                shapes.put(parameter.getKey(), shapeOf(parameter.getValue()));
+            }
+            add(method, statement, shapes, -1, result, error, elapsedNanos);
+        }
+    }
+
+    /**
+     * Records the execution of a derived finder if it was slow.
+     *
+     * @param method The repository method
+     * @param filters The {@link Filters} from which the OGM generated the query, with their values set
+     * @param depth The depth to which the results were loaded
+     * @param result The result returned by the method, or <code>null</code> if it failed
+     * @param error The exception with which the query failed, or <code>null</code> if it succeeded
+     * @param elapsedNanos The time taken to execute the query, in nanoseconds
+     */
+    public void record(Method method, Filters filters, int depth, Object result, Throwable error, long elapsedNanos) {
+        if (isRecorded(elapsedNanos)) {
+            StringBuilder statement = new StringBuilder();
+            Map<String, String> shapes = new LinkedHashMap<>();
+            for (Filter filter : filters) {
+                String property = filter.getNestedPropertyName() != null
+                        ? filter.getNestedPropertyName() + "." + filter.getPropertyName()
+                        : filter.getPropertyName();
+                if (statement.length() > 0) {
+                    statement.append(' ').append(filter.getBooleanOperator().name()).append(' ');
+                }
+                statement.append(property).append(' ').append(filter.getComparisonOperator().name()).append(" ?");
+                shapes.put(property, shapeOf(filter.getPropertyValue()));
+            }
+            add(method, statement.toString(), shapes, depth, result, error, elapsedNanos);
+        }
+    }
+
+    /**
+     * @return The most recent slow queries, oldest first, up to the capacity of this log
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        int capacity = recentQueries.length();
+        long end = recorded.get();
+        List<SlowQuery> queries = new ArrayList<>();
+        for (long i = Math.max(0, end - capacity); i < end; i++) {
+            SlowQuery query = recentQueries.get((int) (i % capacity));
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Discards the slow queries kept in memory.
+     */
+    public void clear() {
+        for (int i = 0; i < recentQueries.length(); i++) {
+            recentQueries.set(i, null);
+        }
+    }
+
+    private boolean isRecorded(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos && (samplingRate >= 1 || ThreadLocalRandom.current().nextDouble() < samplingRate);
+    }
+
+    private void add(Method method, String statement, Map<String, String> shapes, int depth, Object result, Throwable error,
+            long elapsedNanos) {
+        SlowQuery query = new SlowQuery(System.currentTimeMillis(), method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                statement, Collections.unmodifiableMap(shapes), depth, ResultRows.count(result), error, elapsedNanos);
+        long slot = recorded.getAndIncrement();
+        recentQueries.set((int) (slot % recentQueries.length()), query);
+        if (error != null) {
+            logger.warn("Slow query: {}", query, error);
+        } else {
+            logger.warn("Slow query: {}", query);
+        }
+    }
+
+    static String shapeOf(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        String type = value.getClass().getSimpleName();
+        if (value instanceof CharSequence) {
+            return type + "(" + ((CharSequence) value).length() + ")";
+        }
+        if (value instanceof Collection) {
+            return type + "(" + ((Collection<?>) value).size() + ")";
+        }
+        if (value instanceof Map) {
+            return type + "(" + ((Map<?, ?>) value).size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        return type;
+    }
+
+}
@@ -17,13 +17,17 @@ import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.session.Session;
 import org.springframework.data.neo4j.repository.query.GraphQueryMethod;
+import org.springframework.data.neo4j.repository.query.SlowQueryLog;
+import org.springframework.data.neo4j.transaction.WriteBehindQueue;
 import org.springframework.data.repository.core.EntityMetadata;
 import org.springframework.data.repository.query.QueryMethod;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.parser.PartTree;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,8 +38,18 @@ import java.util.Map;
  */
 public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
+	/**
+	 * The depth to which the OGM loads the results of a derived finder.
+	 */
+	private static final int DEFAULT_LOAD_DEPTH = 1;
+
 	private DerivedQueryDefinition queryDefinition;
 
+	/**
+	 * Fetches only the projected properties, or <code>null</code> if this finder doesn't qualify.
+	 */
+	private final ProjectedFinderQuery projectedFinderQuery;
+
 	private final GraphQueryMethod graphQueryMethod;
 
 	protected final Session session;
@@ -46,6 +60,8 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 		EntityMetadata<?> info = graphQueryMethod.getEntityInformation();
 		PartTree tree = new PartTree(graphQueryMethod.getName(), info.getJavaType());
 		this.queryDefinition = new DerivedQueryCreator(tree, info.getJavaType()).createQuery();
+		this.projectedFinderQuery = ProjectedFinderQuery.forFinder(tree, graphQueryMethod.getResultProcessor().getReturnedType(),
+				graphQueryMethod.getMappingContext());
 	}
 
 	@Override
@@ -58,11 +74,70 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 			throw new RuntimeException("Derived Queries must have a return type");
 		}
 
+		WriteBehindQueue.flushPendingWrites(session);
+		if (projectedFinderQuery != null) {
+			return executeProjected(returnType, parameters);
+		}
+
+		ResultProcessor resultProcessor = graphQueryMethod.getResultProcessor();
+		boolean projecting = resultProcessor.getReturnedType().isProjecting();
+		long start = System.nanoTime();
+		Object result = null;
+		RuntimeException error = null;
+		try {
+			if (projecting) {
+				result = resultProcessor.processResult(load(returnType, graphQueryMethod.getEntityInformation().getJavaType(), params));
+			} else {
+				result = load(returnType, Iterable.class.isAssignableFrom(returnType) ? concreteType : returnType, params);
+			}
+			return result;
+		} catch (RuntimeException e) {
+			error = e;
+			throw e;
+		} finally {
+			SlowQueryLog slowQueryLog = graphQueryMethod.getSlowQueryLog();
+			if (slowQueryLog != null) {
+				slowQueryLog.record(graphQueryMethod.getMethod(), params, DEFAULT_LOAD_DEPTH, result, error, System.nanoTime() - start);
+			}
+		}
+	}
+
+	private Object executeProjected(Class<?> returnType, Object[] parameters) {
+		Map<String, Object> params = new HashMap<>();
+		for (int i = 0; i < parameters.length; i++) {
+			params.put(String.valueOf(i), parameters[i]);
+		}
+
+		long start = System.nanoTime();
+		Object result = null;
+		RuntimeException error = null;
+		try {
+			List<Map<String, Object>> rows = projectedFinderQuery.execute(session, params);
+			if (Iterable.class.isAssignableFrom(returnType)) {
+				result = rows;
+			} else {
+				result = rows.isEmpty() ? null : rows.get(0);
+			}
+			result = graphQueryMethod.getResultProcessor().processResult(result);
+			return result;
+		} catch (RuntimeException e) {
+			error = e;
+			throw e;
+		} finally {
+			SlowQueryLog slowQueryLog = graphQueryMethod.getSlowQueryLog();
+			if (slowQueryLog != null) {
+				slowQueryLog.record(graphQueryMethod.getMethod(), projectedFinderQuery.getStatement(), params, result, error,
+						System.nanoTime() - start);
+			}
+		}
+	}
+
+	private Object load(Class<?> returnType, Class<?> type, Filters params) {
 		if (Iterable.class.isAssignableFrom(returnType)) {
-			return session.loadAll(concreteType, params);
+			return session.loadAll(type, params);
 		}
 
-		Iterator<?> objectIterator = session.loadAll(returnType, params).iterator();
+		Iterator<?> objectIterator = session.loadAll(type, params).iterator();
 		if(objectIterator.hasNext()) {
 			return objectIterator.next();
 		}
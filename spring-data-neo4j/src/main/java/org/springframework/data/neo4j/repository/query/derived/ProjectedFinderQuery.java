@@ -0,0 +1,202 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query.derived;
+
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.exception.MappingException;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.session.Session;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A derived finder that returns a closed interface projection, which is executed by fetching only the projected
+ * properties rather than by loading whole entities and projecting them afterwards.
+ * <p>
+ * Finders are analysed once, when their repository is created, against the OGM metadata of the domain type, so the
+ * labels and graph property names are those that the OGM maps.  Only those whose criteria compare simple properties of
+ * the domain type for equality, inequality or with greater or less than, and whose projections only read simple
+ * properties of the domain type, qualify, since their Cypher can be written without the OGM.  A property with a
+ * converter doesn't qualify, since its graph value would have to be converted by the OGM.  The graph id isn't a
+ * property of the node, so it's read and compared through <code>id(n)</code>.
+ * </p>
+ *
+ * @see #forFinder(PartTree, ReturnedType, Neo4jMappingContext)
+ */
+public class ProjectedFinderQuery {
+
+	private static final Set<Part.Type> SUPPORTED_PART_TYPES = EnumSet.of(Part.Type.SIMPLE_PROPERTY,
+			Part.Type.NEGATING_SIMPLE_PROPERTY, Part.Type.GREATER_THAN, Part.Type.LESS_THAN);
+
+	private static final Set<Class<?>> SIMPLE_TYPES = new HashSet<Class<?>>(Arrays.asList(String.class, Boolean.class,
+			boolean.class, Long.class, long.class, Integer.class, int.class, Short.class, short.class, Byte.class,
+			byte.class, Double.class, double.class, Float.class, float.class));
+
+	private static final ConversionService conversionService = new DefaultConversionService();
+
+	private final String statement;
+	private final Map<String, Class<?>> projectedTypes;
+
+	private ProjectedFinderQuery(String statement, Map<String, Class<?>> projectedTypes) {
+		this.statement = statement;
+		this.projectedTypes = projectedTypes;
+	}
+
+	/**
+	 * Analyses a derived finder.
+	 *
+	 * @param tree The {@link PartTree} parsed from the finder's name
+	 * @param returnedType The {@link ReturnedType} of the finder
+	 * @param mappingContext The {@link Neo4jMappingContext} that describes the domain type, or <code>null</code> if
+	 *        there's none, in which case no finder qualifies
+	 * @return The {@link ProjectedFinderQuery} that executes the finder, or <code>null</code> if it doesn't qualify
+	 */
+	public static ProjectedFinderQuery forFinder(PartTree tree, ReturnedType returnedType, Neo4jMappingContext mappingContext) {
+		if (mappingContext == null || !returnedType.isProjecting() || !returnedType.getReturnedType().isInterface()
+				|| returnedType.getInputProperties().isEmpty() || tree.isCountProjection() || tree.isDelete()
+				|| tree.isDistinct() || tree.isLimiting() || tree.getSort() != null) {
+			return null;
+		}
+		ClassInfo classInfo = mappingContext.getMetaData().classInfo(returnedType.getDomainType().getName());
+		if (classInfo == null || classInfo.annotationsInfo().get(RelationshipEntity.class.getName()) != null
+				|| classInfo.labels().isEmpty()) {
+			return null;
+		}
+		String graphIdField = graphIdFieldOf(classInfo);
+
+		StringBuilder criteria = new StringBuilder();
+		int position = 0;
+		for (PartTree.OrPart orPart : tree) {
+			StringBuilder conjunction = new StringBuilder();
+			for (Part part : orPart) {
+				String field = part.getProperty().next() == null ? simpleField(classInfo, part.getProperty().getSegment(), graphIdField) : null;
+				if (field == null || !SUPPORTED_PART_TYPES.contains(part.getType())) {
+					return null;
+				}
+				conjunction.append(conjunction.length() > 0 ? " AND " : "")
+						.append(field).append(' ')
+						.append(comparisonOperator(part.getType())).append(" {").append(position++).append('}');
+			}
+			criteria.append(criteria.length() > 0 ? " OR " : "").append('(').append(conjunction).append(')');
+		}
+
+		Map<String, Class<?>> projectedTypes = new LinkedHashMap<>();
+		StringBuilder returns = new StringBuilder();
+		for (String property : returnedType.getInputProperties()) {
+			String field = simpleField(classInfo, property, graphIdField);
+			if (field == null) {
+				return null;
+			}
+			projectedTypes.put(property, ClassUtils.resolvePrimitiveIfNecessary(javaTypeOf(classInfo, property, graphIdField)));
+			returns.append(returns.length() > 0 ? ", " : "").append(field).append(" AS `").append(property).append('`');
+		}
+
+		StringBuilder statement = new StringBuilder("MATCH (n");
+		for (String label : classInfo.labels()) {
+			statement.append(":`").append(label).append('`');
+		}
+		statement.append(')');
+		if (criteria.length() > 0) {
+			statement.append(" WHERE ").append(criteria);
+		}
+		statement.append(" RETURN ").append(returns);
+		return new ProjectedFinderQuery(statement.toString(), projectedTypes);
+	}
+
+	/**
+	 * @return The Cypher statement that fetches the projected properties, with the finder's parameters named by position
+	 */
+	public String getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Fetches the projected properties of the matching nodes.
+	 *
+	 * @param session The {@link Session} through which to execute the statement
+	 * @param parameters The finder's parameters, keyed by position
+	 * @return The projected properties of each matching node, keyed by the names of the projection's properties
+	 */
+	public List<Map<String, Object>> execute(Session session, Map<String, Object> parameters) {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Map<String, Object> row : session.query(statement, parameters, true).queryResults()) {
+			Map<String, Object> properties = new HashMap<>();
+			for (Map.Entry<String, Class<?>> projected : projectedTypes.entrySet()) {
+				properties.put(projected.getKey(), conversionService.convert(row.get(projected.getKey()), projected.getValue()));
+			}
+			rows.add(properties);
+		}
+		return rows;
+	}
+
+	private static String comparisonOperator(Part.Type type) {
+		switch (type) {
+			case NEGATING_SIMPLE_PROPERTY:
+				return "<>";
+			case GREATER_THAN:
+				return ">";
+			case LESS_THAN:
+				return "<";
+			default:
+				return "=";
+		}
+	}
+
+	/*
+	 * The Cypher expression that reads the named field if it's the graph id or a simple property without a converter.
+	 */
+	private static String simpleField(ClassInfo classInfo, String name, String graphIdField) {
+		if (name.equals(graphIdField)) {
+			return "id(n)";
+		}
+		FieldInfo fieldInfo = classInfo.propertyFieldByName(name);
+		if (fieldInfo == null || fieldInfo.hasConverter() || !SIMPLE_TYPES.contains(javaTypeOf(classInfo, name, graphIdField))) {
+			return null;
+		}
+		return "n.`" + fieldInfo.property() + '`';
+	}
+
+	private static Class<?> javaTypeOf(ClassInfo classInfo, String name, String graphIdField) {
+		FieldInfo fieldInfo = name.equals(graphIdField) ? classInfo.identityField() : classInfo.propertyFieldByName(name);
+		Field field = fieldInfo != null ? classInfo.getField(fieldInfo) : null;
+		return field != null ? field.getType() : null;
+	}
+
+	private static String graphIdFieldOf(ClassInfo classInfo) {
+		try {
+			FieldInfo identityField = classInfo.identityField();
+			return identityField != null ? identityField.getName() : null;
+		} catch (MappingException noIdentityField) {
+			return null;
+		}
+	}
+
+}
@@ -13,13 +13,32 @@
 
 package org.springframework.data.neo4j.repository.support;
 
+import org.aopalliance.intercept.MethodInterceptor;
 import org.neo4j.ogm.session.Session;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.neo4j.diagnostics.RepeatedQueryDetector;
+import org.springframework.data.neo4j.diagnostics.RepeatedQueryInterceptor;
+import org.springframework.data.neo4j.mapping.EntityStateTracker;
+import org.springframework.data.neo4j.mapping.LazyRelationshipLoader;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.OptimisticLocking;
+import org.springframework.data.neo4j.metrics.MetricsRegistry;
+import org.springframework.data.neo4j.metrics.RepositoryMetricsInterceptor;
+import org.springframework.data.neo4j.repository.FindOneCoalescer;
 import org.springframework.data.neo4j.repository.GraphRepositoryImpl;
 import org.springframework.data.neo4j.repository.query.GraphQueryLookupStrategy;
+import org.springframework.data.neo4j.repository.query.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.SlowQueryLog;
+import org.springframework.data.neo4j.tracing.NoopTracer;
+import org.springframework.data.neo4j.tracing.RepositoryTracingInterceptor;
+import org.springframework.data.neo4j.tracing.Tracer;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
 import org.springframework.data.repository.query.EvaluationContextProvider;
 import org.springframework.data.repository.query.QueryLookupStrategy;
 
@@ -31,9 +50,133 @@ import java.io.Serializable;
 public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
     private final Session session;
+    private final QueryResultCache queryResultCache;
+    private ApplicationEventPublisher applicationEventPublisher;
+    private EntityStateTracker entityStateTracker;
+    private OptimisticLocking optimisticLocking;
+    private Neo4jMappingContext mappingContext;
+    private SlowQueryLog slowQueryLog;
+    private int idChunkSize = GraphRepositoryImpl.DEFAULT_ID_CHUNK_SIZE;
+    private FindOneCoalescer findOneCoalescer;
+    private LazyRelationshipLoader lazyRelationshipLoader;
 
     public GraphRepositoryFactory(Session session) {
+        this(session, null);
+    }
+
+    public GraphRepositoryFactory(Session session, QueryResultCache queryResultCache) {
         this.session = session;
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * @param applicationEventPublisher The {@link ApplicationEventPublisher} through which repositories publish data
+     *        manipulation events
+     */
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @param entityStateTracker The {@link EntityStateTracker} through which repositories save only what has changed
+     */
+    public void setEntityStateTracker(EntityStateTracker entityStateTracker) {
+        this.entityStateTracker = entityStateTracker;
+    }
+
+    /**
+     * @param optimisticLocking The {@link OptimisticLocking} that guards repository saves and deletes of versioned
+     *        entities
+     */
+    public void setOptimisticLocking(OptimisticLocking optimisticLocking) {
+        this.optimisticLocking = optimisticLocking;
+    }
+
+    /**
+     * @param mappingContext The {@link Neo4jMappingContext} against which repositories resolve fetch plans
+     */
+    public void setMappingContext(Neo4jMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    /**
+     * @param slowQueryLog The {@link SlowQueryLog} in which repository query methods record their slow executions
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * @param idChunkSize The maximum number of IDs sent in each statement when repositories find entities by ID
+     */
+    public void setIdChunkSize(int idChunkSize) {
+        this.idChunkSize = idChunkSize;
+    }
+
+    /**
+     * @param findOneCoalescer The {@link FindOneCoalescer} through which repositories load concurrent lookups by ID
+     *        together
+     */
+    public void setFindOneCoalescer(FindOneCoalescer findOneCoalescer) {
+        this.findOneCoalescer = findOneCoalescer;
+    }
+
+    /**
+     * @param lazyRelationshipLoader The {@link LazyRelationshipLoader} through which repositories load the relationships
+     *        beyond the requested depth on first access
+     */
+    public void setLazyRelationshipLoader(LazyRelationshipLoader lazyRelationshipLoader) {
+        this.lazyRelationshipLoader = lazyRelationshipLoader;
+    }
+
+    /**
+     * @param metricsRegistry The {@link MetricsRegistry} with which to record every repository method invocation
+     */
+    public void setMetricsRegistry(final MetricsRegistry metricsRegistry) {
+        if (metricsRegistry == null) {
+            return;
+        }
+        addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+            @Override
+            public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+                MethodInterceptor interceptor = new RepositoryMetricsInterceptor(metricsRegistry,
+                        repositoryInformation.getRepositoryInterface(), repositoryInformation.getDomainType());
+                factory.addAdvice(interceptor);
+            }
+        });
+    }
+
+    /**
+     * @param tracer The {@link Tracer} through which to open a span around every repository method invocation
+     */
+    public void setTracer(final Tracer tracer) {
+        if (NoopTracer.isNoop(tracer)) {
+            return;
+        }
+        addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+            @Override
+            public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+                MethodInterceptor interceptor = new RepositoryTracingInterceptor(tracer,
+                        repositoryInformation.getRepositoryInterface(), repositoryInformation.getDomainType());
+                factory.addAdvice(interceptor);
+            }
+        });
+    }
+
+    /**
+     * @param repeatedQueryDetector The {@link RepeatedQueryDetector} with which to count repository queries in order to
+     *        report N+1 access patterns
+     */
+    public void setRepeatedQueryDetector(final RepeatedQueryDetector repeatedQueryDetector) {
+        if (repeatedQueryDetector == null) {
+            return;
+        }
+        addRepositoryProxyPostProcessor(new RepositoryProxyPostProcessor() {
+            @Override
+            public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+                factory.addAdvice(new RepeatedQueryInterceptor(repeatedQueryDetector, repositoryInformation.getRepositoryInterface()));
+            }
+        });
     }
 
     @Override
@@ -43,7 +186,22 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
     @Override
     protected Object getTargetRepository(RepositoryInformation information) {
-        return getTargetRepositoryViaReflection(information, information.getDomainType(), session);
+        Object repository = getTargetRepositoryViaReflection(information, information.getDomainType(), session);
+        if (applicationEventPublisher != null && repository instanceof ApplicationEventPublisherAware) {
+            ((ApplicationEventPublisherAware) repository).setApplicationEventPublisher(applicationEventPublisher);
+        }
+        if (repository instanceof GraphRepositoryImpl) {
+            GraphRepositoryImpl<?> graphRepository = (GraphRepositoryImpl<?>) repository;
+            graphRepository.setIdChunkSize(idChunkSize);
+            graphRepository.setFindOneCoalescer(findOneCoalescer);
+            graphRepository.setLazyRelationshipLoader(lazyRelationshipLoader);
+            graphRepository.setOptimisticLocking(optimisticLocking);
+            graphRepository.setMappingContext(mappingContext);
+            if (entityStateTracker != null) {
+                graphRepository.setEntityStateTracker(entityStateTracker);
+            }
+        }
+        return repository;
     }
 
     @Override
@@ -54,7 +212,7 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
     @Override
     protected QueryLookupStrategy getQueryLookupStrategy(QueryLookupStrategy.Key key,
                                                          EvaluationContextProvider evaluationContextProvider) {
-        return new GraphQueryLookupStrategy(session);
+        return new GraphQueryLookupStrategy(session, queryResultCache, slowQueryLog, mappingContext);
     }
 
 }
@@ -15,7 +15,19 @@ package org.springframework.data.neo4j.repository.support;
 
 import org.neo4j.ogm.session.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.neo4j.diagnostics.RepeatedQueryDetector;
+import org.springframework.data.neo4j.mapping.EntityStateTracker;
+import org.springframework.data.neo4j.mapping.LazyRelationshipLoader;
 import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.OptimisticLocking;
+import org.springframework.data.neo4j.metrics.MetricsRegistry;
+import org.springframework.data.neo4j.repository.FindOneCoalescer;
+import org.springframework.data.neo4j.repository.GraphRepositoryImpl;
+import org.springframework.data.neo4j.repository.query.QueryResultCache;
+import org.springframework.data.neo4j.repository.query.SlowQueryLog;
+import org.springframework.data.neo4j.tracing.Tracer;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.data.repository.core.support.TransactionalRepositoryFactoryBeanSupport;
@@ -24,14 +36,55 @@ import org.springframework.data.repository.core.support.TransactionalRepositoryF
 /**
  * @author Vince Bickers
  */
-public class GraphRepositoryFactoryBean<S extends Repository<T, Long>, T> extends TransactionalRepositoryFactoryBeanSupport<S, T, Long> {
+public class GraphRepositoryFactoryBean<S extends Repository<T, Long>, T> extends TransactionalRepositoryFactoryBeanSupport<S, T, Long>
+        implements ApplicationEventPublisherAware {
 
     @Autowired
     private Session session;
 
     @Autowired
     private Neo4jMappingContext mappingContext;
-    
+
+    @Autowired(required = false)
+    private QueryResultCache queryResultCache;
+
+    @Autowired(required = false)
+    private EntityStateTracker entityStateTracker;
+
+    @Autowired(required = false)
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired(required = false)
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired(required = false)
+    private Tracer tracer;
+
+    @Autowired(required = false)
+    private RepeatedQueryDetector repeatedQueryDetector;
+
+    @Autowired(required = false)
+    private FindOneCoalescer findOneCoalescer;
+
+    @Autowired(required = false)
+    private LazyRelationshipLoader lazyRelationshipLoader;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private int idChunkSize = GraphRepositoryImpl.DEFAULT_ID_CHUNK_SIZE;
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @param idChunkSize The maximum number of IDs sent in each statement when the repository finds entities by ID
+     */
+    public void setIdChunkSize(int idChunkSize) {
+        this.idChunkSize = idChunkSize;
+    }
+
     @Override
     public void afterPropertiesSet() {
         setMappingContext(mappingContext);
@@ -40,6 +93,18 @@ public class GraphRepositoryFactoryBean<S extends Repository<T, Long>, T> extend
 
     @Override
     protected RepositoryFactorySupport doCreateRepositoryFactory() {
-        return new GraphRepositoryFactory(session);
+        GraphRepositoryFactory factory = new GraphRepositoryFactory(session, queryResultCache);
+        factory.setApplicationEventPublisher(applicationEventPublisher);
+        factory.setEntityStateTracker(entityStateTracker);
+        factory.setOptimisticLocking(new OptimisticLocking(mappingContext));
+        factory.setMappingContext(mappingContext);
+        factory.setIdChunkSize(idChunkSize);
+        factory.setFindOneCoalescer(findOneCoalescer);
+        factory.setLazyRelationshipLoader(lazyRelationshipLoader);
+        factory.setMetricsRegistry(metricsRegistry);
+        factory.setSlowQueryLog(slowQueryLog);
+        factory.setTracer(tracer);
+        factory.setRepeatedQueryDetector(repeatedQueryDetector);
+        return factory;
     }
 }
@@ -0,0 +1,469 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.annotation.EndNode;
+import org.neo4j.ogm.annotation.StartNode;
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.metadata.ClassInfo;
+import org.neo4j.ogm.metadata.FieldInfo;
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.model.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.neo4j.event.CacheInvalidation;
+import org.springframework.data.neo4j.event.CacheInvalidationBus;
+import org.springframework.data.neo4j.event.CacheInvalidationListener;
+import org.springframework.data.neo4j.mapping.FetchPlan;
+import org.springframework.data.neo4j.mapping.LazyRelationshipCollection;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.util.ExpiringLruCache;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of {@link Neo4jOperations} that decorates another one with a read-through cache of the entities
+ * returned by {@link #load(Class, Long)} and {@link #load(Class, Long, int)}, keyed by type, ID and depth.
+ * <p>
+ * This is intended for hot reference data that changes rarely, such as countries or product categories, which can then
+ * be looked up without a round-trip to the server.  Entries expire after a fixed time-to-live and the least recently
+ * used entry is evicted once the cache is full.
+ * </p>
+ * <p>
+ * Saving an entity through this object evicts the cached copies of the entities it saves, i.e. the entity itself and
+ * those it reaches through its relationships, by type and ID.  Deleting one evicts its cached copies.  An entry loaded
+ * beyond depth 0 is also evicted if any of the changed types can be reached from its type within its depth, according
+ * to the mapping metadata, since it may contain a changed entity as a related object.  When it's registered as a
+ * Spring bean, changes made through other templates and repositories are notified by the {@link CacheInvalidationBus}
+ * once their transaction commits, and evict entries in the same way.  Arbitrary Cypher can't be analysed, so the whole
+ * cache is evicted by the deprecated <code>execute</code> methods and by queries that aren't flagged as read-only;
+ * Cypher writes issued through {@link #query(String, Map)} aren't detected.
+ * </p>
+ * <p>
+ * Entities loaded while a Spring-managed transaction is active are served from the cache but not added to it, since
+ * they may reflect writes that the transaction hasn't committed, and which the bus never notifies if it rolls back.
+ * </p>
+ * <p>
+ * Note that cached entities are shared, not copied: every caller that loads the same entity gets the same instance,
+ * so changes made to it are seen by other callers even before they're saved.  Cached entities should be treated as
+ * read-only, and loaded through the delegate when they're to be changed.
+ * </p>
+ */
+public class CachingNeo4jOperations implements Neo4jOperations, CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingNeo4jOperations.class);
+
+    /**
+     * The depth to which the OGM loads an entity when no depth is specified.
+     */
+    private static final int DEFAULT_LOAD_DEPTH = 1;
+
+    private final Neo4jOperations delegate;
+    private final MetaData metaData;
+    private final ExpiringLruCache<EntityKey, Object> cache;
+    private final ConcurrentMap<Class<?>, Set<Class<?>>> relatedTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link CachingNeo4jOperations}.
+     *
+     * @param delegate The {@link Neo4jOperations} to which all operations are delegated
+     * @param mappingContext The {@link Neo4jMappingContext} that describes how the cached types are related
+     * @param maxSize The maximum number of entities to cache
+     * @param timeToLive The time for which a cached entity is served before being reloaded, or 0 for no expiry
+     * @param timeUnit The {@link TimeUnit} of the given time-to-live
+     */
+    public CachingNeo4jOperations(Neo4jOperations delegate, Neo4jMappingContext mappingContext, int maxSize,
+            long timeToLive, TimeUnit timeUnit) {
+        Assert.notNull(delegate, "Cannot create a CachingNeo4jOperations without a delegate Neo4jOperations!");
+        Assert.notNull(mappingContext, "Cannot create a CachingNeo4jOperations without a Neo4jMappingContext!");
+        this.delegate = delegate;
+        this.metaData = mappingContext.getMetaData();
+        this.cache = new ExpiringLruCache<>(maxSize, timeToLive, timeUnit);
+    }
+
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        Map<Class<?>, Set<Long>> changed = new HashMap<>();
+        for (Class<?> type : invalidation.getTypes()) {
+            changed.put(type, new HashSet<>(invalidation.getIds()));
+        }
+        for (Class<?> type : invalidation.getTypesWithoutIds()) {
+            changed.get(type).add(null);
+        }
+        evict(changed);
+    }
+
+    /**
+     * Evicts all cached entities.
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id) {
+        return load(type, id, DEFAULT_LOAD_DEPTH);
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth) {
+        EntityKey key = new EntityKey(type, id, depth);
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        T loaded = delegate.load(type, id, depth);
+        if (loaded != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, FetchPlan fetchPlan) {
+        return delegate.load(type, id, fetchPlan);
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type) {
+        return delegate.loadAll(type);
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, int depth) {
+        return delegate.loadAll(type, depth);
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Collection<T> objects, int depth) {
+        return delegate.loadAll(objects, depth);
+    }
+
+    @Override
+    public <T> T loadByProperty(Class<T> type, String propertyName, Object propertyValue) {
+        return delegate.loadByProperty(type, propertyName, propertyValue);
+    }
+
+    @Override
+    public <T> T loadByProperty(Class<T> type, String propertyName, Object propertyValue, int depth) {
+        return delegate.loadByProperty(type, propertyName, propertyValue, depth);
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperty(Class<T> type, String propertyName, Object propertyValue) {
+        return delegate.loadAllByProperty(type, propertyName, propertyValue);
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperty(Class<T> type, String propertyName, Object propertyValue, int depth) {
+        return delegate.loadAllByProperty(type, propertyName, propertyValue, depth);
+    }
+
+    @Override
+    public <T> T loadByProperties(Class<T> type, Filters parameters) {
+        return delegate.loadByProperties(type, parameters);
+    }
+
+    @Override
+    public <T> T loadByProperties(Class<T> type, Filters parameters, int depth) {
+        return delegate.loadByProperties(type, parameters, depth);
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters) {
+        return delegate.loadAllByProperties(type, parameters);
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters, int depth) {
+        return delegate.loadAllByProperties(type, parameters, depth);
+    }
+
+    @Override
+    public <T> T save(T entity) {
+        try {
+            return delegate.save(entity);
+        } finally {
+            evict(entitiesReachableFrom(entity, -1));
+        }
+    }
+
+    @Override
+    public void delete(Object entity) {
+        Map<Class<?>, Set<Long>> deleted = entitiesReachableFrom(entity, 0);
+        try {
+            delegate.delete(entity);
+        } finally {
+            evict(deleted);
+        }
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        cache.clear();
+    }
+
+    @Override
+    public Result query(String cypherQuery, Map<String, ?> params) {
+        return delegate.query(cypherQuery, params);
+    }
+
+    @Override
+    public <T> T queryForObject(Class<T> entityType, String cypherQuery, Map<String, ?> parameters) {
+        return delegate.queryForObject(entityType, cypherQuery, parameters);
+    }
+
+    @Override
+    public <T> Iterable<T> queryForObjects(Class<T> entityType, String cypherQuery, Map<String, ?> parameters) {
+        return delegate.queryForObjects(entityType, cypherQuery, parameters);
+    }
+
+    @Override
+    public Result query(String cypher, Map<String, ?> parameters, boolean readOnly) {
+        if (!readOnly) {
+            cache.clear();
+        }
+        return delegate.query(cypher, parameters, readOnly);
+    }
+
+    @Override
+    public long count(Class<?> entityClass) {
+        return delegate.count(entityClass);
+    }
+
+    @Override
+    @Deprecated
+    public QueryStatistics execute(String cypherQuery) {
+        cache.clear();
+        return delegate.execute(cypherQuery);
+    }
+
+    @Override
+    @Deprecated
+    public QueryStatistics execute(String cypher, Map<String, Object> parameters) {
+        cache.clear();
+        return delegate.execute(cypher, parameters);
+    }
+
+    /*
+     * Evicts the entries of the changed entities, given by type and ID, where a null ID stands for any entity of its
+     * type, along with the entries loaded beyond depth 0 from whose type a changed type can be reached within their depth.
+     */
+    private void evict(Map<Class<?>, Set<Long>> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        int evicted = 0;
+        for (EntityKey key : cache.keys()) {
+            if (isChanged(key, changed) || key.depth != 0 && reachesAny(key.type, key.depth, changed.keySet())) {
+                cache.remove(key);
+                evicted++;
+            }
+        }
+        logger.debug("Evicted {} cached entities affected by changes to {}", evicted, changed.keySet());
+    }
+
+    private static boolean isChanged(EntityKey key, Map<Class<?>, Set<Long>> changed) {
+        for (Map.Entry<Class<?>, Set<Long>> entry : changed.entrySet()) {
+            if (isRelated(key.type, entry.getKey()) && (entry.getValue().contains(key.id) || entry.getValue().contains(null))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean reachesAny(Class<?> type, int depth, Collection<Class<?>> changedTypes) {
+        Set<Class<?>> reached = new HashSet<>(Collections.<Class<?>>singleton(type));
+        List<Class<?>> frontier = new ArrayList<>(reached);
+        for (int hop = 0; hop < depth && !frontier.isEmpty(); hop++) {
+            List<Class<?>> next = new ArrayList<>();
+            for (Class<?> reachedType : frontier) {
+                for (Class<?> relatedType : relatedTypesOf(reachedType)) {
+                    if (reached.add(relatedType)) {
+                        next.add(relatedType);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        for (Class<?> reachedType : reached) {
+            for (Class<?> changedType : changedTypes) {
+                if (isRelated(reachedType, changedType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * The types related to the given one by a single relationship, where a relationship entity counts as part of the
+     * relationship, so its start and end node types are included along with it.
+     */
+    private Set<Class<?>> relatedTypesOf(Class<?> type) {
+        Set<Class<?>> related = relatedTypes.get(type);
+        if (related == null) {
+            related = new HashSet<>();
+            for (Field field : relationshipFieldsOf(type)) {
+                Class<?> relatedType = elementTypeOf(field);
+                related.add(relatedType);
+                for (Field endpoint : relationshipFieldsOf(relatedType)) {
+                    if (endpoint.isAnnotationPresent(StartNode.class) || endpoint.isAnnotationPresent(EndNode.class)) {
+                        related.add(elementTypeOf(endpoint));
+                    }
+                }
+            }
+            relatedTypes.putIfAbsent(type, related);
+        }
+        return related;
+    }
+
+    /*
+     * Collects the types and IDs of the given entity and, to the given depth, of those it reaches through its
+     * relationships.  Lazy collections that haven't been loaded are skipped, since they can't have changed.
+     */
+    private Map<Class<?>, Set<Long>> entitiesReachableFrom(Object entity, int depth) {
+        Map<Class<?>, Set<Long>> reached = new HashMap<>();
+        Map<Object, Integer> visited = new IdentityHashMap<>();
+        collectEntities(entity, depth, reached, visited);
+        return reached;
+    }
+
+    private void collectEntities(Object value, int depth, Map<Class<?>, Set<Long>> reached, Map<Object, Integer> visited) {
+        if (value == null || value instanceof LazyRelationshipCollection && !((LazyRelationshipCollection) value).isLoaded()) {
+            return;
+        }
+        if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                collectEntities(element, depth, reached, visited);
+            }
+            return;
+        }
+        if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                collectEntities(Array.get(value, i), depth, reached, visited);
+            }
+            return;
+        }
+        ClassInfo classInfo = metaData.classInfo(value.getClass().getName());
+        Integer visitedDepth = visited.get(value);
+        if (classInfo == null || visitedDepth != null && (visitedDepth < 0 || depth >= 0 && visitedDepth >= depth)) {
+            return;
+        }
+        visited.put(value, depth);
+        Set<Long> ids = reached.get(value.getClass());
+        if (ids == null) {
+            ids = new HashSet<>();
+            reached.put(value.getClass(), ids);
+        }
+        ids.add(idOf(classInfo, value));
+        if (depth != 0) {
+            for (Field field : relationshipFieldsOf(value.getClass())) {
+                collectEntities(ReflectionUtils.getField(field, value), depth - 1, reached, visited);
+            }
+        }
+    }
+
+    private Long idOf(ClassInfo classInfo, Object entity) {
+        FieldInfo identityField = classInfo.identityField();
+        if (identityField == null) {
+            return null;
+        }
+        Field idField = classInfo.getField(identityField);
+        ReflectionUtils.makeAccessible(idField);
+        return (Long) ReflectionUtils.getField(idField, entity);
+    }
+
+    private List<Field> relationshipFieldsOf(Class<?> type) {
+        ClassInfo classInfo = metaData.classInfo(type.getName());
+        if (classInfo == null) {
+            return Collections.emptyList();
+        }
+        List<Field> fields = new ArrayList<>();
+        for (FieldInfo fieldInfo : classInfo.relationshipFields()) {
+            Field field = classInfo.getField(fieldInfo);
+            ReflectionUtils.makeAccessible(field);
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static Class<?> elementTypeOf(Field field) {
+        ResolvableType type = ResolvableType.forField(field);
+        if (type.isArray()) {
+            return type.getComponentType().resolve(Object.class);
+        }
+        if (type.asCollection() != ResolvableType.NONE) {
+            return type.asCollection().getGeneric(0).resolve(Object.class);
+        }
+        return type.resolve(Object.class);
+    }
+
+    private static boolean isRelated(Class<?> cachedType, Class<?> changedType) {
+        return cachedType.isAssignableFrom(changedType) || changedType.isAssignableFrom(cachedType);
+    }
+
+    private static final class EntityKey {
+
+        private final Class<?> type;
+        private final Long id;
+        private final int depth;
+
+        EntityKey(Class<?> type, Long id, int depth) {
+            this.type = type;
+            this.id = id;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntityKey)) {
+                return false;
+            }
+            EntityKey other = (EntityKey) o;
+            return depth == other.depth && type.equals(other.type) && (id == null ? other.id == null : id.equals(other.id));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + (id != null ? id.hashCode() : 0);
+            result = 31 * result + depth;
+            return result;
+        }
+    }
+
+}
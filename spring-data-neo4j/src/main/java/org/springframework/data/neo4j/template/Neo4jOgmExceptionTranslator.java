@@ -19,39 +19,169 @@ import org.neo4j.ogm.exception.ResultProcessingException;
 import org.neo4j.ogm.exception.TransactionException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
-import org.springframework.transaction.NoTransactionException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Translates exceptions thrown by the OGM into Spring's {@link DataAccessException} hierarchy.
+ * <p>
+ * Translation is driven by a table that maps OGM exception classes onto the kind of {@link DataAccessException} to
+ * create.  The result of resolving an exception class against that table, including the absence of any translation,
+ * is cached per class, so translating an exception costs a map lookup and never involves throwing anything.
+ * </p>
+ * <p>
+ * Failures that may well succeed if the unit of work is simply tried again - deadlocks, cluster leader switches,
+ * unavailable databases and dropped connections - are translated into subclasses of
+ * {@link org.springframework.dao.TransientDataAccessException} so that callers can retry them.  See
+ * {@link #isTransient(Throwable)}.
+ * </p>
+ *
  * @author Luanne Misquitta
  */
 public class Neo4jOgmExceptionTranslator {
 
-	public static DataAccessException translateExceptionIfPossible(Exception ex) {
-		try {
-			throw (RuntimeException) ex;
+	/*
+	 * Neo4j status codes or fragments of them, as reported in server error messages, that denote failures worth retrying.
+	 */
+	private static final String[] TRANSIENT_STATUS_CODES = {
+			"Neo.TransientError.", "DeadlockDetected", "NotALeader", "LeaderSwitch", "DatabaseUnavailable"
+	};
+
+	private static final String[] DEADLOCK_STATUS_CODES = { "DeadlockDetected" };
+
+	private static final Map<Class<?>, Translation> TRANSLATIONS = new LinkedHashMap<>();
+	private static final ConcurrentMap<Class<?>, Translation> RESOLVED_TRANSLATIONS = new ConcurrentHashMap<>();
+
+	static {
+		TRANSLATIONS.put(NotFoundException.class, Translation.DATA_RETRIEVAL_FAILURE);
+		TRANSLATIONS.put(InvalidDepthException.class, Translation.INVALID_API_USAGE);
+		TRANSLATIONS.put(ResultProcessingException.class, Translation.DATA_RETRIEVAL_FAILURE);
+		TRANSLATIONS.put(TransactionException.class, Translation.INVALID_API_USAGE);
+	}
+
+	/**
+	 * Determines whether the given exception, or any exception in its cause chain, represents a transient failure
+	 * that might not occur if the failed operation is tried again.
+	 *
+	 * @param ex The exception to classify
+	 * @return <code>true</code> if the failure is transient, <code>false</code> if it's likely to be permanent
+	 */
+	public static boolean isTransient(Throwable ex) {
+		for (Throwable t = ex; t != null; t = (t.getCause() == t ? null : t.getCause())) {
+			if (t instanceof SocketException || t instanceof InterruptedIOException
+					|| t.getClass().getName().endsWith("NoHttpResponseException")) {
+				return true;
+			}
+			if (containsStatusCode(t.getMessage(), TRANSIENT_STATUS_CODES)) {
+				return true;
+			}
 		}
+		return false;
+	}
 
-		catch(NotFoundException nfe) {
-			throw new DataRetrievalFailureException(nfe.getMessage(), nfe);
+	/**
+	 * Translates the given OGM exception into the corresponding {@link DataAccessException}, if there is one.
+	 *
+	 * @param ex The exception to translate
+	 * @return The translated {@link DataAccessException} or <code>null</code> if the given exception is already a
+	 *         {@link DataAccessException} or isn't one that can be translated
+	 */
+	public static DataAccessException translateExceptionIfPossible(Exception ex) {
+		if (!(ex instanceof RuntimeException) || ex instanceof DataAccessException) {
+			return null;
 		}
+		RuntimeException runtimeException = (RuntimeException) ex;
 
-		catch(InvalidDepthException ide) {
-			throw new InvalidDataAccessApiUsageException(ide.getMessage(), ide);
+		if (isTransient(runtimeException)) {
+			return isDeadlock(runtimeException)
+					? Translation.DEADLOCK.translate(runtimeException)
+					: Translation.TRANSIENT_RESOURCE_FAILURE.translate(runtimeException);
 		}
+		return resolveTranslation(runtimeException.getClass()).translate(runtimeException);
+	}
 
-		catch(ResultProcessingException rpe) {
-			throw new DataRetrievalFailureException(rpe.getMessage(), rpe);
+	private static Translation resolveTranslation(Class<?> exceptionClass) {
+		Translation translation = RESOLVED_TRANSLATIONS.get(exceptionClass);
+		if (translation == null) {
+			translation = Translation.NONE;
+			for (Class<?> type = exceptionClass; type != null; type = type.getSuperclass()) {
+				Translation registered = TRANSLATIONS.get(type);
+				if (registered != null) {
+					translation = registered;
+					break;
+				}
+			}
+			RESOLVED_TRANSLATIONS.putIfAbsent(exceptionClass, translation);
 		}
+		return translation;
+	}
 
-		catch(TransactionException te) {
-			throw new NoTransactionException(te.getMessage(), te);
+	private static boolean isDeadlock(Throwable ex) {
+		for (Throwable t = ex; t != null; t = (t.getCause() == t ? null : t.getCause())) {
+			if (containsStatusCode(t.getMessage(), DEADLOCK_STATUS_CODES)) {
+				return true;
+			}
 		}
+		return false;
+	}
 
-		catch(RuntimeException e) {
-			throw e;
+	private static boolean containsStatusCode(String message, String[] statusCodes) {
+		if (message != null) {
+			for (String statusCode : statusCodes) {
+				if (message.contains(statusCode)) {
+					return true;
+				}
+			}
 		}
+		return false;
 	}
 
+	private enum Translation {
+
+		DATA_RETRIEVAL_FAILURE {
+			@Override
+			DataAccessException translate(RuntimeException ex) {
+				return new DataRetrievalFailureException(ex.getMessage(), ex);
+			}
+		},
+
+		INVALID_API_USAGE {
+			@Override
+			DataAccessException translate(RuntimeException ex) {
+				return new InvalidDataAccessApiUsageException(ex.getMessage(), ex);
+			}
+		},
+
+		DEADLOCK {
+			@Override
+			DataAccessException translate(RuntimeException ex) {
+				return new DeadlockLoserDataAccessException(ex.getMessage(), ex);
+			}
+		},
+
+		TRANSIENT_RESOURCE_FAILURE {
+			@Override
+			DataAccessException translate(RuntimeException ex) {
+				return new TransientDataAccessResourceException(ex.getMessage(), ex);
+			}
+		},
+
+		NONE {
+			@Override
+			DataAccessException translate(RuntimeException ex) {
+				return null;
+			}
+		};
+
+		abstract DataAccessException translate(RuntimeException ex);
+	}
 
 }
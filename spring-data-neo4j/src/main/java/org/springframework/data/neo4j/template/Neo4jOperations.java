@@ -19,6 +19,7 @@ import org.neo4j.ogm.exception.NotFoundException;
 import org.neo4j.ogm.model.Query;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.model.QueryStatistics;
+import org.springframework.data.neo4j.mapping.FetchPlan;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -54,6 +55,17 @@ public interface Neo4jOperations {
      */
     <T> T load(Class<T> type, Long id, int depth);
 
+    /**
+     * Loads an entity of type T that matches the specified ID together with the relationship paths of the given
+     * {@link FetchPlan}, and no others.
+     *
+     * @param type      The type of entity to load
+     * @param id        The ID of the node to match
+     * @param fetchPlan The {@link FetchPlan} listing the relationship paths to load
+     * @return The instance of T loaded from the database that matches the specified ID or <code>null</code> if no match is found
+     */
+    <T> T load(Class<T> type, Long id, FetchPlan fetchPlan);
+
     /**
      * Retrieves all the entities of the given class in the database hydrated to the default depth.
      *
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Base class of the {@link MethodInterceptor}s that decorate every operation of a {@link Neo4jOperations}, such as to
+ * record metrics or trace it, without having to implement the whole interface again.  Each operation is described by its
+ * name, <code>Neo4jOperations.operation</code>, the entity type on which it acts where that's known, and the Cypher
+ * statement of queries.  {@link Neo4jOperations#clear()} and the methods of {@link Object} aren't decorated.
+ * <p>
+ * Use {@link #decorate(Neo4jOperations, MethodInterceptor...)} to apply one or more interceptors to a template that isn't
+ * a bean; the {@link Neo4jOperationsPostProcessor} decorates template beans once they've received their collaborators.
+ * </p>
+ */
+public abstract class Neo4jOperationsInterceptor implements MethodInterceptor {
+
+    private static final String PREFIX = "Neo4jOperations.";
+
+    /**
+     * Decorates the given {@link Neo4jOperations} with the given interceptors, which are applied in the order given.
+     *
+     * @param operations The {@link Neo4jOperations} to which all operations are ultimately delegated
+     * @param interceptors The {@link MethodInterceptor}s to apply to the operations
+     * @return A {@link Neo4jOperations} proxy that applies the interceptors to the given {@link Neo4jOperations}
+     */
+    public static Neo4jOperations decorate(Neo4jOperations operations, MethodInterceptor... interceptors) {
+        Assert.notNull(operations, "Cannot decorate null Neo4jOperations!");
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(operations);
+        proxyFactory.addInterface(Neo4jOperations.class);
+        for (MethodInterceptor interceptor : interceptors) {
+            proxyFactory.addAdvice(interceptor);
+        }
+        return (Neo4jOperations) proxyFactory.getProxy(Neo4jOperations.class.getClassLoader());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() != Neo4jOperations.class || method.getName().equals("clear")) {
+            return invocation.proceed();
+        }
+        Object[] arguments = invocation.getArguments();
+        return invoke(invocation, PREFIX + method.getName(), entityTypeOf(arguments), statementOf(method, arguments));
+    }
+
+    /**
+     * Decorates one operation, which is performed by proceeding with the given invocation.
+     *
+     * @param invocation The {@link MethodInvocation} of the operation
+     * @param operation The name of the operation, such as <code>Neo4jOperations.load</code>
+     * @param entityType The entity type on which the operation acts, or <code>null</code> if it isn't known
+     * @param statement The Cypher statement of a query, or <code>null</code> for other operations
+     * @return The result of the operation
+     * @throws Throwable if the operation fails
+     */
+    protected abstract Object invoke(MethodInvocation invocation, String operation, Class<?> entityType, String statement)
+            throws Throwable;
+
+    /**
+     * Proceeds with the given invocation, returning the entities on which the operation acted in place of the result of
+     * operations that don't return one, so that a delete can be counted like a save.
+     *
+     * @param invocation The {@link MethodInvocation} of the operation
+     * @return The result of the operation, or its first argument if the operation is <code>void</code>
+     * @throws Throwable if the operation fails
+     */
+    protected static Object proceed(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        return invocation.getMethod().getReturnType() == void.class ? invocation.getArguments()[0] : result;
+    }
+
+    private static Class<?> entityTypeOf(Object[] arguments) {
+        if (arguments.length == 0 || arguments[0] instanceof String) {
+            return null;
+        }
+        return arguments[0] instanceof Class ? (Class<?>) arguments[0] : typeOf(arguments[0]);
+    }
+
+    private static String statementOf(Method method, Object[] arguments) {
+        if (!method.getName().startsWith("query") && !method.getName().equals("execute")) {
+            return null;
+        }
+        for (Object argument : arguments) {
+            if (argument instanceof String) {
+                return (String) argument;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> typeOf(Object entity) {
+        if (entity instanceof Collection) {
+            Collection<?> entities = (Collection<?>) entity;
+            return entities.isEmpty() ? null : typeOf(entities.iterator().next());
+        }
+        return entity != null ? entity.getClass() : null;
+    }
+
+}
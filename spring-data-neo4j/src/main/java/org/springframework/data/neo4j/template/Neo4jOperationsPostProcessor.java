@@ -0,0 +1,110 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+
+package org.springframework.data.neo4j.template;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.neo4j.diagnostics.Neo4jOperationsRepeatedQueryInterceptor;
+import org.springframework.data.neo4j.diagnostics.RepeatedQueryDetector;
+import org.springframework.data.neo4j.metrics.MetricsRegistry;
+import org.springframework.data.neo4j.metrics.Neo4jOperationsMetricsInterceptor;
+import org.springframework.data.neo4j.tracing.Neo4jOperationsTracingInterceptor;
+import org.springframework.data.neo4j.tracing.NoopTracer;
+import org.springframework.data.neo4j.tracing.Tracer;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BeanPostProcessor} that decorates each {@link Neo4jTemplate} bean with the {@link Neo4jOperationsInterceptor}s
+ * of the optional collaborators defined in the same application context, much as repositories are decorated by their
+ * factory: a {@link Neo4jOperationsMetricsInterceptor} if there's a {@link MetricsRegistry}, a
+ * {@link Neo4jOperationsTracingInterceptor} if the {@link Tracer} isn't a {@link NoopTracer} and a
+ * {@link Neo4jOperationsRepeatedQueryInterceptor} if there's a {@link RepeatedQueryDetector}.
+ * <p>
+ * The template is decorated after it has been initialised, so it still receives its
+ * {@link org.springframework.context.ApplicationEventPublisher} and its optional collaborators, while the beans into which
+ * it's injected get the decorated {@link Neo4jOperations}.  <code>Neo4jConfiguration</code> defines one by default.
+ * </p>
+ *
+ * @see Neo4jOperationsInterceptor#decorate(Neo4jOperations, MethodInterceptor...)
+ */
+public class Neo4jOperationsPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4jOperationsPostProcessor.class);
+
+    private ListableBeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        Assert.isInstanceOf(ListableBeanFactory.class, beanFactory,
+                "Cannot look up the collaborators of templates in a bean factory that cannot list its beans. ");
+        this.beanFactory = (ListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof Neo4jTemplate)) {
+            return bean;
+        }
+        List<MethodInterceptor> interceptors = interceptors();
+        if (interceptors.isEmpty()) {
+            return bean;
+        }
+        logger.debug("Decorating {} with {} interceptors", beanName, interceptors.size());
+        return Neo4jOperationsInterceptor.decorate((Neo4jOperations) bean, interceptors.toArray(new MethodInterceptor[interceptors.size()]));
+    }
+
+    /**
+     * @return The {@link MethodInterceptor}s with which to decorate templates, outermost first
+     */
+    protected List<MethodInterceptor> interceptors() {
+        List<MethodInterceptor> interceptors = new ArrayList<>();
+        MetricsRegistry metricsRegistry = uniqueBean(MetricsRegistry.class);
+        if (metricsRegistry != null) {
+            interceptors.add(new Neo4jOperationsMetricsInterceptor(metricsRegistry));
+        }
+        Tracer tracer = uniqueBean(Tracer.class);
+        if (!NoopTracer.isNoop(tracer)) {
+            interceptors.add(new Neo4jOperationsTracingInterceptor(tracer));
+        }
+        RepeatedQueryDetector repeatedQueryDetector = uniqueBean(RepeatedQueryDetector.class);
+        if (repeatedQueryDetector != null) {
+            interceptors.add(new Neo4jOperationsRepeatedQueryInterceptor(repeatedQueryDetector));
+        }
+        return interceptors;
+    }
+
+    /*
+     * Resolves an optional collaborator as @Autowired(required = false) would, ignoring it if there's more than one.
+     */
+    private <T> T uniqueBean(Class<T> type) {
+        String[] beanNames = beanFactory.getBeanNamesForType(type);
+        return beanNames.length == 1 ? beanFactory.getBean(beanNames[0], type) : null;
+    }
+
+}
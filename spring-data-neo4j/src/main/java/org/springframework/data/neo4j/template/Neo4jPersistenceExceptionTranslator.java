@@ -0,0 +1,85 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PersistenceExceptionTranslator} that applies {@link Neo4jOgmExceptionTranslator} to exceptions intercepted on
+ * repositories and templates.
+ * <p>
+ * Intercepted exceptions are reported at INFO level at most once per logging interval, together with the number of
+ * exceptions intercepted since the previous report, so that a burst of failures - a server restart, for instance -
+ * doesn't turn into a burst of log output on every call.
+ * </p>
+ */
+public class Neo4jPersistenceExceptionTranslator implements PersistenceExceptionTranslator {
+
+    private static final Logger logger = LoggerFactory.getLogger(Neo4jPersistenceExceptionTranslator.class);
+
+    private static final long DEFAULT_LOG_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final long logIntervalMillis;
+    private final AtomicLong nextLogTime = new AtomicLong();
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    /**
+     * Constructs a new {@link Neo4jPersistenceExceptionTranslator} that reports intercepted exceptions at most once
+     * every ten seconds.
+     */
+    public Neo4jPersistenceExceptionTranslator() {
+        this(DEFAULT_LOG_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a new {@link Neo4jPersistenceExceptionTranslator} that reports intercepted exceptions at most once per
+     * the given interval.
+     *
+     * @param logIntervalMillis The minimum number of milliseconds between two reports
+     */
+    public Neo4jPersistenceExceptionTranslator(long logIntervalMillis) {
+        this.logIntervalMillis = logIntervalMillis;
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException e) {
+        logInterceptedException(e);
+        return Neo4jOgmExceptionTranslator.translateExceptionIfPossible(e);
+    }
+
+    private void logInterceptedException(RuntimeException e) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long next = nextLogTime.get();
+        if (now < next || !nextLogTime.compareAndSet(next, now + logIntervalMillis)) {
+            suppressedCount.incrementAndGet();
+            return;
+        }
+        long suppressed = suppressedCount.getAndSet(0);
+        if (suppressed > 0) {
+            logger.info("Intercepted exception: {} ({} more intercepted since the last report)", e.toString(), suppressed);
+        } else {
+            logger.info("Intercepted exception: {}", e.toString());
+        }
+    }
+
+}
@@ -25,9 +25,16 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.neo4j.event.*;
+import org.springframework.data.neo4j.mapping.EntityStateTracker;
+import org.springframework.data.neo4j.mapping.FetchPlan;
+import org.springframework.data.neo4j.mapping.LazyRelationshipLoader;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.mapping.OptimisticLocking;
+import org.springframework.data.neo4j.transaction.WriteBehindQueue;
 import org.springframework.util.Assert;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.springframework.data.neo4j.util.IterableUtils.getSingle;
@@ -42,6 +49,21 @@ import static org.springframework.data.neo4j.util.IterableUtils.getSingleOrNull;
  * Note that this class also implements {@link ApplicationEventPublisherAware} and will publish events before data manipulation
  * operations - specifically delete and save.
  * </p>
+ * <p>
+ * If the current transaction runs in write-behind mode then saves and deletes are queued on its {@link WriteBehindQueue},
+ * and their after-events are published once they've been sent.  Loads, counts and Cypher queries flush that queue
+ * before they're executed.
+ * </p>
+ * <p>
+ * If it's given an {@link EntityStateTracker} then saving an entity that hasn't changed since it was loaded or last saved
+ * through this template is skipped, and saving one whose simple properties alone have changed only writes those.
+ * If it's given a {@link LazyRelationshipLoader} then the relationships beyond the depth to which entities are loaded
+ * are loaded on first access.
+ * </p>
+ * <p>
+ * Given the {@link Neo4jMappingContext}, entities with a version property annotated with Spring Data's
+ * <code>&#064;Version</code> are subject to {@link OptimisticLocking} when they're saved or deleted.
+ * </p>
  * Please note also that all methods on this class throw a {@link DataAccessException} if any underlying {@code Exception} is
  * thrown. Since {@link DataAccessException} is a runtime exception, this is not documented at the method level.
  *
@@ -53,6 +75,10 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     private final Session session;
     private ApplicationEventPublisher applicationEventPublisher;
+    private EntityStateTracker entityStateTracker;
+    private OptimisticLocking optimisticLocking;
+    private Neo4jMappingContext mappingContext;
+    private LazyRelationshipLoader lazyRelationshipLoader;
 
     /**
      * Constructs a new {@link Neo4jTemplate} based on the given Neo4j OGM {@link Session}.
@@ -70,41 +96,84 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
+    /**
+     * @param mappingContext The {@link Neo4jMappingContext} that describes the persistent entities, from which the version
+     *        properties used for {@link OptimisticLocking} are resolved and against which fetch plans are resolved, or
+     *        <code>null</code> to disable optimistic locking and take the paths of fetch plans as relationship types
+     */
+    @Autowired(required = false)
+    public void setMappingContext(Neo4jMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+        this.optimisticLocking = mappingContext != null ? new OptimisticLocking(mappingContext) : null;
+    }
+
+    /**
+     * @param entityStateTracker The {@link EntityStateTracker} used to save only what has changed since an entity was
+     *        loaded or last saved, or <code>null</code> to always save entities in full
+     */
+    @Autowired(required = false)
+    public void setEntityStateTracker(EntityStateTracker entityStateTracker) {
+        this.entityStateTracker = entityStateTracker;
+    }
+
+    /**
+     * @param lazyRelationshipLoader The {@link LazyRelationshipLoader} that puts lazy collections in place of the
+     *        relationships beyond the depth to which entities are loaded, or <code>null</code> to leave them empty
+     */
+    @Autowired(required = false)
+    public void setLazyRelationshipLoader(LazyRelationshipLoader lazyRelationshipLoader) {
+        this.lazyRelationshipLoader = lazyRelationshipLoader;
+    }
+
     @Override
     public <T> T load(Class<T> type, Long id) {
-        return session.load(type, id);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.load(type, id), 1);
     }
 
     @Override
     public <T> T load(Class<T> type, Long id, int depth) {
-        return session.load(type, id, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.load(type, id, depth), depth);
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, FetchPlan fetchPlan) {
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(fetchPlan.load(session, mappingContext, type, id), fetchPlan.getDepth());
     }
 
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids) {
-        return session.loadAll(type, ids);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, ids), 1);
     }
 
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth) {
-        return session.loadAll(type, ids, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, ids, depth), depth);
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type) {
-        return session.loadAll(type);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type), 1);
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type, int depth) {
-        return session.loadAll(type, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, depth), depth);
     }
 
     public <T> Collection<T> loadAll(Collection<T> objects) {
-        return session.loadAll(objects);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(objects), 1);
     }
 
     @Override
     public <T> Collection<T> loadAll(Collection<T> objects, int depth) {
-        return session.loadAll(objects, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(objects, depth), depth);
     }
 
     @Override
@@ -123,7 +192,8 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     @Override
     public <T> Collection<T> loadAllByProperty(Class<T> type, String name, Object value) {
-        return session.loadAll(type, new Filter(name, value));
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, new Filter(name, value)), 1);
     }
 
     @Override
@@ -143,36 +213,62 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     @Override
     public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters, int depth) {
-        return session.loadAll(type, parameters, depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, parameters, depth), depth);
     }
 
     public <T> Collection<T> loadAllByProperty(Class<T> type, String name, Object value, int depth) {
-        return session.loadAll(type, new Filter(name, value), depth);
+        WriteBehindQueue.flushPendingWrites(session);
+        return loaded(session.loadAll(type, new Filter(name, value), depth), depth);
     }
 
     @Override
     public void delete(Object entity) {
         publishEvent(new BeforeDeleteEvent(this, entity));
-        session.delete(entity);
-        publishEvent(new AfterDeleteEvent(this, entity));
+        if (entityStateTracker != null) {
+            entityStateTracker.forget(entity);
+        }
+        OptimisticLocking.VersionCheck versionCheck = beforeDelete(entity);
+        Long id = session.resolveGraphIdFor(entity);
+        WriteBehindQueue writeBehindQueue = WriteBehindQueue.forSession(session);
+        try {
+            if (writeBehindQueue != null) {
+                writeBehindQueue.delete(entity, publishing(new AfterDeleteEvent(this, entity, id)));
+            } else {
+                session.delete(entity);
+            }
+            versionCheck.completed();
+        } catch (RuntimeException e) {
+            versionCheck.failed();
+            throw e;
+        }
+        if (writeBehindQueue == null) {
+            publishEvent(new AfterDeleteEvent(this, entity, id));
+        }
     }
 
     @Override
     public void clear() {
         session.clear();
+        if (entityStateTracker != null) {
+            entityStateTracker.clear();
+        }
     }
 
     public <T> void deleteAll(Class<T> type) {
+        WriteBehindQueue.flushPendingWrites(session);
         session.deleteAll(type);
     }
 
     @Override
     public QueryStatistics execute(String jsonStatements) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.query(jsonStatements, Utils.map()).queryStatistics();
     }
 
     @Override
     public QueryStatistics execute(String cypher, Map<String, Object> parameters) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.query(cypher, parameters).queryStatistics();
     }
 
@@ -182,47 +278,136 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     @Override
     public <T> T save(T entity) {
-        publishEvent(new BeforeSaveEvent(this, entity));
-        session.save(entity);
-        publishEvent(new AfterSaveEvent(this, entity));
-        return entity;
+        return save(entity, WriteBehindQueue.DEFAULT_SAVE_DEPTH);
     }
 
     public <T> T save(T entity, int depth) {
         publishEvent(new BeforeSaveEvent(this, entity));
-        session.save(entity, depth);
-        publishEvent(new AfterSaveEvent(this, entity));
+        EntityStateTracker.Changes changes = changesOf(entity, depth);
+        if (changes != null && changes.isEmpty()) {
+            // an unmodified entity isn't written, so its version needn't be checked either
+            publishEvent(new AfterSaveEvent(this, entity, session.resolveGraphIdFor(entity), Collections.<String, Object>emptyMap()));
+            return entity;
+        }
+        OptimisticLocking.VersionCheck versionCheck = beforeSave(entity);
+        Map<String, Object> changedProperties;
+        try {
+            if (versionCheck.incrementVersion()) {
+                // the new version is one of the changes to write
+                changes = changesOf(entity, depth);
+            }
+            changedProperties = changedPropertiesOf(entity);
+            WriteBehindQueue writeBehindQueue = WriteBehindQueue.forSession(session);
+            if (writeBehindQueue != null) {
+                writeBehindQueue.save(entity, depth, publishingAfterSave(entity, changedProperties));
+                versionCheck.completed();
+                return track(entity, depth);
+            }
+            if (changes != null) {
+                changes.apply(session);
+            } else {
+                session.save(entity, depth);
+            }
+            versionCheck.completed();
+        } catch (RuntimeException e) {
+            versionCheck.failed();
+            throw e;
+        }
+        track(entity, depth);
+        publishEvent(new AfterSaveEvent(this, entity, session.resolveGraphIdFor(entity), changedProperties));
         return entity;
     }
 
     @Override
     public Result query(String cypher, Map<String, ?> parameters) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.query(cypher, parameters);
     }
 
     @Override
     public <T> Iterable<T> queryForObjects(Class<T> objectType, String cypher, Map<String, ?> parameters) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.query(objectType, cypher, parameters);
     }
 
     @Override
     public Result query(String cypher, Map<String, ?> parameters, boolean readOnly) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.query(cypher, parameters, readOnly);
     }
 
     @Override
     public <T> T queryForObject(Class<T> objectType, String cypher, Map<String, ?> parameters) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.queryForObject(objectType, cypher, parameters);
     }
 
     @Override
     public long count(Class<?> entityClass) {
+        WriteBehindQueue.flushPendingWrites(session);
         return session.countEntitiesOfType(entityClass);
     }
 
+    private <T> T loaded(T entities, int depth) {
+        if (lazyRelationshipLoader != null) {
+            lazyRelationshipLoader.attach(session, entities, depth);
+        }
+        return track(entities, depth);
+    }
+
+    private <T> T track(T entities, int depth) {
+        if (entityStateTracker != null) {
+            entityStateTracker.snapshot(entities, depth);
+        }
+        return entities;
+    }
+
+    /*
+     * The event is only created once the save has been flushed, when the graph ID of a new entity is known.
+     */
+    private Runnable publishingAfterSave(final Object entity, final Map<String, Object> changedProperties) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                publishEvent(new AfterSaveEvent(Neo4jTemplate.this, entity, session.resolveGraphIdFor(entity), changedProperties));
+            }
+        };
+    }
+
+    /*
+     * Captured before the entity is written, while its snapshot still describes the state it was loaded in.
+     */
+    private Map<String, Object> changedPropertiesOf(Object entity) {
+        return entityStateTracker != null ? entityStateTracker.changedPropertiesOf(entity) : null;
+    }
+
+    private EntityStateTracker.Changes changesOf(Object entities, int depth) {
+        return entityStateTracker != null ? entityStateTracker.changesOf(entities, depth) : null;
+    }
+
+    private OptimisticLocking.VersionCheck beforeSave(Object entity) {
+        return optimisticLocking != null ? optimisticLocking.beforeSave(session, entity) : OptimisticLocking.VersionCheck.NONE;
+    }
+
+    private OptimisticLocking.VersionCheck beforeDelete(Object entity) {
+        return optimisticLocking != null ? optimisticLocking.beforeDelete(session, entity) : OptimisticLocking.VersionCheck.NONE;
+    }
+
+    private Runnable publishing(final Neo4jDataManipulationEvent event) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                publishEvent(event);
+            }
+        };
+    }
+
     private void publishEvent(Neo4jDataManipulationEvent event) {
         if (this.applicationEventPublisher != null) {
-            this.applicationEventPublisher.publishEvent(event);
+            DataManipulationEventBatch eventBatch = DataManipulationEventBatch.forSession(session);
+            if (eventBatch == null || !eventBatch.add(this.applicationEventPublisher, event)) {
+                this.applicationEventPublisher.publishEvent(event);
+            }
         }
     }
 
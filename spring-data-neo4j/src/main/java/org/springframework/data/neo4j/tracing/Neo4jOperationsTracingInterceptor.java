@@ -0,0 +1,54 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.neo4j.template.Neo4jOperationsInterceptor;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Neo4jOperationsInterceptor} that opens a {@link Span} named <code>Neo4jOperations.operation</code> around every
+ * template operation, with the entity type where it's known, the Cypher statement of queries and the number of results
+ * as attributes.
+ * <p>
+ * The {@link org.springframework.data.neo4j.template.Neo4jOperationsPostProcessor} applies it to the templates of an
+ * application context whose {@link Tracer} isn't a {@link NoopTracer}.
+ * </p>
+ */
+public class Neo4jOperationsTracingInterceptor extends Neo4jOperationsInterceptor {
+
+    private final Tracer tracer;
+
+    /**
+     * Constructs a new {@link Neo4jOperationsTracingInterceptor}.
+     *
+     * @param tracer The {@link Tracer} through which to open spans
+     */
+    public Neo4jOperationsTracingInterceptor(Tracer tracer) {
+        Assert.notNull(tracer, "Cannot create a Neo4jOperationsTracingInterceptor without a Tracer!");
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected Object invoke(MethodInvocation invocation, String operation, Class<?> entityType, String statement)
+            throws Throwable {
+        TracedOperation tracedOperation = new TracedOperation(tracer, operation, entityType, statement);
+        try {
+            return tracedOperation.succeeded(proceed(invocation));
+        } catch (Throwable e) {
+            throw tracedOperation.failed(e);
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+/**
+ * {@link Tracer} that records nothing, used when no tracer is configured.  Components check for it in order to avoid
+ * even the cost of opening empty spans.
+ */
+public final class NoopTracer implements Tracer {
+
+    /**
+     * The shared instance of {@link NoopTracer}.
+     */
+    public static final NoopTracer INSTANCE = new NoopTracer();
+
+    private static final Span NOOP_SPAN = new Span() {
+        @Override
+        public Span setAttribute(String key, String value) {
+            return this;
+        }
+
+        @Override
+        public Span setAttribute(String key, long value) {
+            return this;
+        }
+
+        @Override
+        public Span recordException(Throwable exception) {
+            return this;
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private NoopTracer() {
+    }
+
+    @Override
+    public Span startSpan(String name) {
+        return NOOP_SPAN;
+    }
+
+    /**
+     * @param tracer A {@link Tracer}, which may be <code>null</code>
+     * @return <code>true</code> if the given tracer is <code>null</code> or records nothing, <code>false</code> otherwise
+     */
+    public static boolean isNoop(Tracer tracer) {
+        return tracer == null || tracer == INSTANCE;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link MethodInterceptor} applied to repository proxies, which opens a {@link Span} named
+ * <code>RepositoryInterface.method</code> around every repository method invocation.  The span carries the repository's
+ * domain type, the Cypher statement of <code>&#064;Query</code> methods and the number of results.
+ */
+public class RepositoryTracingInterceptor implements MethodInterceptor {
+
+    private final Tracer tracer;
+    private final String repositoryName;
+    private final Class<?> domainType;
+
+    /**
+     * Constructs a new {@link RepositoryTracingInterceptor}.
+     *
+     * @param tracer The {@link Tracer} through which to open spans
+     * @param repositoryInterface The repository interface whose methods are intercepted
+     * @param domainType The domain type managed by the repository
+     */
+    public RepositoryTracingInterceptor(Tracer tracer, Class<?> repositoryInterface, Class<?> domainType) {
+        Assert.notNull(tracer, "Cannot create a RepositoryTracingInterceptor without a Tracer!");
+        this.tracer = tracer;
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.domainType = domainType;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Query query = AnnotationUtils.findAnnotation(method, Query.class);
+        TracedOperation operation = new TracedOperation(tracer, repositoryName + "." + method.getName(), domainType,
+                query != null ? query.value() : null);
+        try {
+            return operation.succeeded(invocation.proceed());
+        } catch (Throwable e) {
+            throw operation.failed(e);
+        }
+    }
+
+}
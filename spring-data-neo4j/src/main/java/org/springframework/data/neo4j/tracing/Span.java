@@ -0,0 +1,69 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+/**
+ * A traced operation started by a {@link Tracer}.  The attribute keys used by Spring Data Neo4j follow the
+ * OpenTelemetry semantic conventions for database calls where there is one.
+ */
+public interface Span {
+
+    /**
+     * The attribute naming the database system, which is always <code>neo4j</code>.
+     */
+    String DB_SYSTEM = "db.system";
+
+    /**
+     * The attribute holding the Cypher statement executed, with parameter placeholders rather than values.
+     */
+    String DB_STATEMENT = "db.statement";
+
+    /**
+     * The attribute holding the fully-qualified name of the entity type on which the operation acted.
+     */
+    String ENTITY_TYPE = "neo4j.entity.type";
+
+    /**
+     * The attribute holding the number of entities or rows returned by the operation.
+     */
+    String ROW_COUNT = "neo4j.row.count";
+
+    /**
+     * @param key The attribute key
+     * @param value The attribute value
+     * @return This {@link Span}
+     */
+    Span setAttribute(String key, String value);
+
+    /**
+     * @param key The attribute key
+     * @param value The attribute value
+     * @return This {@link Span}
+     */
+    Span setAttribute(String key, long value);
+
+    /**
+     * Records that the operation failed with the given exception.
+     *
+     * @param exception The exception thrown by the operation
+     * @return This {@link Span}
+     */
+    Span recordException(Throwable exception);
+
+    /**
+     * Marks the end of the operation.
+     */
+    void end();
+
+}
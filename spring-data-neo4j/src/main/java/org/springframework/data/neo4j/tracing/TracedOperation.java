@@ -0,0 +1,48 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+import org.springframework.data.neo4j.util.ResultRows;
+
+/**
+ * Opens a {@link Span} for one execution of an operation and ends it on completion, recording the outcome.
+ */
+final class TracedOperation {
+
+    private final Span span;
+
+    TracedOperation(Tracer tracer, String name, Class<?> entityType, String statement) {
+        this.span = tracer.startSpan(name);
+        span.setAttribute(Span.DB_SYSTEM, "neo4j");
+        if (entityType != null) {
+            span.setAttribute(Span.ENTITY_TYPE, entityType.getName());
+        }
+        if (statement != null) {
+            span.setAttribute(Span.DB_STATEMENT, statement);
+        }
+    }
+
+    <R> R succeeded(R result) {
+        span.setAttribute(Span.ROW_COUNT, ResultRows.count(result));
+        span.end();
+        return result;
+    }
+
+    <E extends Throwable> E failed(E error) {
+        span.recordException(error);
+        span.end();
+        return error;
+    }
+
+}
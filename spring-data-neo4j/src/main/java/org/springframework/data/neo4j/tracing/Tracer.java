@@ -0,0 +1,38 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+/**
+ * Entry point through which Spring Data Neo4j opens a {@link Span} around each template operation, repository method
+ * and transaction demarcation.  This mirrors the shape of the OpenTelemetry API, so that an adapter
+ * onto an OpenTelemetry or other distributed tracing <code>Tracer</code> only needs to delegate.
+ * <p>
+ * <code>Neo4jConfiguration</code> defines a {@link NoopTracer} by default; override its <code>neo4jTracer()</code> bean method to
+ * plug in a real one, which also decorates the template with a {@link Neo4jOperationsTracingInterceptor}.
+ * </p>
+ *
+ * @see org.springframework.data.neo4j.config.Neo4jConfiguration
+ */
+public interface Tracer {
+
+    /**
+     * Starts a new span as a child of the current span of the calling thread, if there is one.  The caller must
+     * {@link Span#end() end} it, on the same thread.
+     *
+     * @param name The name of the operation, such as <code>Neo4jOperations.load</code>
+     * @return The started {@link Span}, never <code>null</code>
+     */
+    Span startSpan(String name);
+
+}
@@ -17,12 +17,48 @@ import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.event.DataManipulationEventBatch;
+import org.springframework.data.neo4j.tracing.NoopTracer;
+import org.springframework.data.neo4j.tracing.Span;
+import org.springframework.data.neo4j.tracing.Tracer;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.Executor;
 
 /**
+ * {@link PlatformTransactionManager} that demarcates transactions on an OGM {@link Session}.
+ * <p>
+ * In write-behind mode, which is off by default, saves and deletes issued through the template and repositories
+ * within a transaction are queued on a {@link WriteBehindQueue} and sent to the server in batched requests when the
+ * transaction commits or is explicitly flushed, instead of each one costing a separate round-trip.
+ * </p>
+ * <p>
+ * Write-behind mode also enables {@link TransactionDefinition#PROPAGATION_NESTED}.  A nested transaction holds a
+ * savepoint on the write-behind queue, so rolling it back discards only the writes it queued while the enclosing
+ * transaction carries on.
+ * </p>
+ * <p>
+ * Outermost transactions activate transaction synchronization, so that components can register a
+ * {@link TransactionSynchronization} to act once the transaction has committed or rolled back.
+ * </p>
+ * <p>
+ * When event batching is enabled, the after-save and after-delete events of each transaction are published as one
+ * {@link org.springframework.data.neo4j.event.BatchSaveEvent} and one
+ * {@link org.springframework.data.neo4j.event.BatchDeleteEvent} after it commits, optionally on an event executor,
+ * rather than synchronously for every entity.  See {@link DataManipulationEventBatch}.
+ * </p>
+ * <p>
+ * Beginning, committing and rolling back a transaction are each traced as a {@link Span} when a {@link Tracer} is set,
+ * as is acquiring the session's transaction when beginning one.
+ * </p>
+ *
  * @author Vince Bickers
  */
 public class Neo4jTransactionManager implements PlatformTransactionManager {
@@ -30,37 +66,298 @@ public class Neo4jTransactionManager implements PlatformTransactionManager {
     private final Logger logger = LoggerFactory.getLogger(Neo4jTransactionManager.class);
     private final Session session;
 
+    private boolean writeBehind = false;
+    private int writeBehindBatchSize = 0;
+    private boolean batchEvents = false;
+    private Executor eventExecutor;
+    private Tracer tracer = NoopTracer.INSTANCE;
+
     public Neo4jTransactionManager(Session session) {
         this.session = session;
     }
 
+    /**
+     * Enables or disables write-behind mode for transactions started by this transaction manager.
+     *
+     * @param writeBehind <code>true</code> to queue writes until commit or flush, <code>false</code> to send them
+     *        immediately
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Sets the number of queued writes after which the write-behind queue is flushed without waiting for the commit,
+     * which bounds the memory held by very large transactions.  Defaults to 0, meaning no limit.
+     *
+     * @param writeBehindBatchSize The maximum number of queued writes, or a value less than 1 for no limit
+     */
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    /**
+     * Enables or disables batching of data manipulation events for transactions started by this transaction manager.
+     *
+     * @param batchEvents <code>true</code> to publish after-save and after-delete events in batches after commit,
+     *        <code>false</code> to publish them as each entity is saved or deleted
+     */
+    public void setBatchEvents(boolean batchEvents) {
+        this.batchEvents = batchEvents;
+    }
+
+    /**
+     * Sets the {@link Executor} on which batched events are published, so that listeners don't delay the thread that
+     * committed the transaction.  This should have a bounded queue, since batches are published on the committing
+     * thread whenever the executor rejects them.  Defaults to <code>null</code>, meaning batches are published
+     * synchronously after commit.
+     *
+     * @param eventExecutor The {@link Executor} on which to publish batched events, or <code>null</code>
+     */
+    public void setEventExecutor(Executor eventExecutor) {
+        this.eventExecutor = eventExecutor;
+    }
+
+    /**
+     * Sets the {@link Tracer} through which a span is opened around the beginning, commit and rollback of each
+     * transaction.  Defaults to the {@link NoopTracer}.
+     *
+     * @param tracer The {@link Tracer}, or <code>null</code> for none
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer != null ? tracer : NoopTracer.INSTANCE;
+    }
+
     @Override
     public TransactionStatus getTransaction(TransactionDefinition transactionDefinition) throws TransactionException {
+        if (NoopTracer.isNoop(tracer)) {
+            return begin(transactionDefinition);
+        }
+        Span span = tracer.startSpan("Neo4jTransactionManager.begin");
+        try {
+            TransactionStatus status = begin(transactionDefinition);
+            span.setAttribute("neo4j.transaction.new", String.valueOf(status.isNewTransaction()));
+            return status;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private TransactionStatus begin(TransactionDefinition transactionDefinition) {
         logger.debug("Requesting to create or join a transaction");
-        return new Neo4jTransactionStatus(session, transactionDefinition);
+        Neo4jTransactionStatus status = acquire(transactionDefinition);
+
+        WriteBehindQueue queue = WriteBehindQueue.forSession(session);
+        if (queue != null) {
+            status.setWriteBehindQueue(queue, false);
+        } else if (writeBehind && status.isNewTransaction()) {
+            logger.debug("Binding write-behind queue to transaction");
+            queue = new WriteBehindQueue(session, writeBehindBatchSize);
+            TransactionSynchronizationManager.bindResource(session, queue);
+            status.setWriteBehindQueue(queue, true);
+        }
+
+        if (status.isNewTransaction() && !TransactionSynchronizationManager.isSynchronizationActive()) {
+            logger.debug("Initialising transaction synchronization");
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            status.setSynchronizationOwner(true);
+
+            if (batchEvents) {
+                logger.debug("Binding data manipulation event batch to transaction");
+                new DataManipulationEventBatch(session, eventExecutor).bind();
+            }
+        }
+
+        if (transactionDefinition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED
+                && !status.isNewTransaction()) {
+            if (queue == null) {
+                throw new NestedTransactionNotSupportedException("Nested transactions are only supported when the "
+                        + "Neo4jTransactionManager runs in write-behind mode");
+            }
+            logger.debug("Creating savepoint for nested transaction");
+            status.createAndHoldSavepoint();
+        }
+        return status;
+    }
+
+    /*
+     * Joining or beginning the session's transaction is where a connection to the database is acquired.
+     */
+    private Neo4jTransactionStatus acquire(TransactionDefinition transactionDefinition) {
+        if (NoopTracer.isNoop(tracer)) {
+            return new Neo4jTransactionStatus(session, transactionDefinition);
+        }
+        Span span = tracer.startSpan("Neo4jTransactionManager.acquireSession");
+        try {
+            Neo4jTransactionStatus status = new Neo4jTransactionStatus(session, transactionDefinition);
+            span.setAttribute("neo4j.transaction.new", String.valueOf(status.isNewTransaction()));
+            return status;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
     }
 
     @Override
     public void commit(TransactionStatus transactionStatus) throws TransactionException {
-        Transaction tx = ((Neo4jTransactionStatus) transactionStatus).getTransaction();
+        if (NoopTracer.isNoop(tracer)) {
+            doCommit(transactionStatus);
+            return;
+        }
+        Span span = tracer.startSpan("Neo4jTransactionManager.commit");
+        try {
+            doCommit(transactionStatus);
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void doCommit(TransactionStatus transactionStatus) {
+        Neo4jTransactionStatus status = (Neo4jTransactionStatus) transactionStatus;
+        Transaction tx = status.getTransaction();
         logger.debug("Commit requested: " + tx + ", status: " + tx.status().toString());
-        if (transactionStatus.isNewTransaction()) {
-            if (tx.status() == (Transaction.Status.PENDING) || tx.status() == (Transaction.Status.OPEN)) {
-                logger.debug("Commit invoked");
-                tx.commit();
+        if (status.hasSavepoint()) {
+            logger.debug("Releasing savepoint of nested transaction");
+            status.releaseHeldSavepoint();
+            return;
+        }
+        int completionStatus = TransactionSynchronization.STATUS_UNKNOWN;
+        try {
+            if (transactionStatus.isNewTransaction()) {
+                if (tx.status() == (Transaction.Status.PENDING) || tx.status() == (Transaction.Status.OPEN)) {
+                    triggerBeforeCommit(status);
+                    flushWriteBehindQueue(status);
+                    if (status.isSynchronizationOwner()) {
+                        TransactionSynchronizationUtils.triggerBeforeCompletion();
+                    }
+                    logger.debug("Commit invoked");
+                    tx.commit();
+                    completionStatus = TransactionSynchronization.STATUS_COMMITTED;
+                    if (status.isSynchronizationOwner()) {
+                        TransactionSynchronizationUtils.triggerAfterCommit();
+                    }
+                }
+            } else {
+                logger.debug("Commit deferred");
             }
-        } else {
-            logger.debug("Commit deferred");
+        } finally {
+            releaseWriteBehindQueue(status);
+            completeSynchronization(status, completionStatus);
         }
     }
 
     @Override
     public void rollback(TransactionStatus transactionStatus) throws TransactionException {
-        Transaction tx = ((Neo4jTransactionStatus) transactionStatus).getTransaction();
+        if (NoopTracer.isNoop(tracer)) {
+            doRollback(transactionStatus);
+            return;
+        }
+        Span span = tracer.startSpan("Neo4jTransactionManager.rollback");
+        try {
+            doRollback(transactionStatus);
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void doRollback(TransactionStatus transactionStatus) {
+        Neo4jTransactionStatus status = (Neo4jTransactionStatus) transactionStatus;
+        Transaction tx = status.getTransaction();
         logger.debug("Rollback requested: " + tx + ", status: " + tx.status().toString());
-        if (tx.status() == (Transaction.Status.PENDING) || tx.status() == (Transaction.Status.OPEN)) {
-            logger.debug("Rollback invoked");
-            tx.rollback();
+        if (status.hasSavepoint()) {
+            logger.debug("Rolling back nested transaction to savepoint");
+            try {
+                status.rollbackToHeldSavepoint();
+            } finally {
+                status.releaseHeldSavepoint();
+            }
+            return;
+        }
+        int completionStatus = TransactionSynchronization.STATUS_UNKNOWN;
+        try {
+            if (status.getWriteBehindQueue() != null) {
+                status.getWriteBehindQueue().clear();
+            }
+            if (status.isSynchronizationOwner()) {
+                TransactionSynchronizationUtils.triggerBeforeCompletion();
+            }
+            if (tx.status() == (Transaction.Status.PENDING) || tx.status() == (Transaction.Status.OPEN)) {
+                logger.debug("Rollback invoked");
+                tx.rollback();
+            }
+            completionStatus = TransactionSynchronization.STATUS_ROLLED_BACK;
+        } finally {
+            releaseWriteBehindQueue(status);
+            completeSynchronization(status, completionStatus);
+        }
+    }
+
+    /*
+     * Sends the queued writes before the commit.  If that fails then the transaction can't be committed, so it's
+     * rolled back here because callers don't invoke rollback after a failed commit.
+     */
+    private void flushWriteBehindQueue(Neo4jTransactionStatus status) {
+        WriteBehindQueue queue = status.getWriteBehindQueue();
+        if (queue == null) {
+            return;
+        }
+        try {
+            queue.flush();
+        } catch (RuntimeException e) {
+            logger.debug("Flushing write-behind queue failed, rolling back");
+            queue.clear();
+            status.getTransaction().rollback();
+            throw e;
+        }
+    }
+
+    /*
+     * As with a failed flush, a failing synchronization prevents the commit, so the transaction is rolled back here.
+     */
+    private void triggerBeforeCommit(Neo4jTransactionStatus status) {
+        if (!status.isSynchronizationOwner()) {
+            return;
+        }
+        try {
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        } catch (RuntimeException e) {
+            logger.debug("Transaction synchronization failed before commit, rolling back");
+            if (status.getWriteBehindQueue() != null) {
+                status.getWriteBehindQueue().clear();
+            }
+            status.getTransaction().rollback();
+            throw e;
+        }
+    }
+
+    private void completeSynchronization(Neo4jTransactionStatus status, int completionStatus) {
+        if (status.isSynchronizationOwner()) {
+            try {
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                        TransactionSynchronizationManager.getSynchronizations(), completionStatus);
+            } finally {
+                logger.debug("Clearing transaction synchronization");
+                TransactionSynchronizationManager.clear();
+            }
+        }
+    }
+
+    private void releaseWriteBehindQueue(Neo4jTransactionStatus status) {
+        if (status.isWriteBehindQueueOwner()) {
+            logger.debug("Unbinding write-behind queue from transaction");
+            TransactionSynchronizationManager.unbindResourceIfPossible(session);
         }
     }
 }
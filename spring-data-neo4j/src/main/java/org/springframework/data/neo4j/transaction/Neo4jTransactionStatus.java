@@ -17,9 +17,11 @@ import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
 
 /**
  * @author Vince Bickers
@@ -30,6 +32,10 @@ public class Neo4jTransactionStatus implements TransactionStatus {
 
     private final Transaction transaction;
     private boolean newTransaction = false;
+    private WriteBehindQueue writeBehindQueue;
+    private boolean writeBehindQueueOwner = false;
+    private WriteBehindQueue.Savepoint savepoint;
+    private boolean synchronizationOwner = false;
 
     public Neo4jTransactionStatus(Session session, TransactionDefinition transactionDefinition) {
 
@@ -38,7 +44,8 @@ public class Neo4jTransactionStatus implements TransactionStatus {
         if (propagation == TransactionDefinition.PROPAGATION_REQUIRES_NEW)  {
             tx = session.beginTransaction();
             newTransaction = true;
-        } else if (propagation == TransactionDefinition.PROPAGATION_REQUIRED) {
+        } else if (propagation == TransactionDefinition.PROPAGATION_REQUIRED
+                || propagation == TransactionDefinition.PROPAGATION_NESTED) {
             tx = session.getTransaction();
             if (tx == null
                     || tx.status().equals(Transaction.Status.CLOSED)
@@ -61,8 +68,7 @@ public class Neo4jTransactionStatus implements TransactionStatus {
 
     @Override
     public boolean hasSavepoint() {
-        logger.info("hasSavePoint? - false");
-        return false;
+        return savepoint != null;
     }
 
     @Override
@@ -76,9 +82,17 @@ public class Neo4jTransactionStatus implements TransactionStatus {
         return false;
     }
 
+    /**
+     * Sends any saves or deletes queued in write-behind mode to the server.  If the transaction isn't running in
+     * write-behind mode then there's nothing to flush, because each write has already been sent.
+     */
     @Override
     public void flush() {
-        logger.info("flush - unsupported");
+        if (writeBehindQueue != null) {
+            writeBehindQueue.flush();
+        } else {
+            logger.debug("flush - no write-behind queue, nothing to flush");
+        }
     }
 
     @Override
@@ -89,23 +103,81 @@ public class Neo4jTransactionStatus implements TransactionStatus {
 
     }
 
+    /**
+     * Creates a savepoint on the transaction's write-behind queue.  Savepoints are client-side checkpoints of queued
+     * writes, so they're only available when the transaction runs in write-behind mode.
+     *
+     * @return A new savepoint
+     * @throws NestedTransactionNotSupportedException if the transaction isn't running in write-behind mode
+     */
     @Override
     public Object createSavepoint() throws TransactionException {
-        logger.info("createSavepoint - unsupported");
-        return null;
+        return requireWriteBehindQueue().createSavepoint();
     }
 
     @Override
-    public void rollbackToSavepoint(Object o) throws TransactionException {
-        logger.info("rollbackToSavepoint - unsupported");
+    public void rollbackToSavepoint(Object savepoint) throws TransactionException {
+        requireWriteBehindQueue().rollbackToSavepoint(asSavepoint(savepoint));
     }
 
     @Override
-    public void releaseSavepoint(Object o) throws TransactionException {
-        logger.info("releaseSavepoint - unsupported");
+    public void releaseSavepoint(Object savepoint) throws TransactionException {
+        requireWriteBehindQueue().releaseSavepoint(asSavepoint(savepoint));
+    }
+
+    void createAndHoldSavepoint() {
+        this.savepoint = requireWriteBehindQueue().createSavepoint();
+    }
+
+    void rollbackToHeldSavepoint() {
+        requireWriteBehindQueue().rollbackToSavepoint(savepoint);
+    }
+
+    void releaseHeldSavepoint() {
+        requireWriteBehindQueue().releaseSavepoint(savepoint);
+        this.savepoint = null;
+    }
+
+    private WriteBehindQueue requireWriteBehindQueue() {
+        if (writeBehindQueue == null) {
+            throw new NestedTransactionNotSupportedException("Savepoints are only supported when the Neo4jTransactionManager "
+                    + "runs in write-behind mode");
+        }
+        return writeBehindQueue;
+    }
+
+    private static WriteBehindQueue.Savepoint asSavepoint(Object savepoint) {
+        if (!(savepoint instanceof WriteBehindQueue.Savepoint)) {
+            throw new TransactionSystemException("Savepoint " + savepoint + " wasn't created by a Neo4jTransactionStatus");
+        }
+        return (WriteBehindQueue.Savepoint) savepoint;
     }
 
     public Transaction getTransaction() {
         return transaction;
     }
+
+    /**
+     * @return The {@link WriteBehindQueue} used by this transaction or <code>null</code> if writes aren't deferred
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
+    void setWriteBehindQueue(WriteBehindQueue writeBehindQueue, boolean owner) {
+        this.writeBehindQueue = writeBehindQueue;
+        this.writeBehindQueueOwner = owner;
+    }
+
+    boolean isWriteBehindQueueOwner() {
+        return writeBehindQueueOwner;
+    }
+
+    void setSynchronizationOwner(boolean synchronizationOwner) {
+        this.synchronizationOwner = synchronizationOwner;
+    }
+
+    boolean isSynchronizationOwner() {
+        return synchronizationOwner;
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.neo4j.template.Neo4jOgmExceptionTranslator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Specialisation of {@link TransactionTemplate} that runs the whole unit of work again in a fresh transaction if it
+ * fails for a transient reason, such as a deadlock, a cluster leader switch or a dropped connection.
+ * <p>
+ * Retries are attempted up to a maximum number of times, waiting between attempts for an exponentially increasing
+ * period bounded by a maximum.  Half of each wait is randomised so that competing writers that failed together don't
+ * all retry at the same moment.  A failure is considered transient if it's a {@link TransientDataAccessException} or if
+ * {@link Neo4jOgmExceptionTranslator#isTransient(Throwable)} says so.
+ * </p>
+ * Note that retrying only makes sense around the outermost unit of work.  If the callback joins a transaction that's
+ * already in progress then that transaction is doomed by the failure, and running the callback again in a fresh
+ * transaction would silently lose the outer work, so such failures are rethrown straight away.
+ */
+public class RetryingTransactionTemplate extends TransactionTemplate {
+
+    private static final long serialVersionUID = -2896466924563390287L;
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryingTransactionTemplate.class);
+
+    private int maxAttempts = 5;
+    private long initialBackoffMillis = 50;
+    private double backoffMultiplier = 2.0;
+    private long maxBackoffMillis = 2000;
+
+    /**
+     * Constructs a new {@link RetryingTransactionTemplate} for bean-style usage.
+     *
+     * @see #setTransactionManager(PlatformTransactionManager)
+     */
+    public RetryingTransactionTemplate() {
+        super();
+    }
+
+    /**
+     * Constructs a new {@link RetryingTransactionTemplate} that uses the given transaction manager.
+     *
+     * @param transactionManager The {@link PlatformTransactionManager} that demarcates each attempt
+     */
+    public RetryingTransactionTemplate(PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+    }
+
+    /**
+     * Constructs a new {@link RetryingTransactionTemplate} that uses the given transaction manager and definition.
+     *
+     * @param transactionManager The {@link PlatformTransactionManager} that demarcates each attempt
+     * @param transactionDefinition The {@link TransactionDefinition} from which to copy the transaction settings
+     */
+    public RetryingTransactionTemplate(PlatformTransactionManager transactionManager, TransactionDefinition transactionDefinition) {
+        super(transactionManager, transactionDefinition);
+    }
+
+    /**
+     * @param maxAttempts The maximum number of times to run the unit of work, including the first attempt.  Defaults to 5.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must be at least 1");
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @param initialBackoffMillis The upper bound of the wait before the first retry, in milliseconds.  Defaults to 50.
+     */
+    public void setInitialBackoffMillis(long initialBackoffMillis) {
+        Assert.isTrue(initialBackoffMillis >= 0, "initialBackoffMillis must not be negative");
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    /**
+     * @param backoffMultiplier The factor by which the wait grows after each failed retry.  Defaults to 2.
+     */
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        Assert.isTrue(backoffMultiplier >= 1.0, "backoffMultiplier must be at least 1");
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    /**
+     * @param maxBackoffMillis The maximum wait between attempts, in milliseconds.  Defaults to 2000.
+     */
+    public void setMaxBackoffMillis(long maxBackoffMillis) {
+        Assert.isTrue(maxBackoffMillis >= 0, "maxBackoffMillis must not be negative");
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public <T> T execute(final TransactionCallback<T> action) throws TransactionException {
+        final boolean outermost = !TransactionSynchronizationManager.isActualTransactionActive();
+        final boolean[] newTransaction = new boolean[1];
+        TransactionCallback<T> recordingAction = new TransactionCallback<T>() {
+            @Override
+            public T doInTransaction(TransactionStatus status) {
+                newTransaction[0] = status.isNewTransaction();
+                return action.doInTransaction(status);
+            }
+        };
+        for (int attempt = 1; ; attempt++) {
+            newTransaction[0] = false;
+            try {
+                return super.execute(recordingAction);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e) || !(outermost || newTransaction[0])) {
+                    throw e;
+                }
+                long backoff = computeBackoff(attempt);
+                logger.debug("Transient failure on attempt {} of {}, retrying in {}ms: {}", attempt, maxAttempts, backoff, e.getMessage());
+                try {
+                    sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines whether the given exception is worth retrying.
+     *
+     * @param e The exception thrown by the failed attempt
+     * @return <code>true</code> if the unit of work should be run again, <code>false</code> otherwise
+     */
+    protected boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || Neo4jOgmExceptionTranslator.isTransient(e);
+    }
+
+    /**
+     * Computes how long to wait after the given failed attempt.  The exponential backoff for the attempt is capped at
+     * the maximum, and then the wait is chosen at random between half and all of it.
+     *
+     * @param attempt The number of the attempt that failed, starting at 1
+     * @return The number of milliseconds to wait before the next attempt
+     */
+    protected long computeBackoff(int attempt) {
+        double exponential = initialBackoffMillis * Math.pow(backoffMultiplier, attempt - 1);
+        long ceiling = (long) Math.min(exponential, maxBackoffMillis);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    protected void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+}
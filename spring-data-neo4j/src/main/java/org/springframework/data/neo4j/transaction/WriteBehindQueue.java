@@ -0,0 +1,353 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import org.neo4j.ogm.session.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queue of pending saves and deletes held for the lifetime of a transaction when the {@link Neo4jTransactionManager}
+ * runs in write-behind mode.
+ * <p>
+ * Rather than sending every save or delete to the server as soon as it's requested, the template and repositories
+ * append it to this queue, which is flushed in batched requests when the transaction commits, when
+ * {@link org.springframework.transaction.TransactionStatus#flush()} is invoked or when the number of queued
+ * writes reaches the configured batch size.  Consecutive saves at the same depth are sent to the OGM as a single
+ * collection so they're mapped and executed in one request, and consecutive deletes are grouped in the same way.
+ * The relative order of saves and deletes is preserved.
+ * </p>
+ * <p>
+ * The queue also backs savepoints for nested transactions.  A savepoint marks a position in the queue, and rolling back
+ * to it simply discards the writes queued since, so a failed chunk of work can be retried without redoing the work
+ * already queued or sent earlier in the same transaction.  While a savepoint is held the queue isn't flushed
+ * automatically, and rolling back to a savepoint is refused if the queue has been flushed since it was created.
+ * </p>
+ * <p>
+ * Reads flush the queue through {@link #flushPendingWrites(Session)}, which only sends the writes queued before the
+ * oldest savepoint still held, so that reading within a nested transaction doesn't prevent it from rolling back.  The
+ * flip side is that such reads don't see the writes queued since that savepoint, including the nested transaction's
+ * own; call {@link org.springframework.transaction.TransactionStatus#flush()} to send them explicitly, giving up the
+ * ability to roll back to the savepoint.
+ * </p>
+ * <p>
+ * A queued write may be given a callback to run once it has been sent, which is how templates and repositories defer
+ * their <code>AfterSaveEvent</code>s and <code>AfterDeleteEvent</code>s until the write has actually happened.  The
+ * callbacks of writes that are discarded are never run.
+ * </p>
+ * Note that a queued entity won't receive its graph ID until the queue is flushed.  Templates and repositories flush
+ * the queue before every read that goes to the database, so reads within the transaction see the queued writes, save
+ * for those queued since a savepoint that's still held.
+ */
+public class WriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    /**
+     * The depth used by the OGM when {@code Session.save(Object)} is called without an explicit depth.
+     */
+    public static final int DEFAULT_SAVE_DEPTH = -1;
+
+    private final Session session;
+    private final int batchSize;
+    private final List<PendingWrite> pendingWrites = new ArrayList<>();
+
+    // incremented whenever writes queued after a savepoint leave the queue other than by rolling back to it
+    private int generation = 0;
+    private final List<Savepoint> heldSavepoints = new ArrayList<>();
+
+    /**
+     * Constructs a new {@link WriteBehindQueue} that flushes onto the given {@link Session}.
+     *
+     * @param session The OGM {@link Session} onto which queued writes are flushed
+     * @param batchSize The number of queued writes after which the queue is flushed automatically, or a value less
+     *        than 1 to only flush at commit or when explicitly requested
+     */
+    public WriteBehindQueue(Session session, int batchSize) {
+        this.session = session;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Retrieves the {@link WriteBehindQueue} bound to the current transaction for the given {@link Session}.
+     *
+     * @param session The OGM {@link Session} to look up
+     * @return The write-behind queue for the current transaction or <code>null</code> if writes shouldn't be deferred
+     */
+    public static WriteBehindQueue forSession(Session session) {
+        Object resource = TransactionSynchronizationManager.getResource(session);
+        return resource instanceof WriteBehindQueue ? (WriteBehindQueue) resource : null;
+    }
+
+    /**
+     * Flushes any writes queued against the given {@link Session} in the current transaction before a read, leaving
+     * those queued since the oldest savepoint still held in the queue.  This is a no-op if the transaction isn't
+     * running in write-behind mode.
+     *
+     * @param session The OGM {@link Session} whose pending writes should be flushed
+     */
+    public static void flushPendingWrites(Session session) {
+        WriteBehindQueue queue = forSession(session);
+        if (queue != null) {
+            queue.flushBeforeHeldSavepoints();
+        }
+    }
+
+    /**
+     * Queues the given entity to be saved to the specified depth.
+     *
+     * @param entity The entity to save
+     * @param depth The depth to which the entity should be saved
+     */
+    public void save(Object entity, int depth) {
+        save(entity, depth, null);
+    }
+
+    /**
+     * Queues the given entity to be saved to the specified depth, running the given callback once it's been sent.
+     *
+     * @param entity The entity to save
+     * @param depth The depth to which the entity should be saved
+     * @param afterFlush The callback to run once the save has been sent, may be <code>null</code>
+     */
+    public void save(Object entity, int depth, Runnable afterFlush) {
+        enqueue(new PendingWrite(entity, depth, false, afterFlush));
+    }
+
+    /**
+     * Queues the given entity for deletion.
+     *
+     * @param entity The entity to delete
+     */
+    public void delete(Object entity) {
+        delete(entity, null);
+    }
+
+    /**
+     * Queues the given entity for deletion, running the given callback once the deletion has been sent.
+     *
+     * @param entity The entity to delete
+     * @param afterFlush The callback to run once the deletion has been sent, may be <code>null</code>
+     */
+    public void delete(Object entity, Runnable afterFlush) {
+        enqueue(new PendingWrite(entity, DEFAULT_SAVE_DEPTH, true, afterFlush));
+    }
+
+    /**
+     * Sends all the queued writes to the server, batching consecutive operations of the same kind together.  The
+     * callbacks of the writes in each batch are run once that batch has been sent.
+     */
+    public void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        logger.debug("Flushing {} queued write(s)", pendingWrites.size());
+
+        List<PendingWrite> writes = new ArrayList<>(pendingWrites);
+        pendingWrites.clear();
+        generation++;
+        send(writes);
+    }
+
+    /**
+     * Sends the writes queued before the oldest savepoint still held, or all the queued writes if no savepoint is
+     * held.  Unlike {@link #flush()}, this leaves the held savepoints valid to roll back to.
+     */
+    public void flushBeforeHeldSavepoints() {
+        if (heldSavepoints.isEmpty()) {
+            flush();
+            return;
+        }
+        // savepoints are held in the order they were created, so the oldest marks the earliest position
+        int end = heldSavepoints.get(0).position;
+        if (end == 0) {
+            return;
+        }
+        logger.debug("Flushing {} write(s) queued before the held savepoints", end);
+
+        List<PendingWrite> writes = new ArrayList<>(pendingWrites.subList(0, end));
+        pendingWrites.subList(0, end).clear();
+        for (Savepoint savepoint : heldSavepoints) {
+            savepoint.position -= end;
+        }
+        send(writes);
+    }
+
+    private void send(List<PendingWrite> writes) {
+        int start = 0;
+        while (start < writes.size()) {
+            PendingWrite first = writes.get(start);
+            int end = start + 1;
+            while (end < writes.size() && first.isBatchableWith(writes.get(end))) {
+                end++;
+            }
+            List<PendingWrite> batch = writes.subList(start, end);
+            executeBatch(first, distinctEntities(batch));
+            for (PendingWrite write : batch) {
+                if (write.afterFlush != null) {
+                    write.afterFlush.run();
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Discards all the queued writes without sending them to the server.
+     */
+    public void clear() {
+        pendingWrites.clear();
+        generation++;
+    }
+
+    /**
+     * @return The number of writes currently waiting to be flushed
+     */
+    public int size() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Marks the current end of the queue so that writes queued after this point can later be discarded.
+     *
+     * @return A new savepoint, never <code>null</code>
+     */
+    public Savepoint createSavepoint() {
+        Savepoint savepoint = new Savepoint(this, pendingWrites.size(), generation);
+        heldSavepoints.add(savepoint);
+        return savepoint;
+    }
+
+    /**
+     * Discards all the writes queued since the given savepoint was created.
+     *
+     * @param savepoint The savepoint to roll back to
+     * @throws TransactionSystemException if the queue has been flushed since the savepoint was created, because the
+     *         writes in question have already been sent to the server
+     */
+    public void rollbackToSavepoint(Savepoint savepoint) {
+        assertOwnSavepoint(savepoint);
+        if (savepoint.generation != generation) {
+            throw new TransactionSystemException("Cannot roll back to savepoint because the write-behind queue "
+                    + "has been flushed or cleared since it was created");
+        }
+        logger.debug("Discarding {} write(s) queued since savepoint", pendingWrites.size() - savepoint.position);
+        pendingWrites.subList(savepoint.position, pendingWrites.size()).clear();
+        for (Savepoint held : heldSavepoints) {
+            held.position = Math.min(held.position, savepoint.position);
+        }
+    }
+
+    /**
+     * Releases the given savepoint, after which the writes queued since its creation can no longer be discarded
+     * independently of the rest of the transaction.
+     *
+     * @param savepoint The savepoint to release
+     */
+    public void releaseSavepoint(Savepoint savepoint) {
+        assertOwnSavepoint(savepoint);
+        for (Iterator<Savepoint> iterator = heldSavepoints.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == savepoint) {
+                iterator.remove();
+            }
+        }
+        flushIfBatchIsFull();
+    }
+
+    private void assertOwnSavepoint(Savepoint savepoint) {
+        if (savepoint == null || savepoint.queue != this) {
+            throw new TransactionSystemException("Savepoint " + savepoint + " wasn't created by this write-behind queue");
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        pendingWrites.add(write);
+        flushIfBatchIsFull();
+    }
+
+    private void flushIfBatchIsFull() {
+        if (batchSize > 0 && heldSavepoints.isEmpty() && pendingWrites.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void executeBatch(PendingWrite template, List<Object> entities) {
+        if (template.delete) {
+            session.delete(entities);
+        } else {
+            session.save(entities, template.depth);
+        }
+    }
+
+    private static List<Object> distinctEntities(List<PendingWrite> writes) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        List<Object> entities = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            if (seen.add(write.entity)) {
+                entities.add(write.entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * A position in a {@link WriteBehindQueue} to which queued writes can be rolled back.
+     */
+    public static final class Savepoint {
+
+        private final WriteBehindQueue queue;
+        private final int generation;
+        private int position;
+
+        private Savepoint(WriteBehindQueue queue, int position, int generation) {
+            this.queue = queue;
+            this.position = position;
+            this.generation = generation;
+        }
+
+        @Override
+        public String toString() {
+            return "Savepoint[position=" + position + ", generation=" + generation + "]";
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final Object entity;
+        private final int depth;
+        private final boolean delete;
+        private final Runnable afterFlush;
+
+        PendingWrite(Object entity, int depth, boolean delete, Runnable afterFlush) {
+            this.entity = entity;
+            this.depth = depth;
+            this.delete = delete;
+            this.afterFlush = afterFlush;
+        }
+
+        boolean isBatchableWith(PendingWrite other) {
+            return delete == other.delete && depth == other.depth;
+        }
+    }
+
+}
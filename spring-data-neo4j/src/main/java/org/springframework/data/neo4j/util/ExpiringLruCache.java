@@ -0,0 +1,129 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.util;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe, size-bounded map that evicts its least recently used entry once full and treats entries older than a
+ * fixed time-to-live as absent.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final long timeToLiveNanos;
+    private final Map<K, Entry<V>> entries;
+
+    /**
+     * Constructs a new {@link ExpiringLruCache}.
+     *
+     * @param maxSize The maximum number of entries to hold
+     * @param timeToLive The time for which an entry stays valid after being put in the cache, or 0 for no expiry
+     * @param timeUnit The {@link TimeUnit} of the given time-to-live
+     */
+    public ExpiringLruCache(final int maxSize, long timeToLive, TimeUnit timeUnit) {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+        Assert.isTrue(timeToLive >= 0, "timeToLive must not be negative");
+        this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 3412675398719376471L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key The key to look up
+     * @return The value cached against the given key or <code>null</code> if there isn't one or it has expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (timeToLiveNanos > 0 && currentTimeNanos() - entry.createdNanos > timeToLiveNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches the given value against the given key, evicting the least recently used entry if the cache is full.
+     *
+     * @param key The key
+     * @param value The value to cache
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, currentTimeNanos()));
+    }
+
+    /**
+     * @param key The key of the entry to evict
+     * @return The evicted value or <code>null</code> if there wasn't one
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * @return A snapshot of the keys currently in the cache, including any that have expired but not yet been evicted
+     */
+    public synchronized List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Evicts all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return The number of entries currently held, including any that have expired but not yet been evicted
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    protected long currentTimeNanos() {
+        return System.nanoTime();
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long createdNanos;
+
+        Entry(V value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+        }
+    }
+
+}
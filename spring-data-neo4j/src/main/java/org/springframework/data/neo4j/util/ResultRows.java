@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.util;
+
+import org.neo4j.ogm.model.Result;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+
+/**
+ * Counts the entities or rows in the result of a template or repository operation, for instrumentation purposes.
+ */
+public final class ResultRows {
+
+    private ResultRows() {
+    }
+
+    /**
+     * @param result The result of an operation, which may be <code>null</code>
+     * @return The number of entities or rows in the result, where they can be counted without consuming it, i.e. 0 for
+     *         <code>null</code>, numbers, booleans and lazy iterables, and 1 for any other single object
+     */
+    public static int count(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Result) {
+            return count(((Result) result).queryResults());
+        }
+        // other iterables may be lazy, so aren't consumed just to count them
+        return result instanceof Iterable ? 0 : 1;
+    }
+
+}
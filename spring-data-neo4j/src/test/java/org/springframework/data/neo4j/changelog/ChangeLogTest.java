@@ -0,0 +1,103 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.changelog;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ChangeLogTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("changelog", ".log");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void shouldRetainMostRecentChangesInMemory() {
+        InMemoryChangeLog changeLog = new InMemoryChangeLog(3);
+        changeLog.append(Arrays.asList(change(1L), change(2L)));
+        changeLog.append(Arrays.asList(change(3L), change(4L)));
+
+        assertEquals(4, changeLog.getLastSequence());
+        List<EntityChange> changes = changeLog.read(1, 10);
+        assertEquals(3, changes.size());
+        assertEquals(2, changes.get(0).getSequence());
+        assertEquals(Long.valueOf(4), changes.get(2).getId());
+
+        assertEquals(1, changeLog.read(3, 1).size());
+        assertEquals(3, changeLog.read(3, 1).get(0).getSequence());
+        assertTrue(changeLog.read(5, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldReplayFileChangeLogAfterReopening() throws IOException {
+        try (FileChangeLog changeLog = new FileChangeLog(file)) {
+            changeLog.append(Arrays.asList(change(10L), change(11L)));
+        }
+
+        try (FileChangeLog changeLog = new FileChangeLog(file)) {
+            assertEquals(2, changeLog.getLastSequence());
+            changeLog.append(Collections.singletonList(change(12L)));
+
+            List<EntityChange> changes = changeLog.read(2, 10);
+            assertEquals(2, changes.size());
+            assertEquals(2, changes.get(0).getSequence());
+            assertEquals(Long.valueOf(11), changes.get(0).getId());
+            assertEquals("Michal", changes.get(1).getProperties().get("name"));
+            assertTrue(changes.get(1).getLabels().contains("User"));
+        }
+    }
+
+    @Test
+    public void shouldDiscardIncompleteTrailingRecord() throws IOException {
+        try (FileChangeLog changeLog = new FileChangeLog(file)) {
+            changeLog.append(Collections.singletonList(change(10L)));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(raw.length());
+            raw.writeInt(1000);
+            raw.write(new byte[10]);
+        }
+
+        try (FileChangeLog changeLog = new FileChangeLog(file)) {
+            assertEquals(1, changeLog.getLastSequence());
+            changeLog.append(Collections.singletonList(change(11L)));
+            assertEquals(Long.valueOf(11), changeLog.read(2, 1).get(0).getId());
+        }
+    }
+
+    private static EntityChange change(Long id) {
+        Map<String, Object> properties = Collections.<String, Object>singletonMap("name", "Michal");
+        return new EntityChange(EntityChange.Type.SAVE, "User", id, Collections.singleton("User"), properties,
+                System.currentTimeMillis());
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.diagnostics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.diagnostics.context.RepeatedQueryConfiguration;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that queries repeated within a unit of work are detected as N+1 access patterns.
+ */
+@ContextConfiguration(classes = RepeatedQueryConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class RepeatedQueryDetectorTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RepeatedQueryDetector repeatedQueryDetector;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldFailWhenFindOneIsCalledInALoopWithinATransaction() {
+        final Long[] ids = saveUsers("Michal", "Vince", "Luanne");
+
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    for (Long id : ids) {
+                        userRepository.findOne(id);
+                    }
+                }
+            });
+            fail("Should have detected the repeated findOne");
+        } catch (RepeatedQueryException e) {
+            assertEquals("UserRepository.findOne", e.getShape());
+            assertEquals(3, e.getCount());
+            assertTrue(e.getMessage().contains("findAll(Iterable<Long> ids)"));
+        }
+    }
+
+    @Test
+    public void shouldCountEachTransactionSeparately() {
+        Long[] ids = saveUsers("Michal", "Vince", "Luanne");
+
+        for (Long id : ids) {
+            assertNotNull(userRepository.findOne(id));
+        }
+    }
+
+    @Test
+    public void shouldDetectRepeatedTemplateLoadsWithinAnExplicitScope() {
+        Long[] ids = saveUsers("Michal", "Vince", "Luanne");
+
+        repeatedQueryDetector.openScope();
+        try {
+            neo4jTemplate.load(User.class, ids[0]);
+            neo4jTemplate.load(User.class, ids[1]);
+            neo4jTemplate.load(User.class, ids[2]);
+            fail("Should have detected the repeated load");
+        } catch (RepeatedQueryException e) {
+            assertEquals("Neo4jOperations.load(User)", e.getShape());
+        } finally {
+            repeatedQueryDetector.closeScope();
+        }
+    }
+
+    @Test
+    public void shouldDetectRepeatedTemplateQueriesByStatement() {
+        saveUsers("Michal", "Vince", "Luanne");
+        String cypher = "MATCH (n:User) WHERE n.name = {name} RETURN n";
+
+        repeatedQueryDetector.openScope();
+        try {
+            neo4jTemplate.query(cypher, Collections.singletonMap("name", "Michal"));
+            neo4jTemplate.queryForObject(User.class, cypher, Collections.singletonMap("name", "Vince"));
+            neo4jTemplate.queryForObjects(User.class, cypher, Collections.singletonMap("name", "Luanne"));
+            fail("Should have detected the repeated query");
+        } catch (RepeatedQueryException e) {
+            assertEquals(cypher, e.getShape());
+        } finally {
+            repeatedQueryDetector.closeScope();
+        }
+    }
+
+    @Test
+    public void shouldReportRepeatedQueriesWhenLogging() {
+        RepeatedQueryDetector detector = new RepeatedQueryDetector(2, RepeatedQueryDetector.Action.LOG);
+
+        detector.openScope();
+        detector.record("MATCH (n) WHERE id(n)={id} RETURN n", "batch it");
+        detector.record("MATCH (n) WHERE id(n)={id} RETURN n", "batch it");
+        detector.record("MATCH (n) WHERE id(n)={id} RETURN n", "batch it");
+        detector.record("MATCH (n) RETURN count(n)", "batch it");
+        Collection<String> repeated = detector.closeScope();
+
+        assertEquals(Arrays.asList("MATCH (n) WHERE id(n)={id} RETURN n"), repeated);
+    }
+
+    private Long[] saveUsers(String... names) {
+        Long[] ids = new Long[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ids[i] = userRepository.save(new User(names[i])).getId();
+        }
+        return ids;
+    }
+
+}
@@ -541,6 +541,58 @@ public class MoviesIntegrationTest extends MultiDriverTestClass {
         }
     }
 
+    @Test
+    public void shouldFindAllByIdsFromAnyIterableInTheGivenOrder() {
+        User michal = userRepository.save(new User("Michal"));
+        User adam = userRepository.save(new User("Adam"));
+        User daniela = userRepository.save(new User("Daniela"));
+
+        final List<Long> ids = Arrays.asList(daniela.getId(), michal.getId(), daniela.getId(), adam.getId());
+        Iterable<Long> idIterable = new Iterable<Long>() {
+            @Override
+            public Iterator<Long> iterator() {
+                return ids.iterator();
+            }
+        };
+
+        List<String> names = new ArrayList<>();
+        for (User user : userRepository.findAll(idIterable)) {
+            names.add(user.getName());
+        }
+        assertEquals(Arrays.asList("Daniela", "Michal", "Adam"), names);
+    }
+
+    @Test
+    public void shouldFindAllByIdsAcrossSeveralChunks() {
+        getGraphDatabaseService().execute("UNWIND range(1, 2500) AS i CREATE (:User:Person {name: 'User ' + i})");
+        List<Long> ids = new ArrayList<>();
+        org.neo4j.graphdb.Result result = getGraphDatabaseService().execute("MATCH (u:User) RETURN id(u) AS id ORDER BY id DESC");
+        while (result.hasNext()) {
+            ids.add((Long) result.next().get("id"));
+        }
+
+        List<Long> foundIds = new ArrayList<>();
+        for (User user : userRepository.findAll(ids, 0)) {
+            foundIds.add(user.getId());
+        }
+        assertEquals(ids, foundIds);
+    }
+
+    @Test
+    public void shouldFindOneWithANamedFetchPlan() {
+        User michal = new User("Michal");
+        michal.befriend(new User("Vince"));
+        michal.rate(new TempMovie("Pulp Fiction"), 5, "Classic");
+        userRepository.save(michal);
+        session.clear();
+
+        User loaded = userRepository.findOne(michal.getId(), "friends");
+
+        assertEquals(1, loaded.getFriends().size());
+        assertEquals("Vince", loaded.getFriends().iterator().next().getName());
+        assertTrue(loaded.getRatings().isEmpty());
+    }
+
     private Calendar createDate(int y, int m, int d, String tz) {
 
         Calendar calendar = Calendar.getInstance();
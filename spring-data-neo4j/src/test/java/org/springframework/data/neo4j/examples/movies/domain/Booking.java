@@ -0,0 +1,72 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.examples.movies.domain;
+
+import org.neo4j.ogm.annotation.EndNode;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.neo4j.ogm.annotation.StartNode;
+import org.springframework.data.annotation.Version;
+
+/**
+ * The booking of a {@link Ticket} by a {@link User}, which is versioned so that concurrent changes to it can be detected.
+ */
+@RelationshipEntity(type = "BOOKED")
+public class Booking {
+
+    private Long id;
+
+    @StartNode
+    private User user;
+
+    @EndNode
+    private Ticket ticket;
+
+    private String status;
+
+    @Version
+    private Long version;
+
+    public Booking() {
+    }
+
+    public Booking(User user, Ticket ticket) {
+        this.user = user;
+        this.ticket = ticket;
+        this.status = "RESERVED";
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Ticket getTicket() {
+        return ticket;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -16,6 +16,7 @@ package org.springframework.data.neo4j.examples.movies.domain;
 import org.neo4j.ogm.annotation.NodeEntity;
 import org.neo4j.ogm.annotation.Property;
 import org.neo4j.ogm.annotation.Relationship;
+import org.neo4j.ogm.annotation.Transient;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -41,6 +42,9 @@ public class Cinema {
 
     private int capacity;
 
+    @Transient
+    private String openingHours;
+
     public Cinema() {
     }
 
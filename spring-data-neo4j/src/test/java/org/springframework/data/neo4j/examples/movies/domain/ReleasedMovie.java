@@ -52,4 +52,8 @@ public class ReleasedMovie extends AbstractAnnotatedEntity {
     public Date getCannesRelease() {
         return cannesRelease;
     }
+
+    public void setCannesRelease(Date cannesRelease) {
+        this.cannesRelease = cannesRelease;
+    }
 }
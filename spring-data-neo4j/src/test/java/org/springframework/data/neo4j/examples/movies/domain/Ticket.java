@@ -0,0 +1,56 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.examples.movies.domain;
+
+import org.springframework.data.annotation.Version;
+
+/**
+ * A cinema ticket, which is versioned so that concurrent bookings of its seat can be detected.
+ */
+public class Ticket {
+
+    private Long id;
+    private String seat;
+    private String holder;
+
+    @Version
+    private Long version;
+
+    public Ticket() {
+    }
+
+    public Ticket(String seat) {
+        this.seat = seat;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
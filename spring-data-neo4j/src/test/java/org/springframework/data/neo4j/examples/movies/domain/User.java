@@ -14,6 +14,7 @@
 package org.springframework.data.neo4j.examples.movies.domain;
 
 import org.neo4j.ogm.annotation.Relationship;
+import org.springframework.data.neo4j.annotation.NamedFetchPlan;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -22,6 +23,7 @@ import java.util.Set;
 /**
  * @author Michal Bachman
  */
+@NamedFetchPlan(name = "friends", paths = "-FRIEND_OF")
 public class User extends Person{
 
     private String middleName;
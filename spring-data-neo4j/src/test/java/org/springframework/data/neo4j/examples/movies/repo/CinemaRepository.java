@@ -63,4 +63,12 @@ public interface CinemaRepository extends GraphRepository<Cinema> {
 
 	List<Cinema> findByNameMatches(String name);
 
+	List<CinemaSummary> findSummariesByLocationAndCapacityGreaterThan(String location, int capacity);
+
+	CinemaSummary findSummaryByName(String name);
+
+	List<CinemaSummary> findSummariesByVisitedName(String name);
+
+	CinemaIdentity findIdentityByName(String name);
+
 }
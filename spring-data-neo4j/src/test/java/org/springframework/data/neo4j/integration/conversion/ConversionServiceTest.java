@@ -19,12 +19,15 @@ import org.junit.runner.RunWith;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Result;
+import org.neo4j.ogm.MetaData;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.ConverterNotFoundException;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.neo4j.conversion.MetaDataDrivenConversionService;
 import org.springframework.data.neo4j.integration.conversion.domain.JavaElement;
 import org.springframework.data.neo4j.integration.conversion.domain.MonetaryAmount;
 import org.springframework.data.neo4j.integration.conversion.domain.PensionPlan;
@@ -202,4 +205,41 @@ public class ConversionServiceTest extends MultiDriverTestClass {
         assertEquals(50, siteMember.getYears().intValue());
     }
 
+    @Test
+    public void shouldPreferSpringConverterAddedLaterForTheSameTypes() {
+        MetaDataDrivenConversionService conversionService = new MetaDataDrivenConversionService(
+                new MetaData("org.springframework.data.neo4j.integration.conversion.domain"));
+        byte[] binaryData = new byte[] { 98, 99, 100, 101, 102 };
+        assertEquals("YmNkZWY=", conversionService.convert(binaryData, String.class));
+
+        conversionService.addConverter(new Converter<byte[], String>() {
+            @Override
+            public String convert(byte[] source) {
+                return String.valueOf(source.length);
+            }
+        });
+
+        assertEquals("5", conversionService.convert(binaryData, String.class));
+        assertEquals("5", conversionService.convert(String.class, binaryData));
+        assertTrue(Arrays.equals(binaryData, conversionService.convert("YmNkZWY=", byte[].class)));
+    }
+
+    @Test
+    public void shouldNotConvertDirectlyBetweenTypesWhoseConverterWasRemoved() {
+        MetaDataDrivenConversionService conversionService = new MetaDataDrivenConversionService(
+                new MetaData("org.springframework.data.neo4j.integration.conversion.domain"));
+        byte[] binaryData = new byte[] { 98, 99, 100, 101, 102 };
+        assertEquals("YmNkZWY=", conversionService.convert(binaryData, String.class));
+
+        conversionService.removeConvertible(byte[].class, String.class);
+
+        assertFalse(conversionService.canConvert(byte[].class, String.class));
+        try {
+            conversionService.convert(binaryData, String.class);
+            fail("Should not have converted bytes to a string after removing the converter");
+        } catch (ConverterNotFoundException expected) {
+        }
+        assertTrue(Arrays.equals(binaryData, conversionService.convert("YmNkZWY=", byte[].class)));
+    }
+
 }
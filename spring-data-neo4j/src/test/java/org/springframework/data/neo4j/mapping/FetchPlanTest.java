@@ -0,0 +1,100 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.springframework.data.neo4j.annotation.NamedFetchPlan;
+import org.springframework.data.neo4j.annotation.NamedFetchPlans;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FetchPlanTest {
+
+    @Test
+    public void shouldMatchEveryPrefixOfEachPathOnce() {
+        FetchPlan fetchPlan = FetchPlan.of("WORKS_AT.LOCATED_IN", "WORKS_AT", "<MANAGES");
+
+        assertEquals(2, fetchPlan.getDepth());
+        assertEquals("MATCH (n) WHERE id(n) = {id}"
+                + " OPTIONAL MATCH p0=(n)-[:`WORKS_AT`]->() WITH n, collect(DISTINCT p0) AS p0"
+                + " OPTIONAL MATCH p1=(n)-[:`WORKS_AT`]->()-[:`LOCATED_IN`]->() WITH n, p0, collect(DISTINCT p1) AS p1"
+                + " OPTIONAL MATCH p2=(n)<-[:`MANAGES`]-() WITH n, p0, p1, collect(DISTINCT p2) AS p2"
+                + " RETURN n, p0, p1, p2", fetchPlan.toCypher());
+    }
+
+    @Test
+    public void shouldFollowRelationshipsInEitherDirection() {
+        assertEquals("MATCH (n) WHERE id(n) = {id} OPTIONAL MATCH p0=(n)-[:`FRIEND_OF`]-() WITH n, collect(DISTINCT p0) AS p0"
+                + " RETURN n, p0", FetchPlan.of("-FRIEND_OF").toCypher());
+    }
+
+    @Test
+    public void shouldResolveRelationshipFieldsAndLabelsFromTheMetaData() {
+        Neo4jMappingContext mappingContext = new Neo4jMappingContext(new MetaData("org.springframework.data.neo4j.examples.movies.domain"));
+
+        String cypher = FetchPlan.of("friends.friends", "interested", "<FRIEND_OF").toCypher(mappingContext, User.class);
+
+        String match = cypher.substring(0, cypher.indexOf(" WHERE"));
+        assertTrue(match, match.contains(":`User`"));
+        assertTrue(match, match.contains(":`Person`"));
+        assertTrue(cypher, cypher.endsWith(" WHERE id(n) = {id}"
+                + " OPTIONAL MATCH p0=(n)-[:`FRIEND_OF`]-() WITH n, collect(DISTINCT p0) AS p0"
+                + " OPTIONAL MATCH p1=(n)-[:`FRIEND_OF`]-()-[:`FRIEND_OF`]-() WITH n, p0, collect(DISTINCT p1) AS p1"
+                + " OPTIONAL MATCH p2=(n)-[:`INTERESTED`]->() WITH n, p0, p1, collect(DISTINCT p2) AS p2"
+                + " OPTIONAL MATCH p3=(n)<-[:`FRIEND_OF`]-() WITH n, p0, p1, p2, collect(DISTINCT p3) AS p3"
+                + " RETURN n, p0, p1, p2, p3"));
+    }
+
+    @Test
+    public void shouldTakeHopsBeyondARelationshipEntityAsRelationshipTypes() {
+        Neo4jMappingContext mappingContext = new Neo4jMappingContext(new MetaData("org.springframework.data.neo4j.examples.movies.domain"));
+
+        String cypher = FetchPlan.of("ratings.friends").toCypher(mappingContext, User.class);
+
+        assertTrue(cypher, cypher.contains("p1=(n)-[:`RATED`]->()-[:`friends`]->()"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidRelationshipTypes() {
+        FetchPlan.of("WORKS_AT.`DROP`");
+    }
+
+    @Test
+    public void shouldLookUpFetchPlansDeclaredOnTheEntityOrItsSuperclasses() {
+        assertEquals(Arrays.asList("WORKS_AT"), FetchPlan.named(Employee.class, "employer").getPaths());
+        assertEquals(Arrays.asList("<MANAGES", "KNOWS.KNOWS"), FetchPlan.named(Manager.class, "team").getPaths());
+        assertEquals(Arrays.asList("WORKS_AT"), FetchPlan.named(Manager.class, "employer").getPaths());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUndeclaredFetchPlans() {
+        FetchPlan.named(Employee.class, "team");
+    }
+
+    @NamedFetchPlan(name = "employer", paths = "WORKS_AT")
+    static class Employee {
+    }
+
+    @NamedFetchPlans({
+            @NamedFetchPlan(name = "team", paths = {"<MANAGES", "KNOWS.KNOWS"}),
+            @NamedFetchPlan(name = "reports", paths = "<MANAGES")
+    })
+    static class Manager extends Employee {
+    }
+
+}
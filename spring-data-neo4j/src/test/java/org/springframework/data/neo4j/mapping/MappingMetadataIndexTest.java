@@ -0,0 +1,63 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.neo4j.ogm.session.SessionFactory;
+import org.springframework.data.neo4j.examples.movies.domain.Cinema;
+import org.springframework.data.neo4j.examples.movies.domain.Director;
+
+import static org.junit.Assert.*;
+
+public class MappingMetadataIndexTest {
+
+    private static final String CINEMA = Cinema.class.getName();
+
+    private final MappingMetadataIndex index = MappingMetadataIndex.load(getClass().getClassLoader(),
+            "org/springframework/data/neo4j/mapping/movies-mapping.index");
+
+    @Test
+    public void shouldReadIndexedEntities() {
+        assertEquals(1, index.getEntityClassNames().size());
+        assertArrayEquals(new String[] { "org.springframework.data.neo4j.examples.movies.domain" }, index.getPackageNames());
+
+        MappingMetadataIndex.IndexedEntity cinema = index.getEntity(CINEMA);
+        assertFalse(cinema.isRelationshipEntity());
+        assertEquals("Theatre", cinema.getLabel());
+    }
+
+    @Test
+    public void shouldOnlyScanThePackagesOfIndexedEntities() {
+        MetaData metaData = new SessionFactory(index.getPackageNames()).metaData();
+
+        assertNotNull(metaData.classInfo(CINEMA));
+    }
+
+    @Test
+    public void shouldBeEmptyWhenNoIndexIsFound() {
+        assertTrue(MappingMetadataIndex.load(getClass().getClassLoader(), "no/such/mapping.index").isEmpty());
+    }
+
+    @Test
+    public void shouldOnlyRegisterIndexedEntitiesUpFront() {
+        MetaData metaData = new MetaData("org.springframework.data.neo4j.examples.movies.domain");
+
+        Neo4jMappingContext mappingContext = new Neo4jMappingContext(metaData, index, 1, false);
+
+        assertTrue(mappingContext.hasPersistentEntityFor(Cinema.class));
+        assertFalse(mappingContext.hasPersistentEntityFor(Director.class));
+    }
+
+}
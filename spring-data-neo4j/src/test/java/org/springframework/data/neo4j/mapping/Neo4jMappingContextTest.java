@@ -0,0 +1,83 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.mapping;
+
+import org.junit.Test;
+import org.neo4j.ogm.MetaData;
+import org.springframework.data.neo4j.examples.movies.domain.Cinema;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.integration.conversion.domain.MonetaryAmount;
+import org.springframework.data.neo4j.integration.conversion.domain.PensionPlan;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class Neo4jMappingContextTest {
+
+    private final MetaData metaData = new MetaData("org.springframework.data.neo4j.examples.movies.domain");
+
+    @Test
+    public void shouldRegisterTheSameEntitiesInParallelAsSequentially() {
+        Neo4jMappingContext sequential = new Neo4jMappingContext(metaData, 1, false);
+        Neo4jMappingContext parallel = new Neo4jMappingContext(metaData, 4, false);
+
+        assertTrue(parallel.hasPersistentEntityFor(User.class));
+        assertTrue(parallel.hasPersistentEntityFor(Cinema.class));
+        assertEquals(typesOf(sequential), typesOf(parallel));
+    }
+
+    @Test
+    public void shouldOnlyBuildEntitiesOnFirstRequestWhenLazy() {
+        Neo4jMappingContext mappingContext = new Neo4jMappingContext(metaData, 4, true);
+        assertFalse(mappingContext.hasPersistentEntityFor(Cinema.class));
+
+        Neo4jPersistentEntity<?> cinema = mappingContext.getPersistentEntity(Cinema.class);
+
+        assertNotNull(cinema);
+        assertEquals("id", cinema.getIdProperty().getName());
+        assertTrue(mappingContext.hasPersistentEntityFor(Cinema.class));
+    }
+
+    @Test
+    public void shouldTreatConvertedPropertyTypesAsSimple() {
+        Neo4jMappingContext mappingContext = new Neo4jMappingContext(
+                new MetaData("org.springframework.data.neo4j.integration.conversion.domain"), 1, false);
+
+        Neo4jPersistentEntity<?> pensionPlan = mappingContext.getPersistentEntity(PensionPlan.class);
+
+        assertFalse(pensionPlan.getPersistentProperty("fundValue").isEntity());
+        assertFalse(pensionPlan.getPersistentProperty("javaElement").isEntity());
+    }
+
+    @Test
+    public void shouldRevisitCachedDecisionsWhenSimpleTypeIsAdded() {
+        Neo4jSimpleTypeHolder simpleTypeHolder = new Neo4jSimpleTypeHolder();
+        assertFalse(simpleTypeHolder.isSimpleType(MonetaryAmount.class));
+
+        simpleTypeHolder.addSimpleType(MonetaryAmount.class);
+
+        assertTrue(simpleTypeHolder.isSimpleType(MonetaryAmount.class));
+    }
+
+    private static Set<Class<?>> typesOf(Neo4jMappingContext mappingContext) {
+        Set<Class<?>> types = new HashSet<>();
+        for (Neo4jPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            types.add(entity.getType());
+        }
+        return types;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.metrics.context.MetricsConfiguration;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.data.neo4j.template.TestNeo4jEventListener;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that repository methods and template operations are recorded with the {@link MetricsRegistry}.
+ */
+@ContextConfiguration(classes = MetricsConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class MetricsTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SimpleMetricsRegistry metricsRegistry;
+
+    @Autowired
+    private TestNeo4jEventListener<AfterSaveEvent> afterSaveEventListener;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+        metricsRegistry.reset();
+    }
+
+    @Test
+    public void shouldRecordRepositoryMethodsByNameAndDomainType() {
+        userRepository.save(new User("Michal"));
+        userRepository.save(new User("Vince"));
+        assertEquals(1, userRepository.findByName("Michal").size());
+        assertEquals(0, userRepository.findByName("Luanne").size());
+
+        OperationStatistics saves = metricsRegistry.getStatistics("UserRepository.save(User)", User.class);
+        assertEquals(2, saves.getCount());
+        assertEquals(2, saves.getRowCount());
+
+        OperationStatistics finds = metricsRegistry.getStatistics("UserRepository.findByName(String)", User.class);
+        assertEquals(2, finds.getCount());
+        assertEquals(0, finds.getErrorCount());
+        assertEquals(1, finds.getRowCount());
+        assertTrue(finds.getMaxTime(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(finds.getPercentile(50, TimeUnit.NANOSECONDS) <= finds.getMaxTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void shouldRecordOverloadedRepositoryMethodsApart() {
+        userRepository.save(new User("Michal"));
+        userRepository.save(Arrays.asList(new User("Vince"), new User("Luanne")));
+        userRepository.save(new User("Adam"), 0);
+
+        assertEquals(1, metricsRegistry.getStatistics("UserRepository.save(User)", User.class).getCount());
+        assertEquals(1, metricsRegistry.getStatistics("UserRepository.save(Iterable)", User.class).getCount());
+        assertEquals(1, metricsRegistry.getStatistics("UserRepository.save(User, int)", User.class).getCount());
+    }
+
+    @Test
+    public void shouldRecordTemplateOperationsAndErrors() {
+        User user = neo4jTemplate.save(new User("Michal"));
+        neo4jTemplate.load(User.class, user.getId());
+        try {
+            neo4jTemplate.query("NOT CYPHER", Collections.<String, Object>emptyMap());
+            fail("Should have thrown an exception for invalid Cypher");
+        } catch (RuntimeException expected) {
+            // the failure is recorded below
+        }
+
+        assertEquals(1, metricsRegistry.getStatistics("Neo4jOperations.save", User.class).getCount());
+        assertEquals(1, metricsRegistry.getStatistics("Neo4jOperations.load", User.class).getRowCount());
+        neo4jTemplate.delete(user);
+        assertEquals(1, metricsRegistry.getStatistics("Neo4jOperations.delete", User.class).getRowCount());
+
+        OperationStatistics queries = metricsRegistry.getStatistics("Neo4jOperations.query", null);
+        assertEquals(1, queries.getCount());
+        assertEquals(1, queries.getErrorCount());
+    }
+
+    @Test
+    public void shouldStillPublishEventsFromTheDecoratedTemplate() {
+        assertTrue("The template should have been decorated", AopUtils.isAopProxy(neo4jTemplate));
+
+        User user = neo4jTemplate.save(new User("Michal"));
+
+        assertTrue(afterSaveEventListener.hasReceivedAnEvent());
+        assertSame(user, afterSaveEventListener.getEvent().getEntity());
+        assertEquals(1, metricsRegistry.getStatistics("Neo4jOperations.save", User.class).getCount());
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class OperationStatisticsTest {
+
+    @Test
+    public void shouldCountLatenciesInDoublingBuckets() {
+        assertEquals(0, OperationStatistics.bucketOf(0));
+        assertEquals(0, OperationStatistics.bucketOf(1000));
+        assertEquals(1, OperationStatistics.bucketOf(1001));
+        assertEquals(10, OperationStatistics.bucketOf(TimeUnit.MICROSECONDS.toNanos(1024)));
+        assertEquals(OperationStatistics.BUCKETS - 1, OperationStatistics.bucketOf(TimeUnit.HOURS.toNanos(1)));
+        assertEquals(Long.MAX_VALUE, OperationStatistics.getBucketUpperBound(OperationStatistics.BUCKETS - 1, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void shouldAggregateRecordedOperations() {
+        OperationStatistics statistics = new OperationStatistics("find", Object.class, System.nanoTime());
+        for (int i = 0; i < 99; i++) {
+            statistics.record(TimeUnit.MICROSECONDS.toNanos(100), 2, false);
+        }
+        statistics.record(TimeUnit.MILLISECONDS.toNanos(50), 0, true);
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(1, statistics.getErrorCount());
+        assertEquals(198, statistics.getRowCount());
+        assertEquals(50, statistics.getMaxTime(TimeUnit.MILLISECONDS));
+        assertEquals(128, statistics.getPercentile(50, TimeUnit.MICROSECONDS));
+        assertEquals(128, statistics.getPercentile(99, TimeUnit.MICROSECONDS));
+        assertEquals(50000, statistics.getPercentile(100, TimeUnit.MICROSECONDS));
+    }
+
+}
@@ -26,10 +26,17 @@ import org.springframework.data.neo4j.examples.movies.context.MoviesContext;
 import org.springframework.data.neo4j.examples.movies.domain.Cinema;
 import org.springframework.data.neo4j.examples.movies.domain.Director;
 import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.CinemaIdentity;
 import org.springframework.data.neo4j.examples.movies.repo.CinemaRepository;
+import org.springframework.data.neo4j.examples.movies.repo.CinemaSummary;
 import org.springframework.data.neo4j.examples.movies.repo.DirectorRepository;
 import org.springframework.data.neo4j.examples.movies.repo.RatingRepository;
 import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.repository.query.derived.ProjectedFinderQuery;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -65,6 +72,9 @@ public class DerivedQueryTest extends MultiDriverTestClass {
 	@Autowired
 	private DirectorRepository directorRepository;
 
+	@Autowired
+	private Neo4jMappingContext mappingContext;
+
 	@Before
 	public void init() throws IOException {
 		graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
@@ -446,4 +456,61 @@ public class DerivedQueryTest extends MultiDriverTestClass {
 
 	}
 
+	@Test
+	public void shouldFetchOnlyProjectedPropertiesForClosedProjections() {
+		executeUpdate("CREATE (p:Theatre {name:'Picturehouse', city:'London', capacity:5000}) CREATE (r:Theatre {name:'Ritzy', city:'London', capacity: 7500}) CREATE (m:Theatre {name:'Regal', city:'Bombay', capacity: 9000})");
+
+		List<CinemaSummary> summaries = cinemaRepository.findSummariesByLocationAndCapacityGreaterThan("London", 6000);
+		assertEquals(1, summaries.size());
+		assertEquals("Ritzy", summaries.get(0).getName());
+		assertEquals("London", summaries.get(0).getLocation());
+		assertEquals(7500, summaries.get(0).getCapacity());
+
+		CinemaSummary summary = cinemaRepository.findSummaryByName("Regal");
+		assertEquals("Bombay", summary.getLocation());
+		assertEquals(9000, summary.getCapacity());
+
+		assertNull(cinemaRepository.findSummaryByName("Odeon"));
+	}
+
+	@Test
+	public void shouldFetchTheGraphIdOfClosedProjections() {
+		Long id = ((Number) graphDatabaseService.execute("CREATE (r:Theatre {name:'Ritzy', city:'London', capacity: 7500}) RETURN id(r) AS id").next().get("id")).longValue();
+
+		ProjectedFinderQuery query = ProjectedFinderQuery.forFinder(new PartTree("findIdentityByName", Cinema.class),
+				ReturnedType.of(CinemaIdentity.class, Cinema.class, new SpelAwareProxyProjectionFactory()), mappingContext);
+		assertEquals("MATCH (n:`Theatre`) WHERE (n.`name` = {0}) RETURN id(n) AS `id`, n.`name` AS `name`", query.getStatement());
+
+		CinemaIdentity identity = cinemaRepository.findIdentityByName("Ritzy");
+		assertEquals(id, identity.getId());
+		assertEquals("Ritzy", identity.getName());
+	}
+
+	@Test
+	public void shouldNotFetchPropertiesThatTheMappingMetadataLeavesOut() {
+		assertNull(ProjectedFinderQuery.forFinder(new PartTree("findByName", Cinema.class),
+				ReturnedType.of(CinemaOpeningHours.class, Cinema.class, new SpelAwareProxyProjectionFactory()), mappingContext));
+		assertNull(ProjectedFinderQuery.forFinder(new PartTree("findByOpeningHours", Cinema.class),
+				ReturnedType.of(CinemaIdentity.class, Cinema.class, new SpelAwareProxyProjectionFactory()), mappingContext));
+	}
+
+	@Test
+	public void shouldProjectLoadedEntitiesWhenProjectedPropertiesCannotBeFetchedDirectly() {
+		executeUpdate("CREATE (p:Theatre {name:'Picturehouse', city:'London', capacity:5000}) CREATE (r:Theatre {name:'Ritzy', city:'London', capacity: 7500})" +
+				" CREATE (u:User {name:'Michal'}) CREATE (u)-[:VISITED]->(r)");
+
+		List<CinemaSummary> summaries = cinemaRepository.findSummariesByVisitedName("Michal");
+		assertEquals(1, summaries.size());
+		assertEquals("Ritzy", summaries.get(0).getName());
+		assertEquals(7500, summaries.get(0).getCapacity());
+	}
+
+	/**
+	 * A closed projection of a property that isn't persisted.
+	 */
+	interface CinemaOpeningHours {
+
+		String getOpeningHours();
+	}
+
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.queries;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.queries.context.FindOneCoalescerContext;
+import org.springframework.data.neo4j.repository.FindOneCoalescer;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@ContextConfiguration(classes = FindOneCoalescerContext.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class FindOneCoalescerTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FindOneCoalescer findOneCoalescer;
+
+    @Autowired
+    private Session session;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldLoadConcurrentLookupsInOneBatch() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (String name : new String[] {"Michal", "Vince", "Luanne", "Adam"}) {
+            users.add(userRepository.save(new User(name)));
+        }
+        long batchesBefore = findOneCoalescer.getBatchesLoaded();
+
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        try {
+            List<Future<User>> lookups = new ArrayList<>();
+            for (final User user : users) {
+                lookups.add(executor.submit(new Callable<User>() {
+                    @Override
+                    public User call() {
+                        return userRepository.findOne(user.getId());
+                    }
+                }));
+            }
+            for (int i = 0; i < users.size(); i++) {
+                assertEquals(users.get(i).getName(), lookups.get(i).get(10, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(batchesBefore + 1, findOneCoalescer.getBatchesLoaded());
+    }
+
+    @Test
+    public void shouldLoadBatchOnceTheWindowExpiresBeforeItFills() throws Exception {
+        User michal = userRepository.save(new User("Michal"));
+        User vince = userRepository.save(new User("Vince"));
+        FindOneCoalescer coalescer = new FindOneCoalescer(200, TimeUnit.MILLISECONDS, 4);
+
+        long start = System.nanoTime();
+        List<User> found = findConcurrently(coalescer, new Session[] {session, session}, michal.getId(), vince.getId());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Michal", found.get(0).getName());
+        assertEquals("Vince", found.get(1).getName());
+        assertEquals(1, coalescer.getBatchesLoaded());
+        assertTrue("The batch should have waited for the window, not for more IDs", elapsedMillis >= 200 && elapsedMillis < 10000);
+    }
+
+    @Test
+    public void shouldCoalesceLookupsThroughProxiesOfTheSameSession() throws Exception {
+        User michal = userRepository.save(new User("Michal"));
+        User vince = userRepository.save(new User("Vince"));
+        FindOneCoalescer coalescer = new FindOneCoalescer(30, TimeUnit.SECONDS, 2);
+        Session proxy = (Session) new ProxyFactory(session).getProxy();
+
+        List<User> found = findConcurrently(coalescer, new Session[] {session, proxy}, michal.getId(), vince.getId());
+
+        assertEquals("Michal", found.get(0).getName());
+        assertEquals("Vince", found.get(1).getName());
+        assertEquals(1, coalescer.getBatchesLoaded());
+    }
+
+    @Test
+    public void shouldNotCoalesceLookupsWithinATransaction() {
+        final User user = userRepository.save(new User("Michal"));
+        long batchesBefore = findOneCoalescer.getBatchesLoaded();
+
+        User found = new TransactionTemplate(transactionManager).execute(new TransactionCallback<User>() {
+            @Override
+            public User doInTransaction(TransactionStatus status) {
+                return userRepository.findOne(user.getId());
+            }
+        });
+
+        assertEquals("Michal", found.getName());
+        assertEquals(batchesBefore, findOneCoalescer.getBatchesLoaded());
+    }
+
+    private List<User> findConcurrently(final FindOneCoalescer coalescer, Session[] sessions, Long... ids) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ids.length);
+        try {
+            List<Future<User>> lookups = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                final Session session = sessions[i];
+                final Long id = ids[i];
+                lookups.add(executor.submit(new Callable<User>() {
+                    @Override
+                    public User call() {
+                        return coalescer.findOne(session, User.class, id, 1);
+                    }
+                }));
+            }
+            List<User> found = new ArrayList<>();
+            for (Future<User> lookup : lookups) {
+                found.add(lookup.get(10, TimeUnit.SECONDS));
+            }
+            return found;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.queries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.neo4j.examples.movies.domain.Cinema;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.queries.context.QueryResultCacheContext;
+import org.springframework.data.neo4j.queries.repo.CachedUserRepository;
+import org.springframework.data.neo4j.repository.query.QueryResultCache;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@ContextConfiguration(classes = {QueryResultCacheContext.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class QueryResultCacheTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private CachedUserRepository userRepository;
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void init() {
+        clearDatabase();
+    }
+
+    @After
+    public void clearDatabase() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        cacheManager.getCache("users").clear();
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldServeRepeatedQueriesFromCache() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'})");
+        assertEquals(1, userRepository.countUsers());
+
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Vince'})");
+        assertEquals(1, userRepository.countUsers());
+    }
+
+    @Test
+    public void shouldKeyCachedResultsByParameters() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'}), (:User:Person {name:'Vince'})");
+
+        assertEquals(1, userRepository.findUsersByName("Michal").size());
+        assertEquals("Vince", userRepository.findUsersByName("Vince").iterator().next().getName());
+    }
+
+    @Test
+    public void shouldEvictCachedResultsWhenEntityWithLabelIsSaved() {
+        neo4jTemplate.save(new User("Michal"));
+        assertEquals(1, userRepository.countUsers());
+
+        neo4jTemplate.save(new User("Vince"));
+        assertEquals(2, userRepository.countUsers());
+    }
+
+    @Test
+    public void shouldOnlyEvictCachedResultsForDeclaredLabels() {
+        neo4jTemplate.save(new User("Michal"));
+        assertEquals(1, userRepository.countUsersInvalidatedByTheatres());
+
+        neo4jTemplate.save(new User("Vince"));
+        assertEquals(1, userRepository.countUsersInvalidatedByTheatres());
+
+        neo4jTemplate.save(new Cinema("Picturehouse"));
+        assertEquals(2, userRepository.countUsersInvalidatedByTheatres());
+    }
+
+    @Test
+    public void shouldNotCacheResultsComputedWhileTheirLabelsWereInvalidated() {
+        Collection<String> labels = Collections.singleton("User");
+        long generation = queryResultCache.generationOf(labels);
+
+        queryResultCache.evictLabels(labels);
+        queryResultCache.put("users", "stale", 1, 0, labels, generation);
+
+        assertNull(queryResultCache.get("users", "stale"));
+        assertEquals(0, queryResultCache.getIndexedResultCount());
+    }
+
+    @Test
+    public void shouldNotCacheResultsComputedWithinATransactionThatRollsBack() {
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Michal"));
+                    assertEquals(1, userRepository.countUsers());
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            neo4jTemplate.clear();
+        }
+
+        assertEquals(0, userRepository.countUsers());
+        assertEquals(1, queryResultCache.getIndexedResultCount());
+    }
+
+    @Test
+    public void shouldRemoveResultsNoLongerHeldByTheCacheFromTheLabelIndex() {
+        Collection<String> labels = Collections.singleton("User");
+        queryResultCache.put("users", "evicted", 1, 0, labels, queryResultCache.generationOf(labels));
+        queryResultCache.put("users", "expired", 2, 1, labels, queryResultCache.generationOf(labels));
+        queryResultCache.put("users", "kept", 3, 0, labels, queryResultCache.generationOf(labels));
+        assertEquals(3, queryResultCache.getIndexedResultCount());
+
+        cacheManager.getCache("users").evict("evicted");
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queryResultCache.purgeIndex();
+
+        assertEquals(1, queryResultCache.getIndexedResultCount());
+        assertEquals(3, queryResultCache.get("users", "kept").get());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.queries;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.queries.context.SlowQueryLogContext;
+import org.springframework.data.neo4j.repository.query.SlowQuery;
+import org.springframework.data.neo4j.repository.query.SlowQueryLog;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@ContextConfiguration(classes = {SlowQueryLogContext.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class SlowQueryLogTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @After
+    public void clearDatabase() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+        slowQueryLog.clear();
+    }
+
+    @Test
+    public void shouldRecordCypherAndRedactedParametersOfQueryMethods() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'})");
+
+        assertNotNull(userRepository.findUserByNameWithNamedParam("Michal"));
+
+        List<SlowQuery> slowQueries = slowQueryLog.getRecentSlowQueries();
+        assertEquals(1, slowQueries.size());
+        SlowQuery slowQuery = slowQueries.get(0);
+        assertEquals("UserRepository.findUserByNameWithNamedParam", slowQuery.getMethod());
+        assertEquals("MATCH (user:User{name:{name}}) RETURN user", slowQuery.getStatement());
+        assertEquals("String(6)", slowQuery.getParameterShapes().get("name"));
+        assertFalse(slowQuery.toString().contains("Michal"));
+        assertEquals(1, slowQuery.getResultSize());
+        assertEquals(-1, slowQuery.getDepth());
+    }
+
+    @Test
+    public void shouldRecordFiltersOfDerivedFinders() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'}), (:User:Person {name:'Vince'})");
+
+        assertEquals(1, userRepository.findByName("Vince").size());
+
+        SlowQuery slowQuery = slowQueryLog.getRecentSlowQueries().get(0);
+        assertEquals("name EQUALS ?", slowQuery.getStatement());
+        assertEquals("String(5)", slowQuery.getParameterShapes().get("name"));
+        assertEquals(1, slowQuery.getDepth());
+    }
+
+    @Test
+    public void shouldRecordSlowQueriesThatFailWithTheirFailure() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'}), (:User:Person {name:'Michal'})");
+
+        try {
+            userRepository.findUserByNameWithNamedParam("Michal");
+            fail("Should have failed to return one user where there are two");
+        } catch (RuntimeException expected) {
+            // the failure is recorded below
+        }
+
+        List<SlowQuery> slowQueries = slowQueryLog.getRecentSlowQueries();
+        assertEquals(1, slowQueries.size());
+        SlowQuery slowQuery = slowQueries.get(0);
+        assertEquals("UserRepository.findUserByNameWithNamedParam", slowQuery.getMethod());
+        assertNotNull(slowQuery.getError());
+        assertEquals(0, slowQuery.getResultSize());
+        assertTrue(slowQuery.toString().contains("failing with " + slowQuery.getError().getClass().getName()));
+    }
+
+    @Test
+    public void shouldOnlyKeepTheMostRecentSlowQueries() {
+        userRepository.findByName("Michal");
+        userRepository.findUserByNameWithNamedParam("Vince");
+        userRepository.findByName("Luanne");
+
+        List<SlowQuery> slowQueries = slowQueryLog.getRecentSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals("UserRepository.findUserByNameWithNamedParam", slowQueries.get(0).getMethod());
+        assertEquals("String(6)", slowQueries.get(1).getParameterShapes().get("name"));
+    }
+
+}
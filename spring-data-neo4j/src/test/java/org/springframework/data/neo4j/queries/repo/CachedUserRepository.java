@@ -0,0 +1,34 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.queries.repo;
+
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.repository.GraphRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface CachedUserRepository extends GraphRepository<User> {
+
+    @Query(value = "MATCH (user:User) RETURN COUNT(user)", cacheName = "users")
+    int countUsers();
+
+    @Query(value = "MATCH (user:User) WHERE user.name = {0} RETURN user", cacheName = "users", cacheTimeToLive = 60)
+    Collection<User> findUsersByName(String name);
+
+    @Query(value = "MATCH (user:User) RETURN COUNT(user)", cacheName = "users", cacheLabels = "Theatre")
+    int countUsersInvalidatedByTheatres();
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BatchDeleteEvent;
+import org.springframework.data.neo4j.event.BatchSaveEvent;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.template.context.BatchedEventConfiguration;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that data manipulation events are published in batches after commit when the transaction manager
+ * batches events.
+ */
+@ContextConfiguration(classes = BatchedEventConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class BatchedEventTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestNeo4jEventListener<AfterSaveEvent> afterSaveEventListener;
+
+    @Autowired
+    private TestBatchEventListener<BatchSaveEvent> batchSaveEventListener;
+
+    @Autowired
+    private TestBatchEventListener<BatchDeleteEvent> batchDeleteEventListener;
+
+    @Before
+    public void setUp() {
+        batchSaveEventListener.reset();
+        batchDeleteEventListener.reset();
+    }
+
+    @After
+    public void tearDown() {
+        ((Neo4jTransactionManager) transactionManager).setEventExecutor(null);
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldPublishOneBatchPerTransactionAfterCommit() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User user = null;
+                for (int i = 0; i < 3; i++) {
+                    user = neo4jTemplate.save(new User("User " + i));
+                }
+                neo4jTemplate.save(user);
+                neo4jTemplate.delete(user);
+                assertTrue(batchSaveEventListener.getEvents().isEmpty());
+            }
+        });
+
+        assertFalse(afterSaveEventListener.hasReceivedAnEvent());
+        assertEquals(1, batchSaveEventListener.getEvents().size());
+        assertEquals(3, batchSaveEventListener.getEvents().get(0).getEntities().size());
+        assertEquals(1, batchDeleteEventListener.getEvents().size());
+        assertEquals(1, batchDeleteEventListener.getEvents().get(0).getEntities().size());
+        assertNotNull(batchDeleteEventListener.getEvents().get(0).getEvents().get(0).getGraphId());
+    }
+
+    @Test
+    public void shouldNotPublishBatchAfterRollback() {
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Michal"));
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            assertTrue(batchSaveEventListener.getEvents().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldPublishBatchOnEventExecutor() throws InterruptedException {
+        final List<Runnable> tasks = new ArrayList<>();
+        final User[] saved = new User[1];
+        ((Neo4jTransactionManager) transactionManager).setEventExecutor(new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        });
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                saved[0] = neo4jTemplate.save(new User("Vince"));
+            }
+        });
+
+        assertTrue(batchSaveEventListener.getEvents().isEmpty());
+        assertEquals(1, tasks.size());
+        Thread publisher = new Thread(tasks.get(0));
+        publisher.start();
+        publisher.join();
+        assertEquals(1, batchSaveEventListener.getEvents().size());
+        assertEquals(saved[0].getId(), batchSaveEventListener.getEvents().get(0).getEvents().get(0).getGraphId());
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.event.CacheInvalidation;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.template.context.CacheInvalidationConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that template and repository writes are passed on to cache invalidation listeners, coalesced per
+ * transaction.
+ */
+@ContextConfiguration(classes = CacheInvalidationConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class CacheInvalidationBusTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingCacheInvalidationListener listener;
+
+    @Before
+    public void setUp() {
+        listener.reset();
+    }
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldInvalidateImmediatelyOutsideTransaction() {
+        User user = neo4jTemplate.save(new User("Michal"));
+
+        List<CacheInvalidation> invalidations = listener.getInvalidations();
+        assertEquals(1, invalidations.size());
+        assertTrue(invalidations.get(0).getLabels().contains("User"));
+        assertTrue(invalidations.get(0).getIds().contains(user.getId()));
+    }
+
+    @Test
+    public void shouldInvalidateForRepositoryWrites() {
+        User user = userRepository.save(new User("Vince"));
+        listener.reset();
+
+        userRepository.delete(user);
+
+        List<CacheInvalidation> invalidations = listener.getInvalidations();
+        assertEquals(1, invalidations.size());
+        assertTrue(invalidations.get(0).getTypes().contains(User.class));
+    }
+
+    @Test
+    public void shouldCoalesceInvalidationsUntilCommit() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (int i = 0; i < 10; i++) {
+                    neo4jTemplate.save(new User("User " + i));
+                }
+                userRepository.save(new User("Adam"));
+                assertTrue(listener.getInvalidations().isEmpty());
+            }
+        });
+
+        List<CacheInvalidation> invalidations = listener.getInvalidations();
+        assertEquals(1, invalidations.size());
+        assertEquals(11, invalidations.get(0).getIds().size());
+    }
+
+    @Test
+    public void shouldNotInvalidateAfterRollback() {
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Luanne"));
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            assertTrue(listener.getInvalidations().isEmpty());
+        }
+    }
+
+}
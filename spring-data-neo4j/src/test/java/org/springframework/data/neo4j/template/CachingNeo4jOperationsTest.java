@@ -0,0 +1,170 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.domain.Genre;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.template.context.Neo4jTemplateConfiguration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test to assert that {@link CachingNeo4jOperations} serves repeated loads from its cache and evicts only the entries
+ * affected by a change.
+ */
+@ContextConfiguration(classes = Neo4jTemplateConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+public class CachingNeo4jOperationsTest extends MultiDriverTestClass {
+
+    private GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations template;
+
+    @Autowired
+    private Neo4jMappingContext mappingContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Neo4jOperations delegate;
+    private CachingNeo4jOperations cachingOperations;
+
+    @Before
+    public void setUp() {
+        delegate = spy(template);
+        cachingOperations = new CachingNeo4jOperations(delegate, mappingContext, 2, 0, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void clearDatabase() {
+        try (Transaction tx = graphDatabaseService.beginTx()) {
+            graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+            tx.success();
+        }
+        template.clear();
+    }
+
+    @Test
+    public void shouldServeRepeatedLoadsFromTheCache() {
+        Genre genre = template.save(new Genre("Thriller"));
+
+        Genre first = cachingOperations.load(Genre.class, genre.getId());
+        Genre second = cachingOperations.load(Genre.class, genre.getId());
+
+        assertEquals("Thriller", first.getName());
+        assertSame("Cached entities should be shared", first, second);
+        verify(delegate, times(1)).load(Genre.class, genre.getId(), 1);
+    }
+
+    @Test
+    public void shouldEvictOnlyTheChangedEntityAtDepthZero() {
+        Genre thriller = template.save(new Genre("Thriller"));
+        Genre comedy = template.save(new Genre("Comedy"));
+        cachingOperations.load(Genre.class, thriller.getId(), 0);
+        cachingOperations.load(Genre.class, comedy.getId(), 0);
+
+        thriller.setName("Psychological Thriller");
+        cachingOperations.save(thriller);
+
+        assertEquals("Psychological Thriller", cachingOperations.load(Genre.class, thriller.getId(), 0).getName());
+        cachingOperations.load(Genre.class, comedy.getId(), 0);
+        verify(delegate, times(2)).load(Genre.class, thriller.getId(), 0);
+        verify(delegate, times(1)).load(Genre.class, comedy.getId(), 0);
+    }
+
+    @Test
+    public void shouldEvictOnlyTheEntriesFromWhichTheChangedTypeIsReachable() {
+        Genre genre = template.save(new Genre("Thriller"));
+        User michal = template.save(new User("Michal"));
+        cachingOperations.load(Genre.class, genre.getId());
+        cachingOperations.load(User.class, michal.getId());
+
+        // a user's friends are users, so Michal at depth 1 may contain Vince, but a genre can't reach a user
+        cachingOperations.save(new User("Vince"));
+
+        cachingOperations.load(Genre.class, genre.getId());
+        cachingOperations.load(User.class, michal.getId());
+        verify(delegate, times(1)).load(Genre.class, genre.getId(), 1);
+        verify(delegate, times(2)).load(User.class, michal.getId(), 1);
+    }
+
+    @Test
+    public void shouldNotCacheEntitiesLoadedWithinATransactionThatRollsBack() {
+        final Genre genre = template.save(new Genre("Thriller"));
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    genre.setName("Comedy");
+                    template.save(genre);
+                    assertEquals("Comedy", cachingOperations.load(Genre.class, genre.getId(), 0).getName());
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            template.clear();
+        }
+
+        assertEquals("Thriller", cachingOperations.load(Genre.class, genre.getId(), 0).getName());
+        verify(delegate, times(2)).load(Genre.class, genre.getId(), 0);
+    }
+
+    @Test
+    public void shouldEvictDeletedEntities() {
+        Genre genre = template.save(new Genre("Thriller"));
+        cachingOperations.load(Genre.class, genre.getId(), 0);
+
+        cachingOperations.delete(genre);
+
+        assertNull(cachingOperations.load(Genre.class, genre.getId(), 0));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedEntryOnceFull() {
+        Genre thriller = template.save(new Genre("Thriller"));
+        Genre comedy = template.save(new Genre("Comedy"));
+        Genre drama = template.save(new Genre("Drama"));
+
+        cachingOperations.load(Genre.class, thriller.getId(), 0);
+        cachingOperations.load(Genre.class, comedy.getId(), 0);
+        cachingOperations.load(Genre.class, thriller.getId(), 0);
+        cachingOperations.load(Genre.class, drama.getId(), 0);
+
+        cachingOperations.load(Genre.class, thriller.getId(), 0);
+        cachingOperations.load(Genre.class, comedy.getId(), 0);
+        verify(delegate, times(1)).load(Genre.class, thriller.getId(), 0);
+        verify(delegate, times(2)).load(Genre.class, comedy.getId(), 0);
+    }
+
+}
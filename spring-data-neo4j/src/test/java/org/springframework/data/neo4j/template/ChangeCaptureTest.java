@@ -0,0 +1,139 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.changelog.ChangeLog;
+import org.springframework.data.neo4j.changelog.EntityChange;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.template.context.ChangeCaptureConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that template and repository writes are captured in the change log when their transaction commits.
+ */
+@ContextConfiguration(classes = ChangeCaptureConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class ChangeCaptureTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldCaptureCommittedChangesInOrder() {
+        final long start = changeLog.getLastSequence() + 1;
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User michal = neo4jTemplate.save(new User("Michal"));
+                User vince = userRepository.save(new User("Vince"));
+                michal.setName("Michal Bachman");
+                neo4jTemplate.save(michal);
+                userRepository.delete(vince);
+                assertEquals(start - 1, changeLog.getLastSequence());
+            }
+        });
+
+        List<EntityChange> changes = changeLog.read(start, 10);
+        assertEquals(3, changes.size());
+        assertEquals(EntityChange.Type.SAVE, changes.get(0).getType());
+        assertEquals("Michal Bachman", changes.get(0).getProperties().get("name"));
+        assertTrue(changes.get(0).getLabels().contains("User"));
+        assertNotNull(changes.get(0).getId());
+        assertEquals(EntityChange.Type.SAVE, changes.get(1).getType());
+        assertEquals(EntityChange.Type.DELETE, changes.get(2).getType());
+        assertEquals(changes.get(1).getId(), changes.get(2).getId());
+    }
+
+    @Test
+    public void shouldCaptureOnlyTheChangedPropertiesOfLoadedEntities() {
+        User saved = userRepository.save(new User("Luanne"));
+        final Long id = saved.getId();
+        neo4jTemplate.clear();
+        final long start = changeLog.getLastSequence() + 1;
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User luanne = userRepository.findOne(id);
+                luanne.setName("Luanne Misquitta");
+                userRepository.save(luanne);
+                luanne.setMiddleName("M");
+                neo4jTemplate.save(luanne);
+            }
+        });
+
+        List<EntityChange> changes = changeLog.read(start, 10);
+        assertEquals(1, changes.size());
+        assertEquals(id, changes.get(0).getId());
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "Luanne Misquitta");
+        expected.put("middleName", "M");
+        assertEquals(expected, changes.get(0).getProperties());
+    }
+
+    @Test
+    public void shouldNotCaptureRolledBackChanges() {
+        long last = changeLog.getLastSequence();
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Luanne"));
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            assertEquals(last, changeLog.getLastSequence());
+        }
+    }
+
+}
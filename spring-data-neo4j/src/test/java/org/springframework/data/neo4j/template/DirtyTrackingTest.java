@@ -0,0 +1,227 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Result;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.examples.movies.domain.ReleasedMovie;
+import org.springframework.data.neo4j.examples.movies.domain.Ticket;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.template.context.DirtyTrackingConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that saving a tracked entity only writes the properties that have changed since it was loaded or saved.
+ * Each test changes the node behind the session's back, so that an unnecessary write shows up as a lost change.
+ */
+@ContextConfiguration(classes = DirtyTrackingConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class DirtyTrackingTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestNeo4jEventListener<AfterSaveEvent> afterSaveEventListener;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldOnlyWriteChangedProperties() {
+        User michal = new User("Michal");
+        michal.setMiddleName("M");
+        neo4jTemplate.save(michal);
+        changeBehindTheSession(michal.getId(), "middleName", "External");
+
+        michal.setName("Michal Bachman");
+        neo4jTemplate.save(michal);
+
+        assertEquals("Michal Bachman", readProperty(michal.getId(), "name"));
+        assertEquals("External", readProperty(michal.getId(), "middleName"));
+    }
+
+    @Test
+    public void shouldSkipSavingUnchangedEntity() {
+        Long id = userRepository.save(new User("Vince")).getId();
+        neo4jTemplate.clear();
+
+        User vince = userRepository.findOne(id);
+        changeBehindTheSession(id, "name", "External");
+        userRepository.save(vince);
+
+        assertEquals("External", readProperty(id, "name"));
+        AfterSaveEvent afterSaveEvent = (AfterSaveEvent) afterSaveEventListener.getEvent();
+        assertSame(vince, afterSaveEvent.getEntity());
+        assertTrue(afterSaveEvent.getChangedProperties().isEmpty());
+    }
+
+    @Test
+    public void shouldWriteConvertedValuesOfChangedProperties() {
+        ReleasedMovie movie = neo4jTemplate.save(new ReleasedMovie("Pulp Fiction", new Date(1000L), new Date(2000L)));
+        Long id = (Long) graphDatabaseService.execute("MATCH (m:ReleasedMovie) RETURN id(m) AS id").next().get("id");
+        changeBehindTheSession(id, "title", "External");
+
+        movie.setCannesRelease(new Date(3000L));
+        neo4jTemplate.save(movie);
+
+        assertEquals(3000L, readProperty(id, "cannesRelease"));
+        assertEquals("External", readProperty(id, "title"));
+    }
+
+    @Test
+    public void shouldRemovePropertySetToNull() {
+        User luanne = new User("Luanne");
+        luanne.setMiddleName("L");
+        neo4jTemplate.save(luanne);
+
+        luanne.setMiddleName(null);
+        neo4jTemplate.save(luanne);
+
+        assertNull(readProperty(luanne.getId(), "middleName"));
+        assertEquals("Luanne", readProperty(luanne.getId(), "name"));
+    }
+
+    @Test
+    public void shouldSaveInFullWhenRelationshipsChange() {
+        User adam = neo4jTemplate.save(new User("Adam"));
+
+        User daniela = new User("Daniela");
+        adam.befriend(daniela);
+        neo4jTemplate.save(adam);
+
+        assertNotNull(daniela.getId());
+        Result result = graphDatabaseService.execute("MATCH (a:User)-[:FRIEND_OF]-(d:User) WHERE id(a) = {id} RETURN d.name AS name",
+                Collections.<String, Object>singletonMap("id", adam.getId()));
+        assertEquals("Daniela", result.next().get("name"));
+    }
+
+    @Test
+    public void shouldCompareAFullSaveAgainstThePropertiesLastWritten() {
+        User adam = neo4jTemplate.save(new User("Adam"));
+        adam.setName("Adam George");
+        neo4jTemplate.save(adam);
+
+        adam.setName("Adam");
+        adam.befriend(new User("Daniela"));
+        neo4jTemplate.save(adam);
+
+        assertEquals("Adam", readProperty(adam.getId(), "name"));
+    }
+
+    @Test
+    public void shouldSkipSavingUnchangedVersionedEntityWithoutCheckingItsVersion() {
+        Ticket ticket = neo4jTemplate.save(new Ticket("A1"));
+        changeBehindTheSession(ticket.getId(), "version", 5L);
+
+        neo4jTemplate.save(ticket);
+
+        assertEquals(Long.valueOf(0), ticket.getVersion());
+        assertEquals(5L, readProperty(ticket.getId(), "version"));
+    }
+
+    @Test
+    public void shouldNotTrustSnapshotsTakenInRolledBackTransaction() {
+        final User jasper = neo4jTemplate.save(new User("Jasper"));
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    jasper.setName("Jasper Blues");
+                    neo4jTemplate.save(jasper);
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            assertEquals("Jasper", readProperty(jasper.getId(), "name"));
+        }
+
+        neo4jTemplate.save(jasper);
+
+        assertEquals("Jasper Blues", readProperty(jasper.getId(), "name"));
+    }
+
+    @Test
+    public void shouldKeepSnapshotsTakenOutsideRolledBackTransaction() {
+        final User michal = neo4jTemplate.save(new User("Michal"));
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Vince"));
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            changeBehindTheSession(michal.getId(), "name", "External");
+        }
+
+        neo4jTemplate.save(michal);
+
+        assertEquals("External", readProperty(michal.getId(), "name"));
+    }
+
+    private void changeBehindTheSession(Long id, String property, Object value) {
+        graphDatabaseService.execute("MATCH (n) WHERE id(n) = {id} SET n." + property + " = {value}",
+                parameters(id, value));
+    }
+
+    private Object readProperty(Long id, String property) {
+        Result result = graphDatabaseService.execute("MATCH (n) WHERE id(n) = {id} RETURN n." + property + " AS value",
+                parameters(id, null));
+        return result.next().get("value");
+    }
+
+    private static Map<String, Object> parameters(Long id, Object value) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        parameters.put("value", value);
+        return parameters;
+    }
+
+}
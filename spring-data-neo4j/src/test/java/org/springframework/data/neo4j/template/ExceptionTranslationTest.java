@@ -16,9 +16,14 @@ package org.springframework.data.neo4j.template;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.neo4j.ogm.exception.NotFoundException;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.neo4j.examples.movies.domain.Rating;
 import org.springframework.data.neo4j.template.context.DataManipulationEventConfiguration;
 import org.springframework.test.annotation.DirtiesContext;
@@ -27,6 +32,12 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.net.SocketException;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 @ContextConfiguration(classes = DataManipulationEventConfiguration.class)
 @RunWith(SpringJUnit4ClassRunner.class)
 @Transactional
@@ -36,6 +47,9 @@ public class ExceptionTranslationTest extends MultiDriverTestClass {
     @Autowired
     private Neo4jOperations neo4jTemplate;
 
+    @Autowired
+    private PersistenceExceptionTranslator persistenceExceptionTranslator;
+
 
     @Before
     public void setUp()  {
@@ -48,4 +62,21 @@ public class ExceptionTranslationTest extends MultiDriverTestClass {
 
     }
 
+    @Test
+    public void testTranslatorReturnsTranslatedExceptions() {
+        NotFoundException notFound = new NotFoundException("Not found");
+        DataAccessException translated = persistenceExceptionTranslator.translateExceptionIfPossible(notFound);
+        assertTrue(translated instanceof DataRetrievalFailureException);
+        assertSame(notFound, translated.getCause());
+
+        assertTrue(persistenceExceptionTranslator.translateExceptionIfPossible(
+                new RuntimeException("Request failed", new SocketException("Connection reset"))) instanceof TransientDataAccessResourceException);
+    }
+
+    @Test
+    public void testTranslatorReturnsNullForUntranslatableExceptions() {
+        assertNull(persistenceExceptionTranslator.translateExceptionIfPossible(new IllegalStateException()));
+        assertNull(persistenceExceptionTranslator.translateExceptionIfPossible(new InvalidDataAccessApiUsageException("Already translated")));
+    }
+
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.mapping.LazyRelationshipCollection;
+import org.springframework.data.neo4j.template.context.LazyLoadingConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that relationships beyond the depth to which entities are loaded are loaded on first access, in one
+ * batch for all the siblings loaded together.
+ */
+@ContextConfiguration(classes = LazyLoadingConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class LazyRelationshipLoadingTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldLoadRelationshipsOfEntitiesLoadedAtDepthZeroOnFirstAccess() {
+        User michal = new User("Michal");
+        michal.befriend(new User("Vince"));
+        michal.befriend(new User("Luanne"));
+        neo4jTemplate.save(michal);
+        neo4jTemplate.clear();
+
+        User loaded = neo4jTemplate.load(User.class, michal.getId(), 0);
+
+        assertTrue(loaded.getFriends() instanceof LazyRelationshipCollection);
+        assertFalse(((LazyRelationshipCollection) loaded.getFriends()).isLoaded());
+        assertEquals(names("Vince", "Luanne"), namesOf(loaded.getFriends()));
+        assertTrue(((LazyRelationshipCollection) loaded.getFriends()).isLoaded());
+    }
+
+    @Test
+    public void shouldLoadTheRelationshipsOfSiblingsInOneBatch() {
+        User michal = new User("Michal");
+        User vince = new User("Vince");
+        michal.befriend(new User("Adam"));
+        vince.befriend(new User("Luanne"));
+        vince.befriend(new User("Daniela"));
+        neo4jTemplate.save(michal);
+        neo4jTemplate.save(vince);
+        neo4jTemplate.clear();
+
+        Map<String, User> loaded = new HashMap<>();
+        for (User user : neo4jTemplate.loadAll(User.class, 0)) {
+            loaded.put(user.getName(), user);
+        }
+        assertEquals(names("Adam"), namesOf(loaded.get("Michal").getFriends()));
+
+        // the batch has loaded every sibling's friends already, so this change goes unnoticed
+        graphDatabaseService.execute("MATCH ()-[r:FRIEND_OF]-() DELETE r");
+        assertEquals(names("Luanne", "Daniela"), namesOf(loaded.get("Vince").getFriends()));
+    }
+
+    @Test
+    public void shouldLoadRelationshipsBeyondTheRequestedDepthOnFirstAccess() {
+        User michal = new User("Michal");
+        User vince = new User("Vince");
+        michal.befriend(vince);
+        vince.befriend(new User("Luanne"));
+        userRepository.save(michal);
+        neo4jTemplate.clear();
+
+        User loaded = userRepository.findOne(michal.getId());
+        User friend = loaded.getFriends().iterator().next();
+
+        assertFalse(loaded.getFriends() instanceof LazyRelationshipCollection);
+        assertTrue(friend.getFriends() instanceof LazyRelationshipCollection);
+        assertEquals(names("Michal", "Luanne"), namesOf(friend.getFriends()));
+    }
+
+    @Test
+    public void shouldDeleteRelationshipsRemovedFromALazyCollectionOnSave() {
+        User michal = new User("Michal");
+        michal.befriend(new User("Vince"));
+        michal.befriend(new User("Luanne"));
+        neo4jTemplate.save(michal);
+        neo4jTemplate.clear();
+
+        User loaded = neo4jTemplate.load(User.class, michal.getId(), 0);
+        User vince = null;
+        for (User friend : loaded.getFriends()) {
+            if (friend.getName().equals("Vince")) {
+                vince = friend;
+            }
+        }
+        assertTrue(loaded.getFriends().remove(vince));
+        neo4jTemplate.save(loaded);
+        neo4jTemplate.clear();
+
+        assertEquals(names("Luanne"), namesOf(neo4jTemplate.load(User.class, michal.getId(), 1).getFriends()));
+    }
+
+    @Test
+    public void shouldKeepTheRelationshipsOfEntitiesLoadedBeforeWhenReachedAtTheEdge() {
+        User michal = new User("Michal");
+        michal.befriend(new User("Vince"));
+        neo4jTemplate.save(michal);
+        neo4jTemplate.clear();
+
+        User vince = neo4jTemplate.load(User.class, michal.getFriends().iterator().next().getId(), 2);
+        assertFalse(vince.getFriends() instanceof LazyRelationshipCollection);
+        vince.getFriends().add(new User("Luanne"));
+
+        User loaded = neo4jTemplate.load(User.class, michal.getId(), 1);
+
+        assertSame(vince, loaded.getFriends().iterator().next());
+        assertFalse(vince.getFriends() instanceof LazyRelationshipCollection);
+        assertEquals(names("Michal", "Luanne"), namesOf(vince.getFriends()));
+    }
+
+    private static Set<String> names(String... names) {
+        Set<String> set = new HashSet<>();
+        for (String name : names) {
+            set.add(name);
+        }
+        return set;
+    }
+
+    private static Set<String> namesOf(Collection<User> users) {
+        Set<String> names = new HashSet<>();
+        for (User user : users) {
+            names.add(user.getName());
+        }
+        return names;
+    }
+
+}
@@ -32,6 +32,7 @@ import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.neo4j.examples.movies.domain.*;
+import org.springframework.data.neo4j.mapping.FetchPlan;
 import org.springframework.data.neo4j.template.context.Neo4jTemplateConfiguration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -471,4 +472,30 @@ public class Neo4jTemplateTest extends MultiDriverTestClass {
         }
     }
 
+    @Test
+    public void shouldOnlyLoadTheRelationshipPathsOfAFetchPlan() {
+        User michal = new User("Michal");
+        User vince = new User("Vince");
+        User luanne = new User("Luanne");
+        michal.befriend(vince);
+        vince.befriend(luanne);
+        michal.rate(new TempMovie("Pulp Fiction"), 5, "Classic");
+        this.template.save(michal);
+        this.session.clear();
+
+        User loaded = this.template.load(User.class, michal.getId(), FetchPlan.of("-FRIEND_OF.-FRIEND_OF"));
+
+        assertEquals("Michal", loaded.getName());
+        assertTrue("Relationships outside the fetch plan shouldn't be loaded", loaded.getRatings().isEmpty());
+        assertEquals(1, loaded.getFriends().size());
+        User friend = loaded.getFriends().iterator().next();
+        assertEquals("Vince", friend.getName());
+        assertEquals(2, friend.getFriends().size());
+    }
+
+    @Test
+    public void shouldReturnNullWhenLoadingWithAFetchPlanByUnknownId() {
+        assertNull(this.template.load(User.class, Long.MAX_VALUE, FetchPlan.of("-FRIEND_OF")));
+    }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.neo4j.examples.movies.domain.Booking;
+import org.springframework.data.neo4j.examples.movies.domain.Ticket;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.template.context.Neo4jTemplateConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that entities with a <code>&#064;Version</code> property are optimistically locked.
+ */
+@ContextConfiguration(classes = Neo4jTemplateConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class OptimisticLockingTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private Neo4jMappingContext mappingContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+    }
+
+    @Test
+    public void shouldExposeVersionProperty() {
+        assertTrue(mappingContext.getPersistentEntity(Ticket.class).hasVersionProperty());
+        assertEquals("version", mappingContext.getPersistentEntity(Ticket.class).getVersionProperty().getName());
+    }
+
+    @Test
+    public void shouldInitialiseAndIncrementVersion() {
+        Ticket ticket = neo4jTemplate.save(new Ticket("A1"));
+        assertEquals(Long.valueOf(0), ticket.getVersion());
+
+        ticket.setHolder("Michal");
+        neo4jTemplate.save(ticket);
+
+        assertEquals(Long.valueOf(1), ticket.getVersion());
+        assertEquals(1L, versionInDatabase(ticket.getId()));
+    }
+
+    @Test
+    public void shouldRejectSaveOfStaleEntity() {
+        Ticket ticket = neo4jTemplate.save(new Ticket("B2"));
+        graphDatabaseService.execute("MATCH (n) WHERE id(n) = {id} SET n.holder = 'Vince', n.version = 1",
+                Collections.<String, Object>singletonMap("id", ticket.getId()));
+
+        ticket.setHolder("Luanne");
+        try {
+            neo4jTemplate.save(ticket);
+            fail("should have thrown exception");
+        } catch (OptimisticLockingFailureException expected) {
+            assertEquals(1L, versionInDatabase(ticket.getId()));
+            assertEquals(Long.valueOf(0), ticket.getVersion());
+        }
+    }
+
+    @Test
+    public void shouldRestoreVersionWhenTransactionRollsBack() {
+        final Ticket ticket = neo4jTemplate.save(new Ticket("D4"));
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    ticket.setHolder("Adam");
+                    neo4jTemplate.save(ticket);
+                    assertEquals(Long.valueOf(1), ticket.getVersion());
+                    throw new IllegalStateException("Rolling back");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            assertEquals(Long.valueOf(0), ticket.getVersion());
+            assertEquals(0L, versionInDatabase(ticket.getId()));
+        }
+    }
+
+    @Test
+    public void shouldRejectDeleteOfStaleEntity() {
+        Ticket ticket = neo4jTemplate.save(new Ticket("C3"));
+        graphDatabaseService.execute("MATCH (n) WHERE id(n) = {id} SET n.version = 5",
+                Collections.<String, Object>singletonMap("id", ticket.getId()));
+
+        try {
+            neo4jTemplate.delete(ticket);
+            fail("should have thrown exception");
+        } catch (OptimisticLockingFailureException expected) {
+            assertEquals(5L, versionInDatabase(ticket.getId()));
+        }
+    }
+
+    @Test
+    public void shouldCheckTheVersionOfRelationshipEntitiesAgainstTheirRelationship() {
+        Booking booking = neo4jTemplate.save(new Booking(new User("Michal"), new Ticket("E5")));
+        assertEquals(Long.valueOf(0), booking.getVersion());
+
+        booking.setStatus("PAID");
+        neo4jTemplate.save(booking);
+        assertEquals(Long.valueOf(1), booking.getVersion());
+        assertEquals(1L, relationshipVersionInDatabase(booking.getId()));
+
+        graphDatabaseService.execute("MATCH ()-[r]->() WHERE id(r) = {id} SET r.version = 2",
+                Collections.<String, Object>singletonMap("id", booking.getId()));
+        booking.setStatus("CANCELLED");
+        try {
+            neo4jTemplate.save(booking);
+            fail("should have thrown exception");
+        } catch (OptimisticLockingFailureException expected) {
+            assertEquals(2L, relationshipVersionInDatabase(booking.getId()));
+            assertEquals(Long.valueOf(1), booking.getVersion());
+        }
+    }
+
+    private long versionInDatabase(Long id) {
+        return ((Number) graphDatabaseService.execute("MATCH (n) WHERE id(n) = {id} RETURN n.version AS version",
+                Collections.<String, Object>singletonMap("id", id)).next().get("version")).longValue();
+    }
+
+    private long relationshipVersionInDatabase(Long id) {
+        return ((Number) graphDatabaseService.execute("MATCH ()-[r]->() WHERE id(r) = {id} RETURN r.version AS version",
+                Collections.<String, Object>singletonMap("id", id)).next().get("version")).longValue();
+    }
+
+}
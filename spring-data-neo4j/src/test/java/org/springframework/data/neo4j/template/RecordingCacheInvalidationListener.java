@@ -0,0 +1,41 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.springframework.data.neo4j.event.CacheInvalidation;
+import org.springframework.data.neo4j.event.CacheInvalidationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link CacheInvalidationListener} used to capture the {@link CacheInvalidation}s dispatched during a test run.
+ */
+public class RecordingCacheInvalidationListener implements CacheInvalidationListener {
+
+    private final List<CacheInvalidation> invalidations = new ArrayList<>();
+
+    @Override
+    public synchronized void invalidate(CacheInvalidation invalidation) {
+        invalidations.add(invalidation);
+    }
+
+    public synchronized List<CacheInvalidation> getInvalidations() {
+        return new ArrayList<>(invalidations);
+    }
+
+    public synchronized void reset() {
+        invalidations.clear();
+    }
+
+}
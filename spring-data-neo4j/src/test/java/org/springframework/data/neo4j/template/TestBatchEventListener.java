@@ -0,0 +1,42 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.neo4j.event.Neo4jBatchDataManipulationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring {@code ApplicationListener} used to capture {@link Neo4jBatchDataManipulationEvent}s that occur during a test
+ * run.  As with {@link TestNeo4jEventListener}, create an anonymous subclass to handle event type 'E'.
+ */
+public abstract class TestBatchEventListener<E extends Neo4jBatchDataManipulationEvent> implements ApplicationListener<E> {
+
+    private final List<E> events = new ArrayList<>();
+
+    @Override
+    public synchronized void onApplicationEvent(E event) {
+        this.events.add(event);
+    }
+
+    public synchronized List<E> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void reset() {
+        events.clear();
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.template.context.WriteBehindTemplateConfiguration;
+import org.springframework.data.neo4j.template.context.WriteBehindTemplateConfiguration.AfterSaveListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert the behaviour of {@link Neo4jTemplate} inside transactions running in write-behind mode.
+ */
+@ContextConfiguration(classes = WriteBehindTemplateConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+public class WriteBehindTemplateTest extends MultiDriverTestClass {
+
+    private GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AfterSaveListener afterSaveListener;
+
+    @After
+    public void clearDatabase() {
+        try (Transaction tx = graphDatabaseService.beginTx()) {
+            graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+            tx.success();
+        }
+        neo4jTemplate.clear();
+        afterSaveListener.getSavedEntities().clear();
+    }
+
+    @Test
+    public void shouldDeferSavesUntilCommit() {
+        final User[] users = new User[3];
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (int i = 0; i < users.length; i++) {
+                    users[i] = neo4jTemplate.save(new User("User " + i));
+                    assertNull("The save should have been queued", users[i].getId());
+                }
+            }
+        });
+
+        for (User user : users) {
+            assertNotNull("The save should have been flushed on commit", user.getId());
+        }
+        assertEquals(3, neo4jTemplate.count(User.class));
+    }
+
+    @Test
+    public void shouldSendQueuedWritesOnExplicitFlush() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User user = neo4jTemplate.save(new User("Flushed"));
+                assertNull(user.getId());
+
+                status.flush();
+                assertNotNull("The save should have been sent on flush", user.getId());
+            }
+        });
+
+        assertEquals(1, neo4jTemplate.count(User.class));
+    }
+
+    @Test
+    public void shouldDiscardQueuedWritesOnRollback() {
+        try {
+            new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    neo4jTemplate.save(new User("Rolled back"));
+                    throw new IllegalStateException("Deliberate testing exception");
+                }
+            });
+            fail("should have thrown exception");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        assertEquals(0, neo4jTemplate.count(User.class));
+        assertTrue("No after-event should be published for a discarded save", afterSaveListener.getSavedEntities().isEmpty());
+    }
+
+    @Test
+    public void shouldPublishAfterSaveEventsOnlyOnceTheSavesHaveBeenSent() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User user = neo4jTemplate.save(new User("Deferred"));
+                assertTrue("The after-event should wait for the save to be sent", afterSaveListener.getSavedEntities().isEmpty());
+
+                status.flush();
+                assertEquals(Collections.<Object>singletonList(user), afterSaveListener.getSavedEntities());
+            }
+        });
+    }
+
+    @Test
+    public void shouldFlushQueuedWritesBeforeLoadsAndCounts() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                User user = neo4jTemplate.save(new User("Loaded"));
+                assertEquals(1, neo4jTemplate.count(User.class));
+                assertNotNull(user.getId());
+
+                neo4jTemplate.save(new User("Loaded"));
+                Collection<User> loaded = neo4jTemplate.loadAllByProperty(User.class, "name", "Loaded");
+                assertEquals(2, loaded.size());
+            }
+        });
+    }
+
+    @Test
+    public void shouldDiscardOnlyTheWritesOfAFailedNestedTransaction() {
+        final TransactionTemplate nestedTransactionTemplate = new TransactionTemplate(transactionManager);
+        nestedTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                neo4jTemplate.save(new User("Before chunk"));
+                try {
+                    nestedTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                        @Override
+                        protected void doInTransactionWithoutResult(TransactionStatus nestedStatus) {
+                            assertTrue(nestedStatus.hasSavepoint());
+                            neo4jTemplate.save(new User("Failed chunk"));
+                            throw new IllegalStateException("Deliberate testing exception");
+                        }
+                    });
+                    fail("should have thrown exception");
+                } catch (IllegalStateException expected) {
+                    // expected
+                }
+                nestedTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus nestedStatus) {
+                        neo4jTemplate.save(new User("Retried chunk"));
+                    }
+                });
+            }
+        });
+
+        assertEquals(2, neo4jTemplate.count(User.class));
+        assertTrue(neo4jTemplate.loadAllByProperty(User.class, "name", "Failed chunk").isEmpty());
+    }
+
+    @Test
+    public void shouldStillRollBackANestedTransactionThatReadsAfterQueueingWrites() {
+        final TransactionTemplate nestedTransactionTemplate = new TransactionTemplate(transactionManager);
+        nestedTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                final User before = neo4jTemplate.save(new User("Before chunk"));
+                try {
+                    nestedTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                        @Override
+                        protected void doInTransactionWithoutResult(TransactionStatus nestedStatus) {
+                            User failed = neo4jTemplate.save(new User("Failed chunk"));
+                            assertEquals("Only the writes queued before the savepoint should be sent before a read",
+                                    1, neo4jTemplate.count(User.class));
+                            assertNotNull(before.getId());
+                            assertNull(failed.getId());
+                            throw new IllegalStateException("Deliberate testing exception");
+                        }
+                    });
+                    fail("should have thrown exception");
+                } catch (IllegalStateException expected) {
+                    // expected
+                }
+            }
+        });
+
+        assertEquals(1, neo4jTemplate.count(User.class));
+        assertTrue(neo4jTemplate.loadAllByProperty(User.class, "name", "Failed chunk").isEmpty());
+    }
+
+}
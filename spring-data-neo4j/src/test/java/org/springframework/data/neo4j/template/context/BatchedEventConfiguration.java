@@ -0,0 +1,65 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template.context;
+
+import org.neo4j.ogm.session.SessionFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.neo4j.config.Neo4jConfiguration;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BatchDeleteEvent;
+import org.springframework.data.neo4j.event.BatchSaveEvent;
+import org.springframework.data.neo4j.template.TestBatchEventListener;
+import org.springframework.data.neo4j.template.TestNeo4jEventListener;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Spring Configuration bean for testing data manipulation events batched per transaction.
+ */
+@Configuration
+@EnableTransactionManagement
+public class BatchedEventConfiguration extends Neo4jConfiguration {
+
+    @Override
+    @Bean
+    public SessionFactory getSessionFactory() {
+        return new SessionFactory("org.springframework.data.neo4j.examples.movies.domain");
+    }
+
+    @Override
+    @Bean
+    public PlatformTransactionManager transactionManager() throws Exception {
+        Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(getSession());
+        transactionManager.setBatchEvents(true);
+        return transactionManager;
+    }
+
+    @Bean
+    public ApplicationListener<AfterSaveEvent> afterSaveEventListener() {
+        return new TestNeo4jEventListener<AfterSaveEvent>() {};
+    }
+
+    @Bean
+    public ApplicationListener<BatchSaveEvent> batchSaveEventListener() {
+        return new TestBatchEventListener<BatchSaveEvent>() {};
+    }
+
+    @Bean
+    public ApplicationListener<BatchDeleteEvent> batchDeleteEventListener() {
+        return new TestBatchEventListener<BatchDeleteEvent>() {};
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template.context;
+
+import org.neo4j.ogm.session.SessionFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.neo4j.config.Neo4jConfiguration;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring Configuration bean for testing <code>Neo4jTemplate</code> inside transactions running in write-behind mode.
+ */
+@Configuration
+@EnableTransactionManagement
+public class WriteBehindTemplateConfiguration extends Neo4jConfiguration {
+
+    @Override
+    @Bean
+    public SessionFactory getSessionFactory() {
+        return new SessionFactory("org.springframework.data.neo4j.examples.movies.domain");
+    }
+
+    @Override
+    @Bean
+    public PlatformTransactionManager transactionManager() throws Exception {
+        Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(getSession());
+        transactionManager.setWriteBehind(true);
+        return transactionManager;
+    }
+
+    @Bean
+    public AfterSaveListener afterSaveListener() {
+        return new AfterSaveListener();
+    }
+
+    /**
+     * Records the entities of the {@link AfterSaveEvent}s it receives.
+     */
+    public static class AfterSaveListener implements ApplicationListener<AfterSaveEvent> {
+
+        private final List<Object> savedEntities = new ArrayList<>();
+
+        @Override
+        public void onApplicationEvent(AfterSaveEvent event) {
+            savedEntities.add(event.getEntity());
+        }
+
+        public List<Object> getSavedEntities() {
+            return savedEntities;
+        }
+    }
+
+}
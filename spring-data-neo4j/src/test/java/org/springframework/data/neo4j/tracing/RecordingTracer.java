@@ -0,0 +1,106 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Tracer} that keeps every span it opens, for tests to inspect.
+ */
+public class RecordingTracer implements Tracer {
+
+    private final List<RecordedSpan> spans = Collections.synchronizedList(new ArrayList<RecordedSpan>());
+
+    @Override
+    public Span startSpan(String name) {
+        RecordedSpan span = new RecordedSpan(name);
+        spans.add(span);
+        return span;
+    }
+
+    public List<RecordedSpan> getSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    public RecordedSpan getSpan(String name) {
+        for (RecordedSpan span : getSpans()) {
+            if (span.name.equals(name)) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        spans.clear();
+    }
+
+    public static class RecordedSpan implements Span {
+
+        private final String name;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private Throwable exception;
+        private boolean ended;
+
+        RecordedSpan(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Span setAttribute(String key, String value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Span setAttribute(String key, long value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Span recordException(Throwable exception) {
+            this.exception = exception;
+            return this;
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Object getAttribute(String key) {
+            return attributes.get(key);
+        }
+
+        public Throwable getException() {
+            return exception;
+        }
+
+        public boolean isEnded() {
+            return ended;
+        }
+    }
+
+}
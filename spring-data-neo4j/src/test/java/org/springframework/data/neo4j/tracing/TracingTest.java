@@ -0,0 +1,115 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.tracing;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.data.neo4j.tracing.context.TracingConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test to assert that spans are opened around template operations, repository methods and transactions.
+ */
+@ContextConfiguration(classes = TracingConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+public class TracingTest extends MultiDriverTestClass {
+
+    private static GraphDatabaseService graphDatabaseService = getGraphDatabaseService();
+
+    @Autowired
+    private Neo4jOperations neo4jTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingTracer tracer;
+
+    @After
+    public void tearDown() {
+        graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
+        neo4jTemplate.clear();
+        tracer.clear();
+    }
+
+    @Test
+    public void shouldTraceRepositoryQueriesWithStatementAndRowCount() {
+        graphDatabaseService.execute("CREATE (:User:Person {name:'Michal'})");
+
+        assertNotNull(userRepository.findUserByNameWithNamedParam("Michal"));
+
+        RecordingTracer.RecordedSpan span = tracer.getSpan("UserRepository.findUserByNameWithNamedParam");
+        assertNotNull(span);
+        assertTrue(span.isEnded());
+        assertEquals(User.class.getName(), span.getAttribute(Span.ENTITY_TYPE));
+        assertEquals("MATCH (user:User{name:{name}}) RETURN user", span.getAttribute(Span.DB_STATEMENT));
+        assertEquals(1L, span.getAttribute(Span.ROW_COUNT));
+    }
+
+    @Test
+    public void shouldTraceTemplateOperationsAndFailures() {
+        User user = neo4jTemplate.save(new User("Vince"));
+        neo4jTemplate.load(User.class, user.getId());
+        try {
+            neo4jTemplate.query("NOT CYPHER", Collections.<String, Object>emptyMap());
+            fail("Should have thrown an exception for invalid Cypher");
+        } catch (RuntimeException expected) {
+            // the failure is recorded on the span
+        }
+
+        assertEquals(1L, tracer.getSpan("Neo4jOperations.load").getAttribute(Span.ROW_COUNT));
+        RecordingTracer.RecordedSpan query = tracer.getSpan("Neo4jOperations.query");
+        assertEquals("NOT CYPHER", query.getAttribute(Span.DB_STATEMENT));
+        assertNotNull(query.getException());
+        assertTrue(query.isEnded());
+    }
+
+    @Test
+    public void shouldTraceTransactionDemarcation() {
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                userRepository.save(new User("Luanne"));
+            }
+        });
+
+        assertEquals("true", tracer.getSpan("Neo4jTransactionManager.begin").getAttribute("neo4j.transaction.new"));
+        assertEquals("true", tracer.getSpan("Neo4jTransactionManager.acquireSession").getAttribute("neo4j.transaction.new"));
+        assertTrue(tracer.getSpan("Neo4jTransactionManager.acquireSession").isEnded());
+        assertTrue(tracer.getSpan("Neo4jTransactionManager.commit").isEnded());
+        assertNull(tracer.getSpan("Neo4jTransactionManager.rollback"));
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transactions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.exception.ResultProcessingException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.neo4j.template.Neo4jOgmExceptionTranslator;
+import org.springframework.data.neo4j.transaction.RetryingTransactionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link RetryingTransactionTemplate} and the transient failure classification it relies on.
+ */
+public class RetryingTransactionTemplateTest {
+
+    private CountingTransactionManager transactionManager;
+    private List<Long> backoffs;
+    private RetryingTransactionTemplate retryingTemplate;
+
+    @Before
+    public void setUp() {
+        transactionManager = new CountingTransactionManager();
+        backoffs = new ArrayList<>();
+        retryingTemplate = new RetryingTransactionTemplate(transactionManager) {
+            @Override
+            protected void sleep(long millis) {
+                backoffs.add(millis);
+            }
+        };
+        retryingTemplate.setMaxAttempts(4);
+        retryingTemplate.setInitialBackoffMillis(100);
+        retryingTemplate.setMaxBackoffMillis(300);
+    }
+
+    @Test
+    public void shouldRetryTransientFailuresUntilSuccess() {
+        String result = retryingTemplate.execute(new FailingCallback(2, new DeadlockLoserDataAccessException("deadlock", null)));
+
+        assertEquals("done", result);
+        assertEquals(1, transactionManager.commits);
+        assertEquals(2, transactionManager.rollbacks);
+        assertEquals(2, backoffs.size());
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() {
+        try {
+            retryingTemplate.execute(new FailingCallback(10, new ResultProcessingException("Neo.TransientError.Transaction.DeadlockDetected", null)));
+            fail("should have thrown exception");
+        } catch (ResultProcessingException expected) {
+            assertEquals(4, transactionManager.rollbacks);
+            assertEquals(3, backoffs.size());
+        }
+    }
+
+    @Test
+    public void shouldNotRetryPermanentFailures() {
+        try {
+            retryingTemplate.execute(new FailingCallback(1, new InvalidDataAccessApiUsageException("bad depth")));
+            fail("should have thrown exception");
+        } catch (InvalidDataAccessApiUsageException expected) {
+            assertEquals(1, transactionManager.rollbacks);
+            assertTrue(backoffs.isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldNotRetryWhenJoiningAnOuterTransaction() {
+        JoiningTransactionManager joiningTransactionManager = new JoiningTransactionManager();
+        final RetryingTransactionTemplate joiningTemplate = new RetryingTransactionTemplate(joiningTransactionManager) {
+            @Override
+            protected void sleep(long millis) {
+                backoffs.add(millis);
+            }
+        };
+        final FailingCallback callback = new FailingCallback(1, new DeadlockLoserDataAccessException("deadlock", null));
+
+        try {
+            new TransactionTemplate(joiningTransactionManager).execute(new TransactionCallback<String>() {
+                @Override
+                public String doInTransaction(TransactionStatus status) {
+                    return joiningTemplate.execute(callback);
+                }
+            });
+            fail("should have thrown exception");
+        } catch (DeadlockLoserDataAccessException expected) {
+            assertTrue("A participating attempt shouldn't be retried", backoffs.isEmpty());
+            assertEquals(1, joiningTransactionManager.begins);
+            assertEquals(1, joiningTransactionManager.rollbacks);
+            assertEquals(0, joiningTransactionManager.commits);
+        }
+    }
+
+    @Test
+    public void shouldRetryWhenStartingItsOwnTransaction() {
+        JoiningTransactionManager joiningTransactionManager = new JoiningTransactionManager();
+        RetryingTransactionTemplate joiningTemplate = new RetryingTransactionTemplate(joiningTransactionManager) {
+            @Override
+            protected void sleep(long millis) {
+                backoffs.add(millis);
+            }
+        };
+
+        assertEquals("done", joiningTemplate.execute(new FailingCallback(1, new DeadlockLoserDataAccessException("deadlock", null))));
+        assertEquals(2, joiningTransactionManager.begins);
+        assertEquals(1, joiningTransactionManager.commits);
+        assertEquals(1, backoffs.size());
+    }
+
+    @Test
+    public void shouldBoundExponentialBackoffWithJitter() {
+        BackoffExposingTemplate template = new BackoffExposingTemplate();
+        template.setInitialBackoffMillis(100);
+        template.setMaxBackoffMillis(300);
+
+        for (int i = 0; i < 20; i++) {
+            long first = template.computeBackoff(1);
+            long second = template.computeBackoff(2);
+            long fifth = template.computeBackoff(5);
+            assertTrue(first >= 50 && first <= 100);
+            assertTrue(second >= 100 && second <= 200);
+            assertTrue(fifth >= 150 && fifth <= 300);
+        }
+    }
+
+    @Test
+    public void shouldClassifyTransientFailures() {
+        assertTrue(Neo4jOgmExceptionTranslator.isTransient(new ResultProcessingException("Request failed", new SocketException("Connection reset"))));
+        assertTrue(Neo4jOgmExceptionTranslator.isTransient(new RuntimeException("Neo.ClientError.Cluster.NotALeader")));
+        assertFalse(Neo4jOgmExceptionTranslator.isTransient(new RuntimeException("Neo.ClientError.Statement.SyntaxError")));
+        assertFalse(Neo4jOgmExceptionTranslator.isTransient(new IllegalArgumentException()));
+    }
+
+    private static class BackoffExposingTemplate extends RetryingTransactionTemplate {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public long computeBackoff(int attempt) {
+            return super.computeBackoff(attempt);
+        }
+    }
+
+    private static class FailingCallback implements TransactionCallback<String> {
+
+        private final RuntimeException failure;
+        private int failuresLeft;
+
+        FailingCallback(int failures, RuntimeException failure) {
+            this.failuresLeft = failures;
+            this.failure = failure;
+        }
+
+        @Override
+        public String doInTransaction(TransactionStatus status) {
+            if (failuresLeft-- > 0) {
+                throw failure;
+            }
+            return "done";
+        }
+    }
+
+    /**
+     * A transaction manager whose transactions are joined by inner units of work, as the Neo4j one does by default.
+     */
+    private static class JoiningTransactionManager extends AbstractPlatformTransactionManager {
+
+        private static final long serialVersionUID = 1L;
+
+        int begins;
+        int commits;
+        int rollbacks;
+        private boolean active;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return active;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begins++;
+            active = true;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+            active = false;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks++;
+            active = false;
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            // the outer transaction is rolled back when the failure reaches it
+        }
+    }
+
+    private static class CountingTransactionManager implements PlatformTransactionManager {
+
+        int commits;
+        int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ExpiringLruCacheTest {
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(2, 0, TimeUnit.SECONDS);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void shouldTreatExpiredEntriesAsAbsent() {
+        ManualClockCache cache = new ManualClockCache(10, 5, TimeUnit.SECONDS);
+        cache.put("a", 1);
+
+        cache.now += TimeUnit.SECONDS.toNanos(5);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        cache.now += 1;
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldRemoveAndClearEntries() {
+        ExpiringLruCache<String, Integer> cache = new ExpiringLruCache<>(10, 1, TimeUnit.MINUTES);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        assertEquals(Integer.valueOf(1), cache.remove("a"));
+        assertNull(cache.remove("a"));
+        assertEquals(1, cache.keys().size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private static class ManualClockCache extends ExpiringLruCache<String, Integer> {
+
+        long now;
+
+        ManualClockCache(int maxSize, long timeToLive, TimeUnit timeUnit) {
+            super(maxSize, timeToLive, timeUnit);
+        }
+
+        @Override
+        protected long currentTimeNanos() {
+            return now;
+        }
+    }
+
+}